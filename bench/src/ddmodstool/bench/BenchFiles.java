@@ -0,0 +1,68 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Files of benchmarks.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BenchFiles {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /** Lists files under the dir (recursively) whose names end with the suffix, sorted. */
+  public static List<Path> list(Path dir, String suffix) throws IOException {
+    List<Path> pathList;
+    try (Stream<Path> stream = Files.walk(dir)) {
+      pathList = stream
+          .filter(path -> path.getFileName().toString().endsWith(suffix))
+          .filter(Files::isRegularFile)
+          .sorted()
+          .toList();
+    }
+    if (pathList.isEmpty()) {
+      throw new IllegalArgumentException("no *" + suffix + " under " + dir.toAbsolutePath());
+    }
+    return pathList;
+  }
+
+  public static void delete(Path dir) throws IOException {
+    if (dir == null || Files.notExists(dir)) {
+      return;
+    }
+    try (Stream<Path> stream = Files.walk(dir)) {
+      for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+}
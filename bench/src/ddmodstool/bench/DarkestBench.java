@@ -0,0 +1,107 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of reading [ *.darkest ] files, each operation covers all the files.
+ *
+ * <p>The files are generated by {@link DarkestGenerator}, or are those under the {@code source}
+ * dir, e.g. {@code -p source=<game>}.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DarkestBench {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  @Param("generated")
+  public String source;
+  // of generated files only
+  @Param("200")
+  public int count;
+  // of generated files only
+  @Param("200")
+  public int lineN;
+
+  private Path tempDir;
+  private List<Path> pathList;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    if (source.equals("generated")) {
+      tempDir = Files.createTempDirectory("darkest-bench");
+      pathList = DarkestGenerator.generate(tempDir, count, 0, lineN);
+    } else {
+      pathList = BenchFiles.list(Path.of(source), ".darkest");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchFiles.delete(tempDir);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  @Benchmark
+  public void read(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(Darkest.read(path));
+    }
+  }
+
+  @Benchmark
+  public void readSourceRetained(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(Darkest.read(path, null, true));
+    }
+  }
+
+}
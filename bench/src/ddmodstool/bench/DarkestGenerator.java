@@ -0,0 +1,132 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Generator of random [ *.darkest ] files shaped like the game's.
+ *
+ * <p>Lines mix quoted and bare values, percentages, negative numbers, comments, escapes,
+ * continuation lines and irregular whitespace. The same seed always gives the same content.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DarkestGenerator {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static String generate(long seed, int lineN) {
+    Random random = new Random(seed);
+    StringBuilder bu = new StringBuilder(lineN * 120);
+    bu.append("// generated, seed ").append(seed).append("\r\n");
+    for (int i = 0; i < lineN; i++) {
+      if (random.nextInt(10) == 0) {
+        bu.append("\r\n");
+      }
+      bu.append(LINE_TYPES[random.nextInt(LINE_TYPES.length)]).append(':');
+      // item names are unique in a line
+      int itemN = 1 + random.nextInt(10);
+      int itemNameOffset = random.nextInt(ITEM_NAMES.length);
+      for (int k = 0; k < itemN; k++) {
+        // continuation lines start with an item
+        bu.append((random.nextInt(12) == 0) ? "\r\n\t" : SPACES[random.nextInt(SPACES.length)]);
+        bu.append('.').append(ITEM_NAMES[(itemNameOffset + k) % ITEM_NAMES.length]);
+        int valueN = random.nextInt(4);
+        for (int j = 0; j < valueN; j++) {
+          bu.append(SPACES[random.nextInt(SPACES.length)]);
+          appendValue(bu, random);
+        }
+      }
+      if (random.nextInt(8) == 0) {
+        bu.append(" // comment ").append(i);
+      }
+      bu.append("\r\n");
+    }
+    return bu.toString();
+  }
+
+  /**
+   * Writes {@code count} files generated from {@code seed}, {@code seed + 1}, ... into the dir.
+   *
+   * @return paths of the files in the order of seeds
+   */
+  public static List<Path> generate(Path dir, int count, long seed, int lineN)
+      throws IOException {
+    Files.createDirectories(dir);
+    List<Path> pathList = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Path path = dir.resolve("generated" + i + ".darkest");
+      Files.writeString(path, generate(seed + i, lineN));
+      pathList.add(path);
+    }
+    return pathList;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final String[] LINE_TYPES = {
+      "combat_skill", "combat_move_skill", "weapon", "armour", "resistances", "effect",
+      "trinket", "buff", "tag", "mode", "generation", "activity_modifier", "hp_reaction"};
+
+  private static final String[] ITEM_NAMES = {
+      "id", "level", "type", "atk", "dmg", "crit", "launch", "target", "effect", "buffs",
+      "name", "def", "prot", "hp", "spd", "is_crit_valid", "stun", "bleed", "chance",
+      "duration", "on_hit", "on_miss", "rarity", "amount", "stat_sub_type", "keep_rank"};
+
+  private static final String[] WORDS = {
+      "smite", "stun", "bleed", "blight", "heal", "guard", "riposte", "mark", "crusader",
+      "vestal", "highwayman", "plague_doctor", "melee", "ranged", "TRINKET_ACC", "Crusader"};
+
+  private static final String[] SPACES = {" ", " ", " ", "  ", "\t", "    "};
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static void appendValue(StringBuilder bu, Random random) {
+    switch (random.nextInt(6)) {
+      case 0 -> {
+        bu.append('"').append(WORDS[random.nextInt(WORDS.length)]);
+        if (random.nextInt(4) == 0) {
+          bu.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (random.nextInt(30) == 0) {
+          bu.append(" \\\"quoted\\\" \\\\");
+        }
+        bu.append('"');
+      }
+      case 1 -> bu.append(random.nextInt(200) - 50).append('%');
+      case 2 -> bu.append(random.nextInt(10000));
+      case 3 -> bu.append(random.nextInt(1000) / 100f);
+      case 4 -> bu.append(random.nextBoolean() ? "true" : "False");
+      default -> bu.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import ddmodstool.bench._internal_._LegacyDarkestReader_;
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the [ *.darkest ] tokenizer against the one it replaced, each operation covers all
+ * the files.
+ *
+ * <p>The files are the real ones under the {@code source} dir, which is required, e.g.
+ * {@code -p source=<game>}. The current reader should be at least 3x as fast as the legacy one.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DarkestTokenizerBench {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  @Param("")
+  public String source;
+
+  private List<Path> pathList;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    if (source.isBlank()) {
+      throw new IllegalArgumentException("-p source=<dir of real .darkest files> is required");
+    }
+    pathList = BenchFiles.list(Path.of(source), ".darkest");
+    // otherwise the readers would not be doing the same work
+    for (Path path : pathList) {
+      if (!isSame(_LegacyDarkestReader_.read(path), Darkest.read(path))) {
+        throw new IllegalStateException("the readers disagree on " + path);
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  @Benchmark
+  public void legacy(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(_LegacyDarkestReader_.read(path));
+    }
+  }
+
+  @Benchmark
+  public void current(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(Darkest.read(path));
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // same line types, lines, item names and values, in the same order
+  private static boolean isSame(Darkest darkest, Darkest other) {
+    Map<String, List<Line>> lineListMap = darkest.reqLineListMap();
+    Map<String, List<Line>> otherLineListMap = other.reqLineListMap();
+    if (!List.copyOf(lineListMap.keySet()).equals(List.copyOf(otherLineListMap.keySet()))) {
+      return false;
+    }
+    for (Map.Entry<String, List<Line>> entry : lineListMap.entrySet()) {
+      List<Line> lineList = entry.getValue();
+      List<Line> otherLineList = otherLineListMap.get(entry.getKey());
+      if (lineList.size() != otherLineList.size()) {
+        return false;
+      }
+      for (int i = 0; i < lineList.size(); i++) {
+        if (!isSame(lineList.get(i), otherLineList.get(i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSame(Line line, Line other) {
+    Map<String, Item> itemMap = line.reqItemMap();
+    Map<String, Item> otherItemMap = other.reqItemMap();
+    if (itemMap.size() != otherItemMap.size()) {
+      return false;
+    }
+    Iterator<Item> otherItems = otherItemMap.values().iterator();
+    for (Item item : itemMap.values()) {
+      Item otherItem = otherItems.next();
+      if (!item.reqName().equals(otherItem.reqName())
+          || !item.reqValueList().equals(otherItem.reqValueList())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import ddmodstool.core.game.base.file.skel.Skel;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of reading and writing [ *.skel ] files, each operation covers all the skels.
+ *
+ * <p>The skels are generated by {@link SkelGenerator}, or are those under the {@code source}
+ * dir, e.g. {@code -p source=<game>/heroes}.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SkelBench {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  @Param("generated")
+  public String source;
+  // of generated skels only
+  @Param({"1", "4"})
+  public int scale;
+  // of generated skels only
+  @Param("100")
+  public int count;
+
+  private Path tempDir;
+  private List<Path> pathList;
+  private List<Skel> skelList;
+  private List<SkelData> skelDataList;
+  private Path outPath;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory("skel-bench");
+    if (source.equals("generated")) {
+      pathList = SkelGenerator.generate(tempDir.resolve("src"), count, 0, scale);
+    } else {
+      pathList = BenchFiles.list(Path.of(source), ".skel");
+    }
+    skelList = new ArrayList<>(pathList.size());
+    skelDataList = new ArrayList<>(pathList.size());
+    for (Path path : pathList) {
+      skelList.add(Skel.read(path));
+      skelDataList.add(SkelData.read(path));
+    }
+    outPath = tempDir.resolve("bench.sprite.out.skel");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchFiles.delete(tempDir);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  @Benchmark
+  public void readSkel(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(Skel.read(path));
+    }
+  }
+
+  @Benchmark
+  public void readSkelData(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(SkelData.read(path));
+    }
+  }
+
+  @Benchmark
+  public void readSkelDataLazily(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(SkelData.read(path, true));
+    }
+  }
+
+  @Benchmark
+  public void writeSkel() {
+    for (Skel skel : skelList) {
+      Skel.write(outPath, skel);
+    }
+  }
+
+  @Benchmark
+  public void writeSkelData() {
+    for (SkelData skelData : skelDataList) {
+      SkelData.write(outPath, skelData);
+    }
+  }
+
+}
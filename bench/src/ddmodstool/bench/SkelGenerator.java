@@ -0,0 +1,444 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of random, well-formed [ *.skel ] files.
+ *
+ * <p>The same seed and scale always give the same bytes. The scale multiplies the number of
+ * bones, slots, vertices and frames.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class SkelGenerator {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static byte[] generate(long seed, int scale) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      new SkelGenerator(new DataOutputStream(bytes), new Random(seed), scale).writeSkel();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Writes {@code count} skels generated from {@code seed}, {@code seed + 1}, ... into the dir.
+   *
+   * @return paths of the skels in the order of seeds
+   */
+  public static List<Path> generate(Path dir, int count, long seed, int scale) throws IOException {
+    Files.createDirectories(dir);
+    List<Path> pathList = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Path path = dir.resolve("hero" + i + ".sprite.idle" + i + ".skel");
+      Files.write(path, generate(seed + i, scale));
+      pathList.add(path);
+    }
+    return pathList;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final DataOutputStream output;
+  private final Random random;
+  private final int scale;
+  private final boolean nonessential;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void writeSkel() throws IOException {
+    writeString("hash" + random.nextInt(1000));
+    writeString("2.1.27");
+    writeFloat();
+    writeFloat();
+    output.writeBoolean(nonessential);
+    if (nonessential) {
+      writeString(randomString());
+    }
+    int boneN = 1 + upTo(20 * scale);
+    writeVarint(boneN);
+    for (int i = 0; i < boneN; i++) {
+      writeString("bone" + i);
+      writeVarint((i == 0) ? 0 : random.nextInt(i));
+      writeFloats(6);
+      for (int k = 0; k < 4; k++) {
+        output.writeBoolean(random.nextBoolean());
+      }
+      if (nonessential) {
+        output.writeInt(random.nextInt());
+      }
+    }
+    int ikN = upTo(3);
+    writeVarint(ikN);
+    for (int i = 0; i < ikN; i++) {
+      writeString("ik" + i);
+      int ikBoneN = 1 + upTo(2);
+      writeVarint(ikBoneN);
+      for (int k = 0; k < ikBoneN; k++) {
+        writeVarint(random.nextInt(boneN));
+      }
+      writeVarint(random.nextInt(boneN));
+      writeFloat();
+      output.writeByte(random.nextBoolean() ? 1 : -1);
+    }
+    int slotN = 1 + upTo(15 * scale);
+    writeVarint(slotN);
+    for (int i = 0; i < slotN; i++) {
+      writeString("slot" + i);
+      writeVarint(random.nextInt(boneN));
+      output.writeInt(random.nextInt());
+      writeString(randomString());
+      writeVarint(upTo(3));
+    }
+    writeSkin(slotN, boneN);
+    int skinN = upTo(2);
+    writeVarint(skinN);
+    for (int i = 0; i < skinN; i++) {
+      writeString("skin" + i);
+      writeSkin(slotN, boneN);
+    }
+    int eventN = upTo(3);
+    writeVarint(eventN);
+    for (int i = 0; i < eventN; i++) {
+      writeString("event" + i);
+      writeVarint(random.nextInt(100));
+      writeFloat();
+      writeString(randomString());
+    }
+    int animationN = 1 + upTo(8);
+    writeVarint(animationN);
+    for (int i = 0; i < animationN; i++) {
+      writeAnimation(slotN, boneN, ikN, skinN, eventN);
+    }
+  }
+
+  private void writeSkin(int slotN, int boneN) throws IOException {
+    int skinSlotN = upTo(Math.min(slotN, 6 * scale));
+    writeVarint(skinSlotN);
+    for (int i = 0; i < skinSlotN; i++) {
+      writeVarint(random.nextInt(slotN));
+      int attachmentN = upTo(3);
+      writeVarint(attachmentN);
+      for (int k = 0; k < attachmentN; k++) {
+        writeAttachment(boneN);
+      }
+    }
+  }
+
+  private void writeAttachment(int boneN) throws IOException {
+    writeString(randomString());
+    writeString(randomString());
+    int type = random.nextInt(4);
+    output.writeByte(type);
+    switch (type) {
+      case 0 -> {
+        writeString(randomString());
+        writeFloats(7);
+        output.writeInt(random.nextInt());
+      }
+      case 1 -> writeFloatArray(2 * upTo(8));
+      default -> {
+        writeString(randomString());
+        int vertexN = 3 + upTo(20 * scale);
+        writeFloatArray(vertexN * 2);
+        int triangleN = 3 * upTo(10 * scale);
+        writeVarint(triangleN);
+        for (int k = 0; k < triangleN; k++) {
+          output.writeShort(random.nextInt(vertexN));
+        }
+        if (type == 2) {
+          writeFloatArray(vertexN * 2);
+        } else {
+          writeWeightedVertices(vertexN, boneN);
+        }
+        output.writeInt(random.nextInt());
+        writeVarint(upTo(vertexN));
+        if (nonessential) {
+          int edgeN = upTo(10);
+          writeVarint(edgeN);
+          for (int k = 0; k < edgeN; k++) {
+            writeVarint(random.nextInt(200));
+          }
+          writeFloat();
+          writeFloat();
+        }
+      }
+    }
+  }
+
+  // bone count, then index, x, y and weight of each bone, for each vertex
+  private void writeWeightedVertices(int vertexN, int boneN) throws IOException {
+    List<Float> floatList = new ArrayList<>();
+    for (int k = 0; k < vertexN; k++) {
+      int vertexBoneN = 1 + upTo(3);
+      floatList.add((float) vertexBoneN);
+      for (int j = 0; j < vertexBoneN; j++) {
+        floatList.add((float) random.nextInt(boneN));
+        floatList.add(random.nextFloat());
+        floatList.add(random.nextFloat());
+        floatList.add(random.nextFloat());
+      }
+    }
+    writeVarint(floatList.size());
+    for (float value : floatList) {
+      output.writeFloat(value);
+    }
+  }
+
+  private void writeAnimation(int slotN, int boneN, int ikN, int skinN, int eventN)
+      throws IOException {
+    writeString("anim_" + random.nextInt(100000));
+    // slot timelines
+    int slotGroupN = upTo(Math.min(slotN, 4 * scale));
+    writeVarint(slotGroupN);
+    for (int i = 0; i < slotGroupN; i++) {
+      writeVarint(random.nextInt(slotN));
+      int timelineN = upTo(2);
+      writeVarint(timelineN);
+      for (int k = 0; k < timelineN; k++) {
+        int type = 3 + random.nextInt(2);
+        output.writeByte(type);
+        int frameN = upTo(6 * scale);
+        writeVarint(frameN);
+        for (int j = 0; j < frameN; j++) {
+          writeFloat();
+          if (type == 4) {
+            output.writeInt(random.nextInt());
+            writeCurve(j, frameN);
+          } else {
+            writeString(randomString());
+          }
+        }
+      }
+    }
+    // bone timelines
+    int boneGroupN = upTo(Math.min(boneN, 6 * scale));
+    writeVarint(boneGroupN);
+    for (int i = 0; i < boneGroupN; i++) {
+      writeVarint(random.nextInt(boneN));
+      int timelineN = upTo(3);
+      writeVarint(timelineN);
+      for (int k = 0; k < timelineN; k++) {
+        int type = BONE_TIMELINE_TYPES[random.nextInt(BONE_TIMELINE_TYPES.length)];
+        output.writeByte(type);
+        int frameN = upTo(8 * scale);
+        writeVarint(frameN);
+        for (int j = 0; j < frameN; j++) {
+          writeFloat();
+          if (type == 1) {
+            writeFloat();
+            writeCurve(j, frameN);
+          } else if (type == 0 || type == 2) {
+            writeFloat();
+            writeFloat();
+            writeCurve(j, frameN);
+          } else {
+            output.writeBoolean(random.nextBoolean());
+          }
+        }
+      }
+    }
+    // ik timelines
+    int ikTimelineN = (ikN == 0) ? 0 : upTo(2);
+    writeVarint(ikTimelineN);
+    for (int i = 0; i < ikTimelineN; i++) {
+      writeVarint(random.nextInt(ikN));
+      int frameN = upTo(5);
+      writeVarint(frameN);
+      for (int j = 0; j < frameN; j++) {
+        writeFloat();
+        writeFloat();
+        output.writeByte(random.nextBoolean() ? 1 : -1);
+        writeCurve(j, frameN);
+      }
+    }
+    // ffd timelines
+    int ffdSkinN = upTo(2);
+    writeVarint(ffdSkinN);
+    for (int i = 0; i < ffdSkinN; i++) {
+      writeVarint(random.nextInt(skinN + 1));
+      int ffdSlotN = upTo(2);
+      writeVarint(ffdSlotN);
+      for (int k = 0; k < ffdSlotN; k++) {
+        writeVarint(random.nextInt(slotN));
+        int timelineN = upTo(2);
+        writeVarint(timelineN);
+        for (int m = 0; m < timelineN; m++) {
+          writeString(randomString());
+          int frameN = upTo(5 * scale);
+          writeVarint(frameN);
+          for (int j = 0; j < frameN; j++) {
+            writeFloat();
+            int end = (random.nextInt(4) == 0) ? 0 : 1 + upTo(40 * scale);
+            writeVarint(end);
+            if (end != 0) {
+              writeVarint(upTo(20));
+              writeFloats(end);
+            }
+            writeCurve(j, frameN);
+          }
+        }
+      }
+    }
+    // draw order timeline
+    if (random.nextBoolean()) {
+      writeVarint(-1);
+    } else {
+      int frameN = upTo(3);
+      writeVarint(frameN);
+      for (int j = 0; j < frameN; j++) {
+        int offsetN = upTo(3);
+        writeVarint(offsetN);
+        for (int k = 0; k < offsetN; k++) {
+          writeVarint(random.nextInt(slotN));
+          writeVarint(random.nextInt(10));
+        }
+        writeFloat();
+      }
+    }
+    // event timeline
+    if (random.nextBoolean() || (eventN == 0)) {
+      writeVarint(-1);
+    } else {
+      int frameN = upTo(3);
+      writeVarint(frameN);
+      for (int j = 0; j < frameN; j++) {
+        writeFloat();
+        writeVarint(random.nextInt(eventN));
+        writeVarint(random.nextInt(100));
+        writeFloat();
+        boolean hasString = random.nextBoolean();
+        output.writeBoolean(hasString);
+        if (hasString) {
+          writeString(randomString());
+        }
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  // the last frame has no curve
+  private void writeCurve(int frameIndex, int frameN) throws IOException {
+    if (frameIndex + 1 == frameN) {
+      return;
+    }
+    int type = random.nextInt(3);
+    output.writeByte(type);
+    if (type == 2) {
+      writeFloats(4);
+    }
+  }
+
+  private void writeFloat() throws IOException {
+    // small integers are common in real skels
+    output.writeFloat((random.nextInt(8) == 0)
+        ? random.nextInt(5)
+        : (random.nextFloat() - 0.5f) * 400);
+  }
+
+  private void writeFloats(int n) throws IOException {
+    for (int i = 0; i < n; i++) {
+      writeFloat();
+    }
+  }
+
+  private void writeFloatArray(int n) throws IOException {
+    writeVarint(n);
+    writeFloats(n);
+  }
+
+  private void writeVarint(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private void writeString(String value) throws IOException {
+    if (value == null) {
+      writeVarint(0);
+      return;
+    }
+    writeVarint(value.length() + 1);
+    for (int i = 0; i < value.length(); i++) {
+      output.writeByte(value.charAt(i));
+    }
+  }
+
+  // null, empty, or lowercase letters sometimes followed by a latin-1 letter
+  private String randomString() {
+    int kind = random.nextInt(12);
+    if (kind == 0) {
+      return null;
+    } else if (kind == 1) {
+      return "";
+    }
+    StringBuilder bu = new StringBuilder();
+    int n = 1 + random.nextInt(12);
+    for (int i = 0; i < n; i++) {
+      bu.append((char) ('a' + random.nextInt(26)));
+    }
+    if (random.nextInt(20) == 0) {
+      bu.append((char) (0xC0 + random.nextInt(60)));
+    }
+    return bu.toString();
+  }
+
+  private int upTo(int max) {
+    return random.nextInt(max + 1);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private SkelGenerator(DataOutputStream output, Random random, int scale) {
+    this.output = output;
+    this.random = random;
+    this.scale = scale;
+    this.nonessential = random.nextBoolean();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  // scale, rotate, translate, flip x, flip y
+  private static final int[] BONE_TIMELINE_TYPES = {0, 1, 2, 5, 6};
+
+}
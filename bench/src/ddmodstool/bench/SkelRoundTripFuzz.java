@@ -0,0 +1,109 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import ddmodstool.core.game.base.file.skel.Skel;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Round-trip fuzz check of [ *.skel ] models.
+ *
+ * <p>Each generated skel is read and written back by every model, and the written file must be
+ * identical to the generated one byte for byte (floats included, bit for bit).
+ *
+ * <p>Arguments: {@code [count] [seed] [maxScale]}, defaults {@code 1000 0 4}. The process exits
+ * with status 1 if any round trip fails, each failure is printed with its seed.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SkelRoundTripFuzz {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static void main(String[] args) throws Exception {
+    int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+    long seed = (args.length > 1) ? Long.parseLong(args[1]) : 0;
+    int maxScale = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+    Path dir = Files.createTempDirectory("skel-fuzz");
+    Path srcPath = dir.resolve("fuzz.sprite.src.skel");
+    Path dstPath = dir.resolve("fuzz.sprite.dst.skel");
+    int failureN = 0;
+    try {
+      for (int i = 0; i < count; i++) {
+        long skelSeed = seed + i;
+        int scale = 1 + (i % maxScale);
+        byte[] expected = SkelGenerator.generate(skelSeed, scale);
+        Files.write(srcPath, expected);
+        for (Model model : MODEL_LIST) {
+          String failure;
+          try {
+            model.roundTrip.accept(srcPath, dstPath);
+            int offset = Arrays.mismatch(expected, Files.readAllBytes(dstPath));
+            failure = (offset == -1) ? null : "first differing byte at " + offset;
+          } catch (Exception e) {
+            failure = e.toString();
+          }
+          if (failure != null) {
+            failureN++;
+            System.out.printf("seed %d, scale %d, %s: %s%n", skelSeed, scale, model.name, failure);
+          }
+        }
+      }
+    } finally {
+      Files.deleteIfExists(srcPath);
+      Files.deleteIfExists(dstPath);
+      Files.deleteIfExists(dir);
+    }
+    System.out.printf("%d skels, %d round trips, %d failures%n",
+        count, count * MODEL_LIST.size(), failureN);
+    if (failureN != 0) {
+      System.exit(1);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final List<Model> MODEL_LIST = List.of(
+      new Model("Skel", (src, dst) -> Skel.write(dst, Skel.read(src))),
+      new Model("SkelData", (src, dst) -> SkelData.write(dst, SkelData.read(src))),
+      new Model("SkelData (lazy)", (src, dst) -> SkelData.write(dst, SkelData.read(src, true))),
+      new Model("SkelData -> Skel", (src, dst) -> Skel.write(dst, SkelData.read(src).toSkel())),
+      new Model("Skel -> SkelData",
+          (src, dst) -> SkelData.write(dst, SkelData.of(Skel.read(src)))));
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private record Model(String name, BiConsumer<Path, Path> roundTrip) {
+
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import ddmodstool.core.game.base.file.stringtable.StringTable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of reading [ *.string_table.xml ] files, each operation covers all the files.
+ *
+ * <p>The files are the bundled ones under {@code res/localization}, generated by
+ * {@link StringTableGenerator}, or are those under the {@code source} dir, e.g.
+ * {@code -p source=<game>/localization}.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringTableBench {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  @Param({"res/localization", "generated"})
+  public String source;
+
+  private Path tempDir;
+  private List<Path> pathList;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    if (source.equals("generated")) {
+      tempDir = Files.createTempDirectory("string-table-bench");
+      pathList = StringTableGenerator.generate(
+          tempDir, 20, 0, List.of("english", "schinese", "french"), 2000);
+    } else {
+      pathList = BenchFiles.list(Path.of(source), ".string_table.xml");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    BenchFiles.delete(tempDir);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  @Benchmark
+  public void read(Blackhole blackhole) {
+    for (Path path : pathList) {
+      blackhole.consume(StringTable.read(path, null));
+    }
+  }
+
+  @Benchmark
+  public void readToSink(Blackhole blackhole) {
+    for (Path path : pathList) {
+      StringTable.read(path, null, (languageId, entryId, cdata, start, length) -> {
+        blackhole.consume(entryId);
+        blackhole.consume(length);
+      });
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Generator of random [ *.string_table.xml ] files shaped like the game's.
+ *
+ * <p>Cdata mixes ascii and cjk text, colour markup and xml escapes outside cdata sections. The
+ * same seed always gives the same content.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StringTableGenerator {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static String generate(long seed, List<String> languageIdList, int entryN) {
+    Random random = new Random(seed);
+    StringBuilder bu = new StringBuilder(languageIdList.size() * entryN * 80);
+    bu.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<root>\r\n");
+    for (String languageId : languageIdList) {
+      bu.append("  <language id=\"").append(languageId).append("\">\r\n");
+      for (int i = 0; i < entryN; i++) {
+        bu.append("    <entry id=\"str_").append(seed).append('_').append(i).append("\">");
+        if (random.nextInt(20) == 0) {
+          // escaped text instead of a cdata section
+          bu.append("a &amp; b &lt;").append(i).append("&gt;");
+        } else {
+          bu.append("<![CDATA[");
+          appendText(bu, random);
+          bu.append("]]>");
+        }
+        bu.append("</entry>\r\n");
+      }
+      bu.append("  </language>\r\n");
+    }
+    bu.append("</root>\r\n");
+    return bu.toString();
+  }
+
+  /**
+   * Writes {@code count} files generated from {@code seed}, {@code seed + 1}, ... into the dir.
+   *
+   * @return paths of the files in the order of seeds
+   */
+  public static List<Path> generate(
+      Path dir, int count, long seed, List<String> languageIdList, int entryN)
+      throws IOException {
+    Files.createDirectories(dir);
+    List<Path> pathList = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Path path = dir.resolve("generated" + i + ".string_table.xml");
+      Files.writeString(path, generate(seed + i, languageIdList, entryN));
+      pathList.add(path);
+    }
+    return pathList;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final String[] WORDS = {
+      "The", "crusader", "strikes", "with", "holy", "fury", "stress", "heals", "torch", "%s",
+      "\\n", "鼓舞", "圣骑士", "流血", "眩晕", "暴击", "压力", "火炬", "治疗"};
+
+  private static void appendText(StringBuilder bu, Random random) {
+    int wordN = 1 + random.nextInt(24);
+    for (int i = 0; i < wordN; i++) {
+      if (i != 0) {
+        bu.append(' ');
+      }
+      if (random.nextInt(10) == 0) {
+        bu.append("{colour_start|notable}")
+            .append(WORDS[random.nextInt(WORDS.length)])
+            .append("{colour_end}");
+      } else {
+        bu.append(WORDS[random.nextInt(WORDS.length)]);
+      }
+    }
+  }
+
+}
@@ -19,28 +19,48 @@ package ddmodstool.core.game.base.data.localization;
 import static java.lang.String.format;
 
 import ddmodstool.core.conf.Conf;
-import ddmodstool.core.game.base.file.stringtable.StringTable;
-import ddmodstool.core.game.base.file.stringtable.StringTable.EntryMap;
+import ddmodstool.core.game.base.data.localization._internal_._LocMarkup_;
+import ddmodstool.core.game.base.data.localization._internal_._LocMarkup_.Renderer;
+import ddmodstool.core.game.base.data.localization._internal_._LocStore_;
+import ddmodstool.core.game.base.data.localization._internal_._LocTable_;
 import ddmodstool.core.game.base.file.stringtable.StringTableFilter;
 import ddmodstool.core.lang.util.IO;
 import ddmodstool.core.lang.util.ObV;
 import ddmodstool.core.lang.util.Simple;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.function.BinaryOperator;
-import java.util.function.Function;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
-import lombok.Getter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Localization.
  *
+ * <p>Entries are looked up without locking in an immutable snapshot, which has the entries of
+ * the parent flattened in. Reads and language changes only drop the snapshot, which is rebuilt
+ * by the next lookup, so it is built once however many files are read in between.
+ *
+ * <p>Entries of a file read for the first time are put on top of the tables of the files read
+ * before, so the read costs as much as the file. Each file read keeps its own stores, so a file
+ * that is read again is parsed again only if its size or last modified time has changed since,
+ * and the tables are put together again from all files.
+ *
+ * <p>If all languages are read, files are parsed once for all {@link Language}s, so changing the
+ * language swaps the stores only, and entries of other languages can be looked up too.
+ *
  * @author wautsns
  * @since 1.0.0
  */
@@ -55,73 +75,71 @@ public final class Loc {
   // ---------------------------------------------------------------------------------------------
   // ---------------------------------------------------------------------------------------------
 
-  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // held by writers only
+  private final ReentrantLock lock = new ReentrantLock();
   @SuppressWarnings({"FieldCanBeLocal", "unused"})
   private final Object languageObserver; // strongly referenced by this instance
 
   private final Loc parent;
-  // absolutePathString -> pathThatWasRead
-  private final Map<String, Path> pathMap = new LinkedHashMap<>();
-  private final @Getter EntryMap entryMap = Simple.init(() -> {
-    EntryMap entryMap = new EntryMap();
-    entryMap.setCdataListMap(new LinkedHashMap<>());
-    return entryMap;
-  });
+  private final boolean allLanguagesRead;
+  // absolutePathString -> fileThatWasRead, in read order
+  private final Map<String, LocFile> fileMap = new LinkedHashMap<>();
+  // languageId -> entriesOfTheFiles, used with the lock held
+  private final Map<String, _LocTable_> tableMap = new HashMap<>();
+  // languageId -> storeOfTheTable, changed with the lock held, null until the next lookup
+  private volatile Map<String, _LocStore_> storeMap = Map.of();
+  // changed with the lock held
+  private volatile String languageId;
+  // changed with the lock held, null until the next lookup
+  private volatile Snapshot snapshot = new Snapshot(_LocStore_.EMPTY, null);
 
   // ---------------------------------------------------------------------------------------------
   // PublicMethods
   // ---------------------------------------------------------------------------------------------
 
   public int count(String entryId) {
-    List<String> cdataList = entryMap.getCdataList(entryId);
-    return (cdataList == null) ? 0 : cdataList.size();
+    _LocStore_ store = snapshot().store();
+    int key = store.find(entryId);
+    return (key < 0) ? 0 : store.count(key);
   }
 
   // ---------------------------------------------------------------------------------------------
 
   public String text(String entryId) {
-    return text(entryId, (_entryId, cdata) -> {
-      if (cdata == null) {
-        return format("[<%s>]", _entryId);
-      }
-      return replaceAllColours(cdata, matcher -> matcher.group(2));
-    });
+    return text(entryId, Renderer.TEXT);
+  }
+
+  // colours are rendered as font colours, for swing components
+  public String html(String entryId) {
+    return "<html>" + text(entryId, Renderer.HTML) + "</html>";
+  }
+
+  // entries of languages other than the current one are found only if all languages are read
+  public String text(Language language, String entryId) {
+    return text(language.name(), entryId, Renderer.TEXT);
+  }
+
+  public String html(Language language, String entryId) {
+    return "<html>" + text(language.name(), entryId, Renderer.HTML) + "</html>";
   }
 
   // ---------------------------------------------------------------------------------------------
 
+  /**
+   * Reads the file, its entries replace the ones of files read before. Reading many files one by
+   * one is fine, but {@link #walkAndRead(Path)} parses them in parallel.
+   */
   public void read(Path path) {
-    Simple.lock(lock.writeLock(), () -> {
-      Path absPath = path.toAbsolutePath();
-      String absPathStr = absPath.toString();
-      Map<String, List<String>> cdataListMap = entryMap.reqCdataListMap();
-      Map<String, Path> pathToReadMap;
-      Path readPath = pathMap.remove(absPathStr);
-      if (readPath == null) {
-        pathToReadMap = Map.of(absPathStr, absPath);
-      } else {
-        pathToReadMap = new LinkedHashMap<>(pathMap.size() + 1);
-        pathToReadMap.putAll(pathMap);
-        pathToReadMap.put(absPathStr, absPath);
-        pathMap.clear();
-        cdataListMap.clear();
-      }
-      String languageId = entryMap.reqLanguageId();
-      StringTableFilter filter = new StringTableFilter();
-      filter.setForLanguageId(languageId::equals);
-      pathToReadMap.forEach((pathStrToRead, pathToRead) -> {
-        StringTable table = StringTable.read(pathToRead, filter);
-        EntryMap entryMap = table.getEntryMap(languageId);
-        if (entryMap != null) {
-          cdataListMap.putAll(entryMap.reqCdataListMap());
-        }
-        pathMap.put(pathStrToRead, pathToRead);
-      });
-    });
+    readAll(List.of(path.toAbsolutePath()), false);
   }
 
+  /**
+   * Reads all string tables under the start in parallel, then puts them at once.
+   */
   public void walkAndRead(Path start) {
-    Simple.lock(lock.writeLock(), () -> IO.walkExt(start, ".string_table.xml", this::read));
+    List<Path> absPathList = new ArrayList<>();
+    IO.walkExt(start, ".string_table.xml", path -> absPathList.add(path.toAbsolutePath()));
+    readAll(absPathList, true);
   }
 
   // ---------------------------------------------------------------------------------------------
@@ -129,14 +147,30 @@ public final class Loc {
   // ---------------------------------------------------------------------------------------------
 
   public Loc(Loc parent, ObV<Language> language) {
+    this(parent, language, false);
+  }
+
+  public Loc(Loc parent, ObV<Language> language, boolean allLanguagesRead) {
     this.parent = parent;
+    this.allLanguagesRead = allLanguagesRead;
     this.languageObserver = language.observe((prev, curr) -> {
-      Simple.lock(lock.writeLock(), () -> {
-        entryMap.setLanguageId(curr.name());
-        entryMap.reqCdataListMap().clear();
-        List<Path> pathToReadList = new ArrayList<>(pathMap.values());
-        pathMap.clear();
-        pathToReadList.forEach(this::read);
+      Simple.lock(lock, () -> {
+        languageId = curr.name();
+        if (!allLanguagesRead) {
+          Set<String> languageIdSet = languageIdSet();
+          List<LocFile> fileList = new ArrayList<>(fileMap.size());
+          try {
+            for (LocFile file : fileMap.values()) {
+              fileList.add(LocFile.read(file.path(), null, languageIdSet));
+            }
+          } catch (ReadFailure e) {
+            throw e.localized();
+          }
+          fileMap.clear();
+          fileList.forEach(file -> fileMap.put(file.path().toString(), file));
+          mergeLocked();
+        }
+        this.snapshot = null;
       });
     }, true);
   }
@@ -145,40 +179,246 @@ public final class Loc {
   // PrivateMethods
   // ---------------------------------------------------------------------------------------------
 
-  private String text(String entryId, BinaryOperator<String> cdataAction) {
-    return Simple.lock(lock.readLock(), () -> {
-      List<String> cdataList = entryMap.getCdataList(entryId);
-      if (cdataList == null) {
-        if (parent == null) {
-          return cdataAction.apply(entryId, null);
-        } else {
-          return parent.text(entryId, cdataAction);
+  // parses the files without the lock, then puts them in order with the lock held
+  private void readAll(List<Path> absPathList, boolean parallel) {
+    while (true) {
+      Set<String> languageIdSet = languageIdSet();
+      Map<String, LocFile> prevFileMap = Simple.lock(lock, () -> new HashMap<>(fileMap));
+      LocFile[] fileArray;
+      try {
+        fileArray = LocFile.readAll(absPathList, prevFileMap, languageIdSet, parallel);
+      } catch (ReadFailure e) {
+        throw e.localized();
+      }
+      boolean put = Simple.lock(lock, () -> {
+        // files parsed for a previous language are parsed again
+        if (!languageIdSet.equals(languageIdSet())) {
+          return false;
         }
-      } else if (cdataList.size() == 1) {
-        return cdataAction.apply(entryId, cdataList.get(0));
-      } else {
-        int n = cdataList.size();
-        int i = ThreadLocalRandom.current().nextInt(n);
-        String text = cdataAction.apply(entryId, cdataList.get(i));
-        return format("%s ( %d/%d )", text, i + 1, n);
+        putLocked(fileArray);
+        return true;
+      });
+      if (put) {
+        return;
       }
+    }
+  }
+
+  // the lock must be held
+  private void putLocked(LocFile[] fileArray) {
+    List<LocFile> prevFileList = new ArrayList<>(fileMap.values());
+    boolean known = false;
+    for (LocFile file : fileArray) {
+      // a file read before moves to the end
+      known |= (fileMap.remove(file.path().toString()) != null);
+      fileMap.put(file.path().toString(), file);
+    }
+    if (!known) {
+      // entries of the files are put on top, so the files read before are not touched
+      for (LocFile file : fileArray) {
+        putLocked(file);
+      }
+    } else if (!isSameFiles(prevFileList, fileMap.values())) {
+      mergeLocked();
+    } else {
+      return;
+    }
+    this.storeMap = null;
+    this.snapshot = null;
+  }
+
+  // the lock must be held
+  private void putLocked(LocFile file) {
+    file.storeMap().forEach((languageId, fileStore) -> tableMap
+        .computeIfAbsent(languageId, ignored -> new _LocTable_())
+        .putAll(fileStore));
+  }
+
+  // the lock must be held
+  private void mergeLocked() {
+    tableMap.clear();
+    fileMap.values().forEach(this::putLocked);
+    this.storeMap = null;
+  }
+
+  // returns the stores, built first if files have been read since
+  private Map<String, _LocStore_> storeMap() {
+    Map<String, _LocStore_> storeMap = this.storeMap;
+    if (storeMap != null) {
+      return storeMap;
+    }
+    return Simple.lock(lock, () -> {
+      Map<String, _LocStore_> curr = this.storeMap;
+      if (curr == null) {
+        Map<String, _LocStore_> built = new HashMap<>(tableMap.size());
+        tableMap.forEach((languageId, table) -> built.put(languageId, table.toStore()));
+        curr = Map.copyOf(built);
+        this.storeMap = curr;
+      }
+      return curr;
+    });
+  }
+
+  // returns the snapshot, rebuilt first if dropped or the parent has published a new one since
+  private Snapshot snapshot() {
+    Snapshot snapshot = this.snapshot;
+    if ((snapshot != null)
+        && ((parent == null) || (snapshot.parentStore() == parent.snapshot().store()))) {
+      return snapshot;
+    }
+    return Simple.lock(lock, () -> {
+      Snapshot curr = this.snapshot;
+      if ((curr == null)
+          || ((parent != null) && (curr.parentStore() != parent.snapshot().store()))) {
+        _LocStore_ store = storeMap().getOrDefault(languageId, _LocStore_.EMPTY);
+        curr = (parent == null) ? new Snapshot(store, null) : flatten(store);
+        this.snapshot = curr;
+      }
+      return curr;
     });
   }
 
+  // entries of the store override the ones of the parent
+  private Snapshot flatten(_LocStore_ store) {
+    _LocStore_ parentStore = parent.snapshot().store();
+    _LocTable_ flattened = new _LocTable_();
+    flattened.putAll(parentStore);
+    flattened.putAll(store);
+    return new Snapshot(flattened.toStore(), parentStore);
+  }
+
+  private Set<String> languageIdSet() {
+    if (allLanguagesRead) {
+      return Arrays.stream(Language.values()).map(Language::name).collect(Collectors.toSet());
+    }
+    return Set.of(languageId);
+  }
+
+  private String text(String entryId, Renderer renderer) {
+    Snapshot snapshot = snapshot();
+    return render(entryId, snapshot.store(), snapshot::markup, renderer);
+  }
+
+  private String text(String languageId, String entryId, Renderer renderer) {
+    if (languageId.equals(this.languageId)) {
+      return text(entryId, renderer);
+    }
+    // looked up rarely, so the stores of the parents are not flattened
+    for (Loc loc = this; loc != null; loc = loc.parent) {
+      _LocStore_ store = loc.storeMap().get(languageId);
+      if ((store != null) && (store.find(entryId) >= 0)) {
+        return render(entryId, store, value -> _LocMarkup_.compile(store.cdata(value)), renderer);
+      }
+    }
+    return renderer.escape(format("[<%s>]", entryId));
+  }
+
   // ---------------------------------------------------------------------------------------------
-  // PrivateStaticMethods ( & Fields )
+  // PrivateStaticMethods
   // ---------------------------------------------------------------------------------------------
 
-  private static final Pattern COLOUR_PATTERN = Pattern.compile(
-      "\\{colour_start\\|([^}]+)}(.*?)\\{colour_end}");
+  private static boolean isSameFiles(List<LocFile> fileList, Collection<LocFile> files) {
+    if (fileList.size() != files.size()) {
+      return false;
+    }
+    Iterator<LocFile> iterator = files.iterator();
+    for (LocFile file : fileList) {
+      if (file != iterator.next()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String render(
+      String entryId, _LocStore_ store, IntFunction<_LocMarkup_> markups, Renderer renderer) {
+    int key = store.find(entryId);
+    if (key < 0) {
+      return renderer.escape(format("[<%s>]", entryId));
+    } else if (store.count(key) == 1) {
+      return markups.apply(store.value(key, 0)).render(renderer);
+    } else {
+      int n = store.count(key);
+      int i = ThreadLocalRandom.current().nextInt(n);
+      String text = markups.apply(store.value(key, i)).render(renderer);
+      return format("%s ( %d/%d )", text, i + 1, n);
+    }
+  }
 
   // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  // not localized, as LocX needs Loc.G, which a worker must not wait for while it is initialized
+  private static final class ReadFailure extends RuntimeException {
 
-  private static String replaceAllColours(String cdata, Function<MatchResult, String> replacer) {
-    if (cdata.contains("{colour_")) {
-      return COLOUR_PATTERN.matcher(cdata).replaceAll(replacer);
+    private final Path path;
+
+    ReadFailure(Path path, Exception cause) {
+      super(path.toString(), cause);
+      this.path = path;
     }
-    return cdata;
+
+    LocX localized() {
+      return LocX.of(getCause()).with("StringTable#path", path);
+    }
+
+  }
+
+  // languageId -> entriesOfTheFile
+  private record LocFile(
+      Path path, long size, long lastModified, Map<String, _LocStore_> storeMap) {
+
+    // parsing is cpu bound, so the files are spread over the work-stealing common pool, the
+    // workers run code of this class only, which is initialized apart from Loc
+    static LocFile[] readAll(List<Path> absPathList, Map<String, LocFile> prevFileMap,
+        Set<String> languageIdSet, boolean parallel) {
+      LocFile[] fileArray = new LocFile[absPathList.size()];
+      IntStream range = IntStream.range(0, fileArray.length);
+      (parallel ? range.parallel() : range).forEach(i -> {
+        Path absPath = absPathList.get(i);
+        fileArray[i] = read(absPath, prevFileMap.get(absPath.toString()), languageIdSet);
+      });
+      return fileArray;
+    }
+
+    // returns the previous file if it has not changed since
+    static LocFile read(Path absPath, LocFile prevFile, Set<String> languageIdSet) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(absPath, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        if ((prevFile != null) && (prevFile.size() == size)
+            && (prevFile.lastModified() == lastModified)) {
+          return prevFile;
+        }
+        StringTableFilter filter = new StringTableFilter();
+        filter.setForLanguageId(languageIdSet::contains);
+        return new LocFile(absPath, size, lastModified, _LocTable_.read(absPath, filter));
+      } catch (Exception e) {
+        throw new ReadFailure(absPath, e);
+      }
+    }
+
+  }
+
+  // parentStore is the store of the parent snapshot flattened in, null if no parent
+  private record Snapshot(_LocStore_ store, _LocStore_ parentStore, _LocMarkup_[] markupArray) {
+
+    Snapshot(_LocStore_ store, _LocStore_ parentStore) {
+      this(store, parentStore, new _LocMarkup_[store.valueN()]);
+    }
+
+    // compiled on first lookup, a race compiles the same cdata twice only
+    _LocMarkup_ markup(int value) {
+      _LocMarkup_ markup = markupArray[value];
+      if (markup == null) {
+        markup = _LocMarkup_.compile(store.cdata(value));
+        markupArray[value] = markup;
+      }
+      return markup;
+    }
+
   }
 
 }
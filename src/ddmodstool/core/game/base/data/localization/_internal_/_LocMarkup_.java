@@ -0,0 +1,214 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.data.localization._internal_;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Localization markup, cdata compiled into literal and coloured runs.
+ *
+ * <p>A coloured run is {@code {colour_start|colour}text{colour_end}}, where the text is of one
+ * line. The cdata is compiled once, and rendered at most once by each renderer.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _LocMarkup_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static _LocMarkup_ compile(String cdata) {
+    int start = cdata.indexOf(COLOUR_START);
+    if (start < 0) {
+      return new _LocMarkup_(cdata, null, null);
+    }
+    List<String> colourList = new ArrayList<>();
+    List<String> runList = new ArrayList<>();
+    int literalStart = 0;
+    for (; start >= 0; start = cdata.indexOf(COLOUR_START, start + 1)) {
+      int colourStart = start + COLOUR_START.length();
+      int colourEnd = cdata.indexOf('}', colourStart);
+      if (colourEnd <= colourStart) {
+        continue;
+      }
+      int textEnd = cdata.indexOf(COLOUR_END, colourEnd + 1);
+      if ((textEnd < 0) || containsLineTerminator(cdata, colourEnd + 1, textEnd)) {
+        continue;
+      }
+      if (literalStart < start) {
+        colourList.add(null);
+        runList.add(cdata.substring(literalStart, start));
+      }
+      colourList.add(cdata.substring(colourStart, colourEnd));
+      runList.add(cdata.substring(colourEnd + 1, textEnd));
+      literalStart = textEnd + COLOUR_END.length();
+      start = literalStart - 1;
+    }
+    if (literalStart < cdata.length()) {
+      colourList.add(null);
+      runList.add(cdata.substring(literalStart));
+    }
+    return new _LocMarkup_(cdata,
+        colourList.toArray(String[]::new), runList.toArray(String[]::new));
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final String cdata;
+  // null if there is no coloured run, otherwise the colour of each run, null if literal
+  private final String[] colourArray;
+  private final String[] runArray;
+
+  // rendered lazily, a race renders the same string twice only
+  private String text;
+  private String html;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public String render(Renderer renderer) {
+    return switch (renderer) {
+      case TEXT -> text();
+      case HTML -> html();
+    };
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private String text() {
+    String text = this.text;
+    if (text == null) {
+      if (colourArray == null) {
+        text = cdata;
+      } else {
+        StringBuilder builder = new StringBuilder(cdata.length());
+        for (String run : runArray) {
+          builder.append(run);
+        }
+        text = builder.toString();
+      }
+      this.text = text;
+    }
+    return text;
+  }
+
+  private String html() {
+    String html = this.html;
+    if (html == null) {
+      if (colourArray == null) {
+        html = Renderer.HTML.escape(cdata);
+      } else {
+        StringBuilder builder = new StringBuilder(cdata.length() + 16);
+        for (int i = 0; i < runArray.length; i++) {
+          String colour = colourArray[i];
+          if (colour == null) {
+            builder.append(Renderer.HTML.escape(runArray[i]));
+          } else {
+            builder.append(format("<font color=\"%s\">%s</font>",
+                Renderer.HTML.escape(colour), Renderer.HTML.escape(runArray[i])));
+          }
+        }
+        html = builder.toString();
+      }
+      this.html = html;
+    }
+    return html;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _LocMarkup_(String cdata, String[] colourArray, String[] runArray) {
+    this.cdata = cdata;
+    this.colourArray = colourArray;
+    this.runArray = runArray;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final String COLOUR_START = "{colour_start|";
+  private static final String COLOUR_END = "{colour_end}";
+
+  // ---------------------------------------------------------------------------------------------
+
+  // line terminators as regex '.' does not match them
+  private static boolean containsLineTerminator(String cdata, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = cdata.charAt(i);
+      if ((c == '\n') || (c == '\r') || (c == '\u0085') || (c == '\u2028') || (c == '\u2029')) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  public enum Renderer {
+
+    // colours are dropped
+    TEXT,
+    // for swing components, without the enclosing html tag
+    HTML,
+
+    ;
+
+    public String escape(String text) {
+      if (this == TEXT) {
+        return text;
+      }
+      StringBuilder builder = null;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        String escaped = switch (c) {
+          case '&' -> "&amp;";
+          case '<' -> "&lt;";
+          case '>' -> "&gt;";
+          case '"' -> "&quot;";
+          case '\n' -> "<br>";
+          default -> null;
+        };
+        if (escaped != null) {
+          if (builder == null) {
+            builder = new StringBuilder(text.length() + 16);
+            builder.append(text, 0, i);
+          }
+          builder.append(escaped);
+        } else if (builder != null) {
+          builder.append(c);
+        }
+      }
+      return (builder == null) ? text : builder.toString();
+    }
+
+  }
+
+}
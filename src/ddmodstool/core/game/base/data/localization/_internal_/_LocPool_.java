@@ -0,0 +1,114 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.data.localization._internal_;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Localization pool, entry ids and cdata as bytes in chunks.
+ *
+ * <p>Chars of a string are one byte each if all of them are latin-1 (as strings compact
+ * themselves), or two otherwise. A string is addressed by (chunk << CHUNK_BITS) | offset, and
+ * its encoded length is (length << 1) | (1 if two bytes per char else 0), so the same chars are
+ * encoded to the same bytes wherever they are.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+abstract class _LocPool_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  static final int CHUNK_BITS = 16;
+  static final int CHUNK_CAPACITY = 1 << CHUNK_BITS;
+
+  byte[][] chunkArray;
+  int chunkN;
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageMethods
+  // ---------------------------------------------------------------------------------------------
+
+  final String string(int address, int encodedLength) {
+    byte[] pool = chunkArray[address >>> CHUNK_BITS];
+    int start = address & (CHUNK_CAPACITY - 1);
+    int length = encodedLength >>> 1;
+    if ((encodedLength & 1) == 0) {
+      return new String(pool, start, length, StandardCharsets.ISO_8859_1);
+    }
+    char[] chars = new char[length];
+    for (int i = 0, j = start; i < length; i++, j += 2) {
+      chars[i] = (char) (((pool[j] & 0xFF) << 8) | (pool[j + 1] & 0xFF));
+    }
+    return new String(chars);
+  }
+
+  final boolean matches(int address, int encodedLength, String string) {
+    int length = encodedLength >>> 1;
+    if (length != string.length()) {
+      return false;
+    }
+    byte[] pool = chunkArray[address >>> CHUNK_BITS];
+    int j = address & (CHUNK_CAPACITY - 1);
+    if ((encodedLength & 1) == 0) {
+      for (int i = 0; i < length; i++, j++) {
+        if ((char) (pool[j] & 0xFF) != string.charAt(i)) {
+          return false;
+        }
+      }
+    } else {
+      for (int i = 0; i < length; i++, j += 2) {
+        if ((char) (((pool[j] & 0xFF) << 8) | (pool[j + 1] & 0xFF)) != string.charAt(i)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // the same as String#hashCode of the chars
+  final int hash(int address, int encodedLength) {
+    byte[] pool = chunkArray[address >>> CHUNK_BITS];
+    int j = address & (CHUNK_CAPACITY - 1);
+    int length = encodedLength >>> 1;
+    int hash = 0;
+    if ((encodedLength & 1) == 0) {
+      for (int i = 0; i < length; i++, j++) {
+        hash = 31 * hash + (pool[j] & 0xFF);
+      }
+    } else {
+      for (int i = 0; i < length; i++, j += 2) {
+        hash = 31 * hash + (((pool[j] & 0xFF) << 8) | (pool[j + 1] & 0xFF));
+      }
+    }
+    return hash;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  static int encode(int length, boolean utf16) {
+    return (length << 1) | (utf16 ? 1 : 0);
+  }
+
+  static int byteLength(int encodedLength) {
+    return ((encodedLength & 1) == 0) ? (encodedLength >>> 1) : (encodedLength & ~1);
+  }
+
+}
@@ -0,0 +1,263 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.data.localization._internal_;
+
+import java.util.Arrays;
+
+/**
+ * Localization store, the read-only form of a {@link _LocTable_}.
+ *
+ * <p>Entry ids are indexed by a minimal perfect hash (hash and displace): an id falls into a
+ * bucket, and the displacement of the bucket moves the ids of it to distinct slots, or is the
+ * slot itself if there is only one. Ids of the same hash share a slot. The ids of a slot, and the
+ * cdata of an id, are ranges of offset arrays, so a lookup is a single probe and picking a cdata
+ * is an array access.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _LocStore_ extends _LocPool_ {
+
+  public static final _LocStore_ EMPTY = new _LocTable_().toStore();
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  // bucket -> displacement of the keys in it, or ~slot of the only key in it
+  private final int[] displacementArray;
+  // slot -> first key, the keys of the slot are [slotKeyArray[slot], slotKeyArray[slot + 1])
+  private final int[] slotKeyArray;
+
+  final int keyN;
+  final int[] keyStartArray;
+  // see _LocPool_#encode(int, boolean)
+  final int[] keyLengthArray;
+  // key -> first value, the values of the key are [keyValueArray[key], keyValueArray[key + 1])
+  final int[] keyValueArray;
+
+  final int[] valueStartArray;
+  // see _LocPool_#encode(int, boolean)
+  final int[] valueLengthArray;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public int size() {
+    return keyN;
+  }
+
+  // returns the key of the entry id, -1 if absent
+  public int find(String entryId) {
+    int slotN = slotKeyArray.length - 1;
+    if (slotN == 0) {
+      return -1;
+    }
+    int hash = entryId.hashCode();
+    int displacement = displacementArray[bucket(hash, displacementArray.length)];
+    int slot = (displacement < 0) ? ~displacement : slot(hash, displacement, slotN);
+    for (int key = slotKeyArray[slot]; key < slotKeyArray[slot + 1]; key++) {
+      if (matches(keyStartArray[key], keyLengthArray[key], entryId)) {
+        return key;
+      }
+    }
+    return -1;
+  }
+
+  public int count(int key) {
+    return keyValueArray[key + 1] - keyValueArray[key];
+  }
+
+  // the value of the i-th cdata of the key, in [0, valueN)
+  public int value(int key, int i) {
+    return keyValueArray[key] + i;
+  }
+
+  public int valueN() {
+    return valueStartArray.length;
+  }
+
+  public String cdata(int value) {
+    return string(valueStartArray[value], valueLengthArray[value]);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  // the arrays are of keys in any order, the values of which are adjacent, see keyValueArray
+  _LocStore_(byte[][] chunkArray, int[] fromKeyHashArray, int[] fromKeyStartArray,
+      int[] fromKeyLengthArray, int[] fromKeyValueArray, int[] fromValueStartArray,
+      int[] fromValueLengthArray) {
+    this.chunkArray = chunkArray;
+    this.chunkN = chunkArray.length;
+    this.keyN = fromKeyHashArray.length;
+    // a key a bucket on average, larger buckets are hard to displace as slots fill up
+    this.displacementArray = new int[Math.max(1, keyN)];
+    int[] slotOfKeyArray = displace(fromKeyHashArray, displacementArray);
+    // --- lay out keys by slot ---
+    // keys of the same hash share a slot, leaving as many slots empty
+    this.slotKeyArray = new int[keyN + 1];
+    for (int fromKey = 0; fromKey < keyN; fromKey++) {
+      slotKeyArray[slotOfKeyArray[fromKey] + 1]++;
+    }
+    for (int slot = 0; slot < keyN; slot++) {
+      slotKeyArray[slot + 1] += slotKeyArray[slot];
+    }
+    int[] nextKeyArray = Arrays.copyOf(slotKeyArray, keyN);
+    int[] fromKeyArray = new int[keyN];
+    for (int fromKey = 0; fromKey < keyN; fromKey++) {
+      fromKeyArray[nextKeyArray[slotOfKeyArray[fromKey]]++] = fromKey;
+    }
+    // --- lay out values by key ---
+    this.keyStartArray = new int[keyN];
+    this.keyLengthArray = new int[keyN];
+    this.keyValueArray = new int[keyN + 1];
+    this.valueStartArray = new int[fromKeyValueArray[keyN]];
+    this.valueLengthArray = new int[fromKeyValueArray[keyN]];
+    int valueN = 0;
+    for (int key = 0; key < keyN; key++) {
+      int fromKey = fromKeyArray[key];
+      keyStartArray[key] = fromKeyStartArray[fromKey];
+      keyLengthArray[key] = fromKeyLengthArray[fromKey];
+      keyValueArray[key] = valueN;
+      int fromValueEnd = fromKeyValueArray[fromKey + 1];
+      for (int fromValue = fromKeyValueArray[fromKey]; fromValue < fromValueEnd; fromValue++) {
+        valueStartArray[valueN] = fromValueStartArray[fromValue];
+        valueLengthArray[valueN] = fromValueLengthArray[fromValue];
+        valueN++;
+      }
+    }
+    keyValueArray[keyN] = valueN;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // finds displacements of buckets, the larger first, returns the slot of each key
+  private static int[] displace(int[] hashArray, int[] displacementArray) {
+    int keyN = hashArray.length;
+    int bucketN = displacementArray.length;
+    // bucket -> keys in it, as ranges of bucketKeyArray
+    int[] bucketStartArray = new int[bucketN + 1];
+    for (int key = 0; key < keyN; key++) {
+      bucketStartArray[bucket(hashArray[key], bucketN) + 1]++;
+    }
+    int maxBucketSize = 0;
+    for (int bucket = 0; bucket < bucketN; bucket++) {
+      maxBucketSize = Math.max(maxBucketSize, bucketStartArray[bucket + 1]);
+      bucketStartArray[bucket + 1] += bucketStartArray[bucket];
+    }
+    int[] nextArray = Arrays.copyOf(bucketStartArray, bucketN);
+    int[] bucketKeyArray = new int[keyN];
+    for (int key = 0; key < keyN; key++) {
+      bucketKeyArray[nextArray[bucket(hashArray[key], bucketN)]++] = key;
+    }
+    // buckets ordered by size descending
+    int[] sizeStartArray = new int[maxBucketSize + 2];
+    for (int bucket = 0; bucket < bucketN; bucket++) {
+      int size = bucketStartArray[bucket + 1] - bucketStartArray[bucket];
+      sizeStartArray[maxBucketSize - size + 1]++;
+    }
+    for (int i = 0; i <= maxBucketSize; i++) {
+      sizeStartArray[i + 1] += sizeStartArray[i];
+    }
+    int[] bucketOrderArray = new int[bucketN];
+    for (int bucket = 0; bucket < bucketN; bucket++) {
+      int size = bucketStartArray[bucket + 1] - bucketStartArray[bucket];
+      bucketOrderArray[sizeStartArray[maxBucketSize - size]++] = bucket;
+    }
+    // --- displace ---
+    int[] slotOfKeyArray = new int[keyN];
+    boolean[] takenArray = new boolean[keyN];
+    int[] slotArray = new int[maxBucketSize];
+    int freeSlot = 0;
+    for (int bucket : bucketOrderArray) {
+      int start = bucketStartArray[bucket];
+      int size = bucketStartArray[bucket + 1] - start;
+      if (size == 0) {
+        break;
+      } else if (size == 1) {
+        // the rest are single, which take free slots directly
+        while (takenArray[freeSlot]) {
+          freeSlot++;
+        }
+        takenArray[freeSlot] = true;
+        slotOfKeyArray[bucketKeyArray[start]] = freeSlot;
+        displacementArray[bucket] = ~freeSlot;
+        continue;
+      }
+      for (int displacement = 0; ; displacement++) {
+        if (fits(hashArray, bucketKeyArray, start, size, displacement, takenArray, slotArray)) {
+          for (int i = 0; i < size; i++) {
+            takenArray[slotArray[i]] = true;
+            slotOfKeyArray[bucketKeyArray[start + i]] = slotArray[i];
+          }
+          displacementArray[bucket] = displacement;
+          break;
+        }
+      }
+    }
+    return slotOfKeyArray;
+  }
+
+  // whether the keys fall into free slots, distinct unless of the same hash, which are put into
+  // the slot array
+  private static boolean fits(int[] hashArray, int[] bucketKeyArray, int start, int size,
+      int displacement, boolean[] takenArray, int[] slotArray) {
+    int slotN = takenArray.length;
+    for (int i = 0; i < size; i++) {
+      int hash = hashArray[bucketKeyArray[start + i]];
+      int slot = slot(hash, displacement, slotN);
+      if (takenArray[slot]) {
+        return false;
+      }
+      for (int j = 0; j < i; j++) {
+        if ((slotArray[j] == slot) && (hashArray[bucketKeyArray[start + j]] != hash)) {
+          return false;
+        }
+      }
+      slotArray[i] = slot;
+    }
+    return true;
+  }
+
+  private static int bucket(int hash, int bucketN) {
+    return range(mix(hash), bucketN);
+  }
+
+  private static int slot(int hash, int displacement, int slotN) {
+    return range(mix(hash + (displacement + 1) * 0x9E3779B9), slotN);
+  }
+
+  // maps the hash to [0, n) uniformly
+  private static int range(int hash, int n) {
+    return (int) (((hash & 0xFFFFFFFFL) * n) >>> 32);
+  }
+
+  // murmur3 finalizer
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+}
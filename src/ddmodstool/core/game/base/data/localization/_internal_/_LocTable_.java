@@ -0,0 +1,377 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.data.localization._internal_;
+
+import ddmodstool.core.game.base.file.stringtable.StringTable;
+import ddmodstool.core.game.base.file.stringtable.StringTableFilter;
+import ddmodstool.core.game.base.file.stringtable.StringTableSink;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Localization table of one language, string tables are read straight into it, and it is
+ * turned into a {@link _LocStore_} once complete.
+ *
+ * <p>Entry ids and cdata are appended to the pool, which grows by chunks, so nothing is copied
+ * as it grows, and stores put into the table share their chunks. Ids are indexed by an open
+ * addressing hash table, and cdata of an id are chained in read order.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _LocTable_ extends _LocPool_ implements StringTableSink {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Reads entries of the string table into a store for each language, languageId -> store.
+   * Failures are not localized, so that it can be called while Loc is being initialized.
+   */
+  public static Map<String, _LocStore_> read(Path path, StringTableFilter filter)
+      throws Exception {
+    Map<String, _LocTable_> tableMap = new HashMap<>(4);
+    StringTable.readRaw(path, filter, (languageId, entryId, cdata, start, length) -> {
+      _LocTable_ table = tableMap.computeIfAbsent(languageId, ignored -> new _LocTable_());
+      table.onEntry(languageId, entryId, cdata, start, length);
+    });
+    Map<String, _LocStore_> storeMap = new HashMap<>(tableMap.size());
+    tableMap.forEach((languageId, table) -> storeMap.put(languageId, table.toStore()));
+    return storeMap;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  // bytes used of the last chunk
+  private int chunkSize;
+
+  // hash & mask -> key + 1, 0 if empty
+  private int[] slotArray = new int[1 << 8];
+
+  private int keyN;
+  private int[] keyHashArray = new int[1 << 7];
+  private int[] keyStartArray = new int[1 << 7];
+  // see _LocPool_#encode(int, boolean)
+  private int[] keyLengthArray = new int[1 << 7];
+  // the read the cdata of the key come from
+  private int[] keyReadArray = new int[1 << 7];
+  private int[] keyHeadArray = new int[1 << 7];
+  private int[] keyTailArray = new int[1 << 7];
+  private int[] keyCountArray = new int[1 << 7];
+
+  private int valueN;
+  private int[] valueStartArray = new int[1 << 7];
+  // see _LocPool_#encode(int, boolean)
+  private int[] valueLengthArray = new int[1 << 7];
+  // the next value of the same key, -1 if none
+  private int[] valueNextArray = new int[1 << 7];
+
+  private int read;
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, StringTableSink
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public void onEntry(String languageId, String entryId, char[] cdata, int start, int length) {
+    link(entryKey(entryId), addValue(append(start, length, i -> cdata[i])));
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Puts all entries of the store as if they were read, an entry replaces all cdata of its id
+   * put or read before. The chunks of the store are shared rather than copied if possible.
+   */
+  public void putAll(_LocStore_ store) {
+    if (store.keyN == 0) {
+      return;
+    }
+    // the adopted chunks are addressed by their index in this pool, the bytes are copied only
+    // if there are too many chunks to address
+    boolean adopted = (chunkN + store.chunkN) <= (1 << (Integer.SIZE - CHUNK_BITS));
+    int shift = chunkN << CHUNK_BITS;
+    if (adopted) {
+      adoptChunks(store);
+    }
+    read++;
+    for (int key = 0; key < store.keyN; key++) {
+      int address = store.keyStartArray[key];
+      int encodedLength = store.keyLengthArray[key];
+      int thisKey = adopted
+          ? entryKey(store.hash(address, encodedLength), address + shift, encodedLength)
+          : entryKey(store.string(address, encodedLength));
+      int valueEnd = store.keyValueArray[key + 1];
+      for (int value = store.keyValueArray[key]; value < valueEnd; value++) {
+        address = store.valueStartArray[value];
+        encodedLength = store.valueLengthArray[value];
+        long appended = adopted
+            ? (((long) (address + shift) << 32) | encodedLength)
+            : appendEncoded(store, address, encodedLength);
+        link(thisKey, addValue(appended));
+      }
+    }
+  }
+
+  /**
+   * Returns the store of the entries. The table may be changed later, which does not change the
+   * store, as the bytes of the store are never written again.
+   */
+  public _LocStore_ toStore() {
+    // releases the room reserved for entries to be read
+    if ((chunkN > 0) && (chunkSize < chunkArray[chunkN - 1].length)) {
+      chunkArray[chunkN - 1] = Arrays.copyOf(chunkArray[chunkN - 1], chunkSize);
+    }
+    // cdata of a key are made adjacent
+    int[] keyValueArray = new int[keyN + 1];
+    int[] storeValueStartArray = new int[valueN];
+    int[] storeValueLengthArray = new int[valueN];
+    int storeValueN = 0;
+    for (int key = 0; key < keyN; key++) {
+      keyValueArray[key] = storeValueN;
+      for (int value = keyHeadArray[key]; value >= 0; value = valueNextArray[value]) {
+        storeValueStartArray[storeValueN] = valueStartArray[value];
+        storeValueLengthArray[storeValueN] = valueLengthArray[value];
+        storeValueN++;
+      }
+    }
+    keyValueArray[keyN] = storeValueN;
+    return new _LocStore_(Arrays.copyOf(chunkArray, chunkN),
+        Arrays.copyOf(keyHashArray, keyN), keyStartArray, keyLengthArray, keyValueArray,
+        storeValueStartArray, storeValueLengthArray);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // returns the key of the entry id, whose cdata are to be replaced if read before
+  private int entryKey(String entryId) {
+    int hash = entryId.hashCode();
+    int mask = slotArray.length - 1;
+    for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+      int key = slotArray[i] - 1;
+      if (key < 0) {
+        break;
+      } else if ((keyHashArray[key] == hash)
+          && matches(keyStartArray[key], keyLengthArray[key], entryId)) {
+        return claim(key);
+      }
+    }
+    long appended = append(0, entryId.length(), entryId::charAt);
+    return claim(addKey(hash, (int) (appended >>> 32), (int) appended));
+  }
+
+  // as #entryKey(String), but the entry id is already in the pool
+  private int entryKey(int hash, int address, int encodedLength) {
+    int length = byteLength(encodedLength);
+    byte[] pool = chunkArray[address >>> CHUNK_BITS];
+    int start = address & (CHUNK_CAPACITY - 1);
+    int mask = slotArray.length - 1;
+    for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+      int key = slotArray[i] - 1;
+      if (key < 0) {
+        break;
+      } else if ((keyHashArray[key] == hash) && (keyLengthArray[key] == encodedLength)) {
+        // chars are encoded the same way wherever they are
+        int keyAddress = keyStartArray[key];
+        int keyStart = keyAddress & (CHUNK_CAPACITY - 1);
+        if (Arrays.equals(chunkArray[keyAddress >>> CHUNK_BITS], keyStart, keyStart + length,
+            pool, start, start + length)) {
+          return claim(key);
+        }
+      }
+    }
+    return claim(addKey(hash, address, encodedLength));
+  }
+
+  private int claim(int key) {
+    if (keyReadArray[key] != read) {
+      // entries of a later read replace the ones of earlier reads
+      keyHeadArray[key] = -1;
+      keyCountArray[key] = 0;
+      keyReadArray[key] = read;
+    }
+    return key;
+  }
+
+  private int addKey(int hash, int address, int encodedLength) {
+    if (keyN == keyHashArray.length) {
+      int n = keyN << 1;
+      keyHashArray = Arrays.copyOf(keyHashArray, n);
+      keyStartArray = Arrays.copyOf(keyStartArray, n);
+      keyLengthArray = Arrays.copyOf(keyLengthArray, n);
+      keyReadArray = Arrays.copyOf(keyReadArray, n);
+      keyHeadArray = Arrays.copyOf(keyHeadArray, n);
+      keyTailArray = Arrays.copyOf(keyTailArray, n);
+      keyCountArray = Arrays.copyOf(keyCountArray, n);
+    }
+    int key = keyN++;
+    keyHashArray[key] = hash;
+    keyStartArray[key] = address;
+    keyLengthArray[key] = encodedLength;
+    // not of the current read, so that it is claimed
+    keyReadArray[key] = read - 1;
+    keyHeadArray[key] = -1;
+    keyCountArray[key] = 0;
+    // load factor at most 1/2
+    if ((keyN << 1) > slotArray.length) {
+      rehash(slotArray.length << 1);
+    } else {
+      insert(key);
+    }
+    return key;
+  }
+
+  private void link(int key, int value) {
+    if (keyHeadArray[key] < 0) {
+      keyHeadArray[key] = value;
+    } else {
+      valueNextArray[keyTailArray[key]] = value;
+    }
+    keyTailArray[key] = value;
+    keyCountArray[key]++;
+  }
+
+  private int addValue(long appended) {
+    if (valueN == valueStartArray.length) {
+      int n = valueN << 1;
+      valueStartArray = Arrays.copyOf(valueStartArray, n);
+      valueLengthArray = Arrays.copyOf(valueLengthArray, n);
+      valueNextArray = Arrays.copyOf(valueNextArray, n);
+    }
+    int value = valueN++;
+    valueStartArray[value] = (int) (appended >>> 32);
+    valueLengthArray[value] = (int) appended;
+    valueNextArray[value] = -1;
+    return value;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  // appends the chars to the pool, returns (address << 32) | encodedLength
+  private long append(int start, int length, CharSource source) {
+    boolean latin1 = true;
+    for (int i = 0; latin1 && (i < length); i++) {
+      latin1 = source.charAt(start + i) <= 0xFF;
+    }
+    int address = reserve(latin1 ? length : (length << 1));
+    byte[] pool = chunkArray[address >>> CHUNK_BITS];
+    int poolStart = address & (CHUNK_CAPACITY - 1);
+    if (latin1) {
+      for (int i = 0; i < length; i++) {
+        pool[poolStart + i] = (byte) source.charAt(start + i);
+      }
+    } else {
+      for (int i = 0, j = poolStart; i < length; i++, j += 2) {
+        char c = source.charAt(start + i);
+        pool[j] = (byte) (c >>> 8);
+        pool[j + 1] = (byte) c;
+      }
+    }
+    return ((long) address << 32) | encode(length, !latin1);
+  }
+
+  // appends the encoded bytes in the pool of the store, returns as #append does
+  private long appendEncoded(_LocStore_ store, int address, int encodedLength) {
+    int length = byteLength(encodedLength);
+    int thisAddress = reserve(length);
+    System.arraycopy(
+        store.chunkArray[address >>> CHUNK_BITS], address & (CHUNK_CAPACITY - 1),
+        chunkArray[thisAddress >>> CHUNK_BITS], thisAddress & (CHUNK_CAPACITY - 1), length);
+    return ((long) thisAddress << 32) | encodedLength;
+  }
+
+  private void adoptChunks(_LocStore_ store) {
+    int n = chunkN + store.chunkN;
+    if (n > chunkArray.length) {
+      chunkArray = Arrays.copyOf(chunkArray, Math.max(n, chunkArray.length << 1));
+    }
+    System.arraycopy(store.chunkArray, 0, chunkArray, chunkN, store.chunkN);
+    chunkN = n;
+    // the last chunk is shared with the store, bytes are never appended to it
+    chunkSize = chunkArray[chunkN - 1].length;
+  }
+
+  // returns the address of length bytes appended to the pool
+  private int reserve(int length) {
+    // a full chunk is never addressed, its end would overflow into the chunk index
+    if ((chunkN == 0) || (chunkSize + length >= chunkArray[chunkN - 1].length)) {
+      if (chunkN == chunkArray.length) {
+        chunkArray = Arrays.copyOf(chunkArray, chunkN << 1);
+      }
+      // bytes too many for a chunk take a chunk of their own
+      chunkArray[chunkN++] = new byte[Math.max(length, CHUNK_CAPACITY)];
+      chunkSize = 0;
+    }
+    int address = ((chunkN - 1) << CHUNK_BITS) | chunkSize;
+    chunkSize += length;
+    return address;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private void rehash(int capacity) {
+    slotArray = new int[capacity];
+    for (int key = 0; key < keyN; key++) {
+      insert(key);
+    }
+  }
+
+  private void insert(int key) {
+    int mask = slotArray.length - 1;
+    int i = spread(keyHashArray[key]) & mask;
+    while (slotArray[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    slotArray[i] = key + 1;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public _LocTable_() {
+    this.chunkArray = new byte[16][];
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  @FunctionalInterface
+  private interface CharSource {
+
+    char charAt(int i);
+
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.atlas;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.atlas._internal_._AtlasReader_;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * [ *.atlas ] object, texture atlas of skels (libgdx format).
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+public final class Atlas {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static Atlas read(Path path) {
+    return _AtlasReader_.read(path);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private Path path;
+
+  private List<Page> pageList;
+  // regionName -> region
+  private Map<String, Region> regionMap;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public Path reqPath() {
+    Path path = this.path;
+    if (path == null) {
+      throw LocX.of("Atlas!Uninitialized");
+    }
+    return path;
+  }
+
+  public List<Page> reqPageList() {
+    List<Page> pageList = this.pageList;
+    if (pageList == null) {
+      throw LocX.of("Atlas!Uninitialized");
+    }
+    return pageList;
+  }
+
+  public Map<String, Region> reqRegionMap() {
+    Map<String, Region> regionMap = this.regionMap;
+    if (regionMap == null) {
+      throw LocX.of("Atlas!Uninitialized");
+    }
+    return regionMap;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  @Getter
+  @Setter
+  public static final class Page {
+
+    private String name;
+    // the image, resolved against the directory of the atlas
+    private Path path;
+    private int width;
+    private int height;
+
+  }
+
+  /**
+   * Region of a page, whitespace around the original image may have been stripped, and if
+   * rotated, the region is stored rotated 90 degrees counterclockwise in the page.
+   */
+  @Getter
+  @Setter
+  public static final class Region {
+
+    private String name;
+    private Page page;
+    private boolean rotate;
+    // bounds in the page, width and height are the ones before rotation
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    // size of the original image, and where the region is in it (from the bottom left corner)
+    private int originalWidth;
+    private int originalHeight;
+    private int offsetX;
+    private int offsetY;
+    // -1 if not indexed
+    private int index;
+
+  }
+
+}
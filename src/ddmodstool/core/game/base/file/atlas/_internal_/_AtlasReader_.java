@@ -0,0 +1,155 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.atlas._internal_;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.atlas.Atlas;
+import ddmodstool.core.game.base.file.atlas.Atlas.Page;
+import ddmodstool.core.game.base.file.atlas.Atlas.Region;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * [ *.atlas ] reader.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _AtlasReader_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static Atlas read(Path path) {
+    Path absPath = path.toAbsolutePath();
+    _AtlasReader_ reader = new _AtlasReader_(absPath);
+    try {
+      reader.read();
+      return reader.result;
+    } catch (Exception e) {
+      throw LocX.of(e)
+          .with("Atlas#path", absPath)
+          .with("Atlas#line", reader.lineNumber);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final Atlas result = new Atlas();
+
+  private int lineNumber;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void read() throws IOException {
+    Path path = result.getPath();
+    List<String> lineList = Files.readAllLines(path, StandardCharsets.UTF_8);
+    Page page = null;
+    Region region = null;
+    for (String line : lineList) {
+      lineNumber++;
+      String trimmedLine = line.trim();
+      if (trimmedLine.isEmpty()) {
+        // pages are separated by blank lines
+        page = null;
+        region = null;
+      } else if (page == null) {
+        page = new Page();
+        page.setName(trimmedLine);
+        page.setPath(path.resolveSibling(trimmedLine));
+        result.getPageList().add(page);
+      } else if (trimmedLine.indexOf(':') < 0) {
+        region = new Region();
+        region.setName(trimmedLine);
+        region.setPage(page);
+        region.setIndex(-1);
+        result.getRegionMap().put(trimmedLine, region);
+      } else {
+        int colon = trimmedLine.indexOf(':');
+        String key = trimmedLine.substring(0, colon).trim();
+        String[] values = trimmedLine.substring(colon + 1).split(",");
+        if ((region != null) && Character.isWhitespace(line.charAt(0))) {
+          readRegionProperty(region, key, values);
+        } else {
+          readPageProperty(page, key, values);
+        }
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _AtlasReader_(Path path) {
+    result.setPath(path);
+    result.setPageList(new ArrayList<>());
+    result.setRegionMap(new LinkedHashMap<>());
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static void readPageProperty(Page page, String key, String[] values) {
+    if (key.equals("size")) {
+      page.setWidth(parseInt(values[0]));
+      page.setHeight(parseInt(values[1]));
+    }
+    // format, filter and repeat are meaningless for rendering into images
+  }
+
+  private static void readRegionProperty(Region region, String key, String[] values) {
+    switch (key) {
+      case "rotate" -> region.setRotate(values[0].trim().equals("true"));
+      case "xy" -> {
+        region.setX(parseInt(values[0]));
+        region.setY(parseInt(values[1]));
+      }
+      case "size" -> {
+        region.setWidth(parseInt(values[0]));
+        region.setHeight(parseInt(values[1]));
+      }
+      case "orig" -> {
+        region.setOriginalWidth(parseInt(values[0]));
+        region.setOriginalHeight(parseInt(values[1]));
+      }
+      case "offset" -> {
+        region.setOffsetX(parseInt(values[0]));
+        region.setOffsetY(parseInt(values[1]));
+      }
+      case "index" -> region.setIndex(parseInt(values[0]));
+      default -> {
+        // split and pad are meaningless for skels
+      }
+    }
+  }
+
+  private static int parseInt(String value) {
+    return Integer.parseInt(value.trim());
+  }
+
+}
@@ -19,13 +19,21 @@ package ddmodstool.core.game.base.file.darkest;
 import static java.lang.String.format;
 
 import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestCompactor_;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestLineList_;
 import ddmodstool.core.game.base.file.darkest._internal_._DarkestReader_;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestScanner_;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestSource_;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestWriter_;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 /**
@@ -43,7 +51,40 @@ public final class Darkest {
   // ---------------------------------------------------------------------------------------------
 
   public static Darkest read(Path path) {
-    return _DarkestReader_.read(path);
+    return _DarkestReader_.read(path, null, null);
+  }
+
+  public static Darkest read(Path path, DarkestFilter filter) {
+    return _DarkestReader_.read(path, filter, null);
+  }
+
+  /**
+   * Reads the file, and if {@code sourceRetained}, keeps a copy of its bytes and token spans so
+   * that {@link #write(Path, Darkest)} reproduces unchanged lines byte for byte.
+   *
+   * <p>Lines and items rejected by the filter are kept as they are in the source.
+   */
+  public static Darkest read(Path path, DarkestFilter filter, boolean sourceRetained) {
+    if (!sourceRetained) {
+      return _DarkestReader_.read(path, filter, null);
+    }
+    return _DarkestReader_.read(path, filter, (darkest, source) -> darkest.source = source);
+  }
+
+  /**
+   * Reads the file like {@link #read(Path)}, through a disk cache of parsed files in
+   * {@code ${Conf.home}/cache/darkest/}, which saves parsing files unchanged since last read.
+   */
+  public static Darkest readCached(Path path) {
+    return _DarkestReader_.readCached(path);
+  }
+
+  public static void write(Path path, Darkest darkest) {
+    _DarkestWriter_.write(path, darkest, darkest.source);
+  }
+
+  public static void scan(Path path, DarkestFilter filter, DarkestHandler handler) {
+    _DarkestScanner_.scan(path, filter, handler);
   }
 
   // ---------------------------------------------------------------------------------------------
@@ -52,6 +93,17 @@ public final class Darkest {
   private Path path;
   // lineType -> lineList
   private Map<String, List<Line>> lineListMap;
+  // not null only if read with the source retained, only the reader and the writer access it
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private _DarkestSource_ source;
+
+  // whether getLine(type, uniqueItemName, uniqueItemValue) builds and uses line indexes
+  private boolean lineIndexEnabled;
+  // lineType -> uniqueItemName -> lineIndex
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Map<String, Map<String, LineIndex>> lineIndexMap;
 
   // ---------------------------------------------------------------------------------------------
   // PublicMethods
@@ -80,36 +132,23 @@ public final class Darkest {
     return (lineList == null) ? null : lineList.get(0);
   }
 
+  /**
+   * Returns the line identified by the given item, lines with the same item value are merged.
+   *
+   * <p>If {@link #isLineIndexEnabled()}, all lines of the type are merged by the item at the
+   * first call, and later calls, hits and misses alike, are answered by a hash index. The index
+   * is rebuilt once the line list changes, or a setter of any line or item is called. Item maps
+   * and value lists changed in place are not seen, {@link #clearLineIndexes()} after that.
+   */
   public Line getLine(String type, String uniqueItemName, String uniqueItemValue) {
     List<Line> lineList = getLineList(type);
     if (lineList == null) {
       return null;
     }
-    Line lineToReturn = null;
-    for (Iterator<Line> itr = lineList.iterator(); itr.hasNext(); ) {
-      Line line = itr.next();
-      if (!line.reqItemValue(uniqueItemName).equals(uniqueItemValue)) {
-        continue;
-      }
-      if (lineToReturn == null) {
-        lineToReturn = line;
-      } else {
-        itr.remove();
-        Map<String, Item> itemMapToReturn = lineToReturn.reqItemMap();
-        for (Item item : line.reqItemMap().values()) {
-          Item itemToReturn = lineToReturn.getItem(item.reqName());
-          if (itemToReturn == null) {
-            itemMapToReturn.put(item.reqName(), item);
-          } else if (!itemToReturn.reqValueList().equals(item.reqValueList())) {
-            throw LocX.of("Darkest!ConflictingItems")
-                .with("Darkest#path", path)
-                .with("Darkest#lineType", line.getType())
-                .with("Darkest#itemName", item.getName());
-          }
-        }
-      }
+    if (lineIndexEnabled) {
+      return getOrBuildLineIndex(type, uniqueItemName).lineMap().get(uniqueItemValue);
     }
-    return lineToReturn;
+    return findAndMergeLines(lineList, uniqueItemName, uniqueItemValue);
   }
 
   public List<Line> getLineList(String type) {
@@ -180,12 +219,99 @@ public final class Darkest {
 
   // ---------------------------------------------------------------------------------------------
 
+  /**
+   * Converts all lines to the compact storage: item maps become parallel arrays, names and
+   * types are interned, and item value lists become unmodifiable views of one shared pool.
+   *
+   * @return this
+   */
+  public Darkest compact() {
+    _DarkestCompactor_.compact(this);
+    return this;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
   public void mergeLinesWithTheSameTypeAndItem(String type, String itemName) {
     List<Line> lineList = getLineList(type);
     if ((lineList == null) || (lineList.size() == 1)) {
       return;
     }
-    Map<String, Line> mergedLineMap = new LinkedHashMap<>();
+    getOrBuildLineIndex(type, itemName);
+  }
+
+  public void setLineListMap(Map<String, List<Line>> lineListMap) {
+    this.lineListMap = lineListMap;
+    clearLineIndexes();
+  }
+
+  /**
+   * Clears line indexes, which are rebuilt by later lookups.
+   */
+  public void clearLineIndexes() {
+    this.lineIndexMap = null;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private LineIndex getOrBuildLineIndex(String type, String itemName) {
+    List<Line> lineList = getLineList(type);
+    if (lineList == null) {
+      return null;
+    }
+    if (!lineIndexEnabled) {
+      mergeLines(lineList, itemName);
+      return null;
+    }
+    Map<String, Map<String, LineIndex>> lineIndexMap = this.lineIndexMap;
+    if (lineIndexMap == null) {
+      lineIndexMap = new HashMap<>();
+      this.lineIndexMap = lineIndexMap;
+    }
+    Map<String, LineIndex> itemLineIndexMap = lineIndexMap.computeIfAbsent(
+        type, ignored -> new HashMap<>());
+    LineIndex lineIndex = itemLineIndexMap.get(itemName);
+    if ((lineIndex == null) || !lineIndex.isValidFor(lineList)) {
+      mergeLines(lineList, itemName);
+      lineIndex = new LineIndex(lineList, itemName);
+      itemLineIndexMap.put(itemName, lineIndex);
+    }
+    return lineIndex;
+  }
+
+  // returns the line of the item value, merging lines with the same item value into it
+  private Line findAndMergeLines(List<Line> lineList, String itemName, String itemValue) {
+    Line lineToReturn = null;
+    for (Iterator<Line> itr = lineList.iterator(); itr.hasNext(); ) {
+      Line line = itr.next();
+      if (!line.reqItemValue(itemName).equals(itemValue)) {
+        continue;
+      }
+      if (lineToReturn == null) {
+        lineToReturn = line;
+      } else {
+        itr.remove();
+        Map<String, Item> itemMapToReturn = lineToReturn.reqItemMap();
+        for (Item item : line.reqItemMap().values()) {
+          Item itemToReturn = lineToReturn.getItem(item.reqName());
+          if (itemToReturn == null) {
+            itemMapToReturn.put(item.reqName(), item);
+          } else if (!itemToReturn.reqValueList().equals(item.reqValueList())) {
+            throw LocX.of("Darkest!ConflictingItems")
+                .with("Darkest#path", path)
+                .with("Darkest#lineType", line.getType())
+                .with("Darkest#itemName", item.getName());
+          }
+        }
+      }
+    }
+    return lineToReturn;
+  }
+
+  private void mergeLines(List<Line> lineList, String itemName) {
+    Map<String, Line> mergedLineMap = new HashMap<>();
     for (Iterator<Line> itr = lineList.iterator(); itr.hasNext(); ) {
       Line line = itr.next();
       String itemValue = line.reqItemValue(itemName);
@@ -210,12 +336,50 @@ public final class Darkest {
     }
   }
 
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  // bumped by setters of lines and items, which are not owned by a darkest, so that line indexes
+  // built before are rebuilt, the adder keeps bumps of many threads (e.g. compacting) cheap
+  private static final LongAdder modCount = new LongAdder();
+
+  // lists other than the ones of the readers are checked by their size only
+  private static long modCountOf(List<Line> lineList) {
+    return (lineList instanceof _DarkestLineList_ list) ? list.modCount() : lineList.size();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  // itemValue -> line of the merged line list, valid while neither the list nor any line or item
+  // is changed since, see #modCountOf(List)
+  private record LineIndex(
+      List<Line> lineList, long listModCount, long modCount, Map<String, Line> lineMap) {
+
+    LineIndex(List<Line> lineList, String itemName) {
+      this(lineList, modCountOf(lineList), Darkest.modCount.sum(),
+          new HashMap<>(lineList.size() << 1));
+      for (Line line : lineList) {
+        lineMap.put(line.reqItemValue(itemName), line);
+      }
+    }
+
+    boolean isValidFor(List<Line> lineList) {
+      return (this.lineList == lineList) && (listModCount == modCountOf(lineList))
+          && (modCount == Darkest.modCount.sum());
+    }
+
+  }
+
   // ---------------------------------------------------------------------------------------------
   // PublicStaticClasses
   // ---------------------------------------------------------------------------------------------
 
   @Getter
   @Setter
+  @NoArgsConstructor
   public static final class Line {
 
     private String type;
@@ -226,6 +390,18 @@ public final class Darkest {
     // PublicMethods
     // -----------------------------------------------------------------------------------------
 
+    public void setType(String type) {
+      this.type = type;
+      modCount.increment();
+    }
+
+    public void setItemMap(Map<String, Item> itemMap) {
+      this.itemMap = itemMap;
+      modCount.increment();
+    }
+
+    // -----------------------------------------------------------------------------------------
+
     public String reqType() {
       String type = this.type;
       if (type == null) {
@@ -296,10 +472,21 @@ public final class Darkest {
       return reqItem(name).reqValueList(minSize, maxSize);
     }
 
+    // -----------------------------------------------------------------------------------------
+    // PublicConstructors
+    // -----------------------------------------------------------------------------------------
+
+    // a new line changes no line index, unlike the setters
+    public Line(String type, Map<String, Item> itemMap) {
+      this.type = type;
+      this.itemMap = itemMap;
+    }
+
   }
 
   @Getter
   @Setter
+  @NoArgsConstructor
   public static final class Item {
 
     private String name;
@@ -309,6 +496,18 @@ public final class Darkest {
     // PublicMethods
     // -----------------------------------------------------------------------------------------
 
+    public void setName(String name) {
+      this.name = name;
+      modCount.increment();
+    }
+
+    public void setValueList(List<String> valueList) {
+      this.valueList = valueList;
+      modCount.increment();
+    }
+
+    // -----------------------------------------------------------------------------------------
+
     public String reqName() {
       String name = this.name;
       if (name == null) {
@@ -347,6 +546,16 @@ public final class Darkest {
       return valueList;
     }
 
+    // -----------------------------------------------------------------------------------------
+    // PublicConstructors
+    // -----------------------------------------------------------------------------------------
+
+    // same as Line#Line(String, Map)
+    public Item(String name, List<String> valueList) {
+      this.name = name;
+      this.valueList = valueList;
+    }
+
   }
 
 }
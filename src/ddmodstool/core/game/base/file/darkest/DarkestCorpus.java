@@ -0,0 +1,126 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest;
+
+import ddmodstool.core.conf.Conf;
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestCorpusReader_;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * All [ *.darkest ] objects under the game home and mod homes.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+public final class DarkestCorpus {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static DarkestCorpus read(List<Path> homeList) {
+    return _DarkestCorpusReader_.read(homeList);
+  }
+
+  public static DarkestCorpus readGame(List<Path> modHomeList) {
+    Path gameHome = Conf.game.home.get();
+    if (gameHome == null) {
+      throw LocX.of("DarkestCorpus!MissingGameHome");
+    }
+    List<Path> homeList = new ArrayList<>(modHomeList.size() + 1);
+    homeList.add(gameHome);
+    homeList.addAll(modHomeList);
+    return read(homeList);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private List<Path> homeList;
+  // relativePath -> darkestList ( in the order of homeList )
+  private Map<String, List<Darkest>> darkestListMap;
+  // lineType -> lineList ( in the order of darkestListMap )
+  private Map<String, List<Line>> lineListMap;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public List<Path> reqHomeList() {
+    List<Path> homeList = this.homeList;
+    if (homeList == null) {
+      throw LocX.of("DarkestCorpus!Uninitialized");
+    }
+    return homeList;
+  }
+
+  public Map<String, List<Darkest>> reqDarkestListMap() {
+    Map<String, List<Darkest>> darkestListMap = this.darkestListMap;
+    if (darkestListMap == null) {
+      throw LocX.of("DarkestCorpus!Uninitialized");
+    }
+    return darkestListMap;
+  }
+
+  public Map<String, List<Line>> reqLineListMap() {
+    Map<String, List<Line>> lineListMap = this.lineListMap;
+    if (lineListMap == null) {
+      throw LocX.of("DarkestCorpus!Uninitialized");
+    }
+    return lineListMap;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  public List<Darkest> getDarkestList(String relativePath) {
+    return reqDarkestListMap().get(relativePath);
+  }
+
+  public List<Line> getLineList(String type) {
+    return reqLineListMap().get(type);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  public List<Darkest> reqDarkestList(String relativePath) {
+    List<Darkest> darkestList = getDarkestList(relativePath);
+    if (darkestList == null) {
+      throw LocX.of("DarkestCorpus!MissingFile")
+          .with("DarkestCorpus#relativePath", relativePath);
+    }
+    return darkestList;
+  }
+
+  public List<Line> reqLineList(String type) {
+    List<Line> lineList = getLineList(type);
+    if (lineList == null) {
+      throw LocX.of("Darkest!MissingLine")
+          .with("Darkest#lineType", type);
+    }
+    return lineList;
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest;
+
+import java.util.function.Predicate;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * [ *.darkest ] filter.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+public final class DarkestFilter {
+
+  private Predicate<String> forLineType;
+
+  private Predicate<String> forItemName;
+
+}
@@ -0,0 +1,326 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.conf.Conf;
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import ddmodstool.core.lang.util.IO;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * [ *.darkest ] binary cache, stored in {@code ${Conf.home}/cache/darkest/}.
+ *
+ * <p>An entry is keyed by the absolute path, size and a 64-bit hash of the bytes of the file, all
+ * of which are verified in its header, so an edit is never missed whatever its modified time is.
+ * The cache is bounded to 8192 entries and 256 MB, beyond which the least recently used entries
+ * are evicted. The cache is best-effort: unreadable or outdated entries are ignored and
+ * rewritten, and failures to write are swallowed.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestCache_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // the file bytes are those the darkest is parsed from
+  public static Darkest read(Path absPath, byte[] fileBytes) {
+    try {
+      Path cachePath = cachePathOf(absPath);
+      Darkest darkest = new Decoder(ByteBuffer.wrap(Files.readAllBytes(cachePath)))
+          .decode(absPath, fileBytes);
+      if (darkest != null) {
+        // the modified time of an entry is the last time it is used
+        Files.setLastModifiedTime(cachePath, FileTime.fromMillis(System.currentTimeMillis()));
+      }
+      return darkest;
+    } catch (Exception e) {
+      // missing, unreadable or broken entry
+      return null;
+    }
+  }
+
+  // the file bytes are those the darkest is parsed from
+  public static void write(Path absPath, byte[] fileBytes, Darkest darkest) {
+    try {
+      byte[] bytes = encode(absPath, fileBytes, darkest);
+      Path cachePath = cachePathOf(absPath);
+      Path dir = IO.mkdir(cachePath.getParent());
+      // written to a temporary sibling first so that readers never see a partial entry
+      Path tempPath = Files.createTempFile(dir, cachePath.getFileName().toString(), ".tmp");
+      try {
+        Files.write(tempPath, bytes);
+        Files.move(tempPath, cachePath,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tempPath);
+      }
+      onWritten(dir, bytes.length);
+    } catch (Exception ignored) {
+      // the cache is best-effort
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final int MAGIC = 0x44444B43;
+  // increase it whenever the encoding below changes
+  private static final int VERSION = 2;
+
+  private static final int MAX_ENTRY_N = 1 << 13;
+  private static final long MAX_BYTE_N = 256L << 20;
+
+  // entries and bytes written since the cache was last counted, -1 if not counted yet
+  private static int entryN = -1;
+  private static long byteN;
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static Path cachePathOf(Path absPath) {
+    // 64-bit FNV-1a, collisions only cause misses since the header holds the whole path
+    String key = absPath.toString();
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+    }
+    return Conf.home.resolve("cache/darkest").resolve(Long.toHexString(hash) + ".bin");
+  }
+
+  // 64-bit multiply-rotate hash over little-endian words, then the tail bytes
+  private static long hashOf(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    long hash = bytes.length * 0x9E3779B97F4A7C15L;
+    while (buffer.remaining() >= Long.BYTES) {
+      hash = Long.rotateLeft(hash ^ (buffer.getLong() * 0xC2B2AE3D27D4EB4FL), 31)
+          * 0x9E3779B97F4A7C15L;
+    }
+    while (buffer.hasRemaining()) {
+      hash = Long.rotateLeft(hash ^ ((buffer.get() & 0xFF) * 0x165667B19E3779F9L), 11)
+          * 0x9E3779B97F4A7C15L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  // counts the entry, and evicts the least recently used ones if the cache is beyond its bounds
+  private static synchronized void onWritten(Path dir, int byteLength) throws IOException {
+    if (entryN >= 0) {
+      // an entry replaced is counted twice until the cache is counted again
+      entryN++;
+      byteN += byteLength;
+      if ((entryN <= MAX_ENTRY_N) && (byteN <= MAX_BYTE_N)) {
+        return;
+      }
+    }
+    List<Path> entryList;
+    try (Stream<Path> stream = Files.list(dir)) {
+      entryList = stream.filter(path -> IO.name(path).endsWith(".bin"))
+          .collect(Collectors.toCollection(ArrayList::new));
+    }
+    Map<Path, BasicFileAttributes> attributesMap = new HashMap<>();
+    for (Path entry : entryList) {
+      try {
+        attributesMap.put(entry, Files.readAttributes(entry, BasicFileAttributes.class));
+      } catch (IOException ignored) {
+        // removed by another process
+      }
+    }
+    entryList.removeIf(entry -> !attributesMap.containsKey(entry));
+    entryList.sort(Comparator.comparing(entry -> attributesMap.get(entry).lastModifiedTime()));
+    entryN = entryList.size();
+    byteN = 0;
+    for (Path entry : entryList) {
+      byteN += attributesMap.get(entry).size();
+    }
+    // evicted down to 3/4 of the bounds, so that eviction is not run by every write
+    for (Path entry : entryList) {
+      if ((entryN <= (MAX_ENTRY_N >> 2) * 3) && (byteN <= (MAX_BYTE_N >> 2) * 3)) {
+        break;
+      }
+      if (Files.deleteIfExists(entry)) {
+        entryN--;
+        byteN -= attributesMap.get(entry).size();
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  // header: magic, version, path, size, hash
+  // body: symbol table, value table, then per line type: type, lines, items and values by index
+  private static byte[] encode(Path absPath, byte[] fileBytes, Darkest darkest)
+      throws IOException {
+    Map<String, Integer> symbolMap = new LinkedHashMap<>();
+    Map<String, Integer> valueMap = new LinkedHashMap<>();
+    for (Map.Entry<String, List<Line>> entry : darkest.reqLineListMap().entrySet()) {
+      symbolMap.putIfAbsent(entry.getKey(), symbolMap.size());
+      for (Line line : entry.getValue()) {
+        for (Item item : line.reqItemMap().values()) {
+          symbolMap.putIfAbsent(item.reqName(), symbolMap.size());
+          for (String value : item.reqValueList()) {
+            valueMap.putIfAbsent(value, valueMap.size());
+          }
+        }
+      }
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 12);
+    DataOutputStream output = new DataOutputStream(bytes);
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    writeString(output, absPath.toString());
+    output.writeLong(fileBytes.length);
+    output.writeLong(hashOf(fileBytes));
+    writeVarint(output, symbolMap.size());
+    for (String symbol : symbolMap.keySet()) {
+      writeString(output, symbol);
+    }
+    writeVarint(output, valueMap.size());
+    for (String value : valueMap.keySet()) {
+      writeString(output, value);
+    }
+    writeVarint(output, darkest.reqLineListMap().size());
+    for (Map.Entry<String, List<Line>> entry : darkest.reqLineListMap().entrySet()) {
+      writeVarint(output, symbolMap.get(entry.getKey()));
+      writeVarint(output, entry.getValue().size());
+      for (Line line : entry.getValue()) {
+        writeVarint(output, line.reqItemMap().size());
+        for (Item item : line.reqItemMap().values()) {
+          writeVarint(output, symbolMap.get(item.reqName()));
+          writeVarint(output, item.reqValueList().size());
+          for (String value : item.reqValueList()) {
+            writeVarint(output, valueMap.get(value));
+          }
+        }
+      }
+    }
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void writeString(DataOutputStream output, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    writeVarint(output, bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeVarint(DataOutputStream output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private record Decoder(ByteBuffer bytes) {
+
+    Darkest decode(Path absPath, byte[] fileBytes) {
+      if ((bytes.getInt() != MAGIC) || (bytes.getInt() != VERSION)
+          || !readString().equals(absPath.toString())
+          || (bytes.getLong() != fileBytes.length)
+          || (bytes.getLong() != hashOf(fileBytes))) {
+        return null;
+      }
+      String[] symbolArray = new String[readVarint()];
+      for (int i = 0; i < symbolArray.length; i++) {
+        symbolArray[i] = _DarkestSymbolTable_.intern(readString());
+      }
+      String[] valueArray = new String[readVarint()];
+      for (int i = 0; i < valueArray.length; i++) {
+        valueArray[i] = readString();
+      }
+      int typeCount = readVarint();
+      Map<String, List<Line>> lineListMap = new LinkedHashMap<>(typeCount << 1);
+      for (int t = 0; t < typeCount; t++) {
+        String type = symbolArray[readVarint()];
+        int lineCount = readVarint();
+        List<Line> lineList = new _DarkestLineList_(lineCount);
+        for (int l = 0; l < lineCount; l++) {
+          int itemCount = readVarint();
+          Map<String, Item> itemMap = new LinkedHashMap<>(itemCount << 1);
+          for (int i = 0; i < itemCount; i++) {
+            String name = symbolArray[readVarint()];
+            int valueCount = readVarint();
+            List<String> valueList = new ArrayList<>(valueCount);
+            for (int v = 0; v < valueCount; v++) {
+              valueList.add(valueArray[readVarint()]);
+            }
+            itemMap.put(name, new Item(name, valueList));
+          }
+          lineList.add(new Line(type, itemMap));
+        }
+        lineListMap.put(type, lineList);
+      }
+      if (bytes.hasRemaining()) {
+        return null;
+      }
+      Darkest darkest = new Darkest();
+      darkest.setPath(absPath);
+      darkest.setLineListMap(lineListMap);
+      return darkest;
+    }
+
+    private String readString() {
+      int length = readVarint();
+      int position = bytes.position();
+      bytes.position(position + length);
+      return new String(bytes.array(), position, length, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = bytes.get();
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * [ *.darkest ] compactor.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestCompactor_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static void compact(Darkest darkest) {
+    new _DarkestCompactor_(darkest);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  // value -> sharedValue, values like `0` and `true` repeat throughout a file
+  private final Map<String, String> valueMap = new HashMap<>();
+
+  private final String[] pool;
+  private int poolSize;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void compact(Line line) {
+    line.setType(_DarkestSymbolTable_.intern(line.reqType()));
+    Map<String, Item> itemMap = line.reqItemMap();
+    if (!(itemMap instanceof _DarkestItemMap_)) {
+      itemMap = new _DarkestItemMap_(itemMap);
+      line.setItemMap(itemMap);
+    }
+    for (Item item : itemMap.values()) {
+      item.setName(_DarkestSymbolTable_.intern(item.reqName()));
+      List<String> valueList = item.reqValueList();
+      if (valueList.isEmpty()) {
+        item.setValueList(List.of());
+        continue;
+      }
+      int offset = poolSize;
+      for (String value : valueList) {
+        pool[poolSize++] = valueMap.computeIfAbsent(value, v -> v);
+      }
+      item.setValueList(new _DarkestValueList_(pool, offset, valueList.size()));
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _DarkestCompactor_(Darkest darkest) {
+    int n = 0;
+    for (List<Line> lineList : darkest.reqLineListMap().values()) {
+      for (Line line : lineList) {
+        for (Item item : line.reqItemMap().values()) {
+          n += item.reqValueList().size();
+        }
+      }
+    }
+    this.pool = new String[n];
+    // --- do compact ---
+    for (List<Line> lineList : darkest.reqLineListMap().values()) {
+      for (Line line : lineList) {
+        compact(line);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import ddmodstool.core.game.base.file.darkest.DarkestCorpus;
+import ddmodstool.core.lang.util.IO;
+import ddmodstool.core.lang.util.Simple;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * [ *.darkest ] corpus reader.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestCorpusReader_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static DarkestCorpus read(List<Path> homeList) {
+    return new _DarkestCorpusReader_(homeList).result;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final DarkestCorpus result = Simple.init(() -> {
+    DarkestCorpus result = new DarkestCorpus();
+    result.setDarkestListMap(new LinkedHashMap<>());
+    result.setLineListMap(new LinkedHashMap<>());
+    return result;
+  });
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _DarkestCorpusReader_(List<Path> homeList) {
+    List<Path> absHomeList = homeList.stream().map(Path::toAbsolutePath).toList();
+    result.setHomeList(absHomeList);
+    // --- discover files ---
+    List<Path> pathList = new ArrayList<>();
+    List<String> relativePathList = new ArrayList<>();
+    for (Path home : absHomeList) {
+      IO.walkExt(home, ".darkest", path -> {
+        pathList.add(path);
+        relativePathList.add(relativize(home, path));
+      });
+    }
+    // --- do read ---
+    // parsing is cpu bound, so the files are spread over the work-stealing common pool
+    Darkest[] darkestArray = new Darkest[pathList.size()];
+    IntStream.range(0, darkestArray.length).parallel().forEach(i -> {
+      darkestArray[i] = Darkest.read(pathList.get(i)).compact();
+    });
+    // --- do index ---
+    Map<String, List<Darkest>> darkestListMap = result.reqDarkestListMap();
+    Map<String, List<Line>> lineListMap = result.reqLineListMap();
+    for (int i = 0; i < darkestArray.length; i++) {
+      Darkest darkest = darkestArray[i];
+      darkestListMap.computeIfAbsent(relativePathList.get(i), ignored -> new ArrayList<>(1))
+          .add(darkest);
+      darkest.reqLineListMap().forEach((type, lineList) -> {
+        lineListMap.computeIfAbsent(type, ignored -> new ArrayList<>()).addAll(lineList);
+      });
+    }
+    lineListMap.values().forEach(lineList -> ((ArrayList<?>) lineList).trimToSize());
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static String relativize(Path home, Path path) {
+    String relativePath = home.relativize(path).toString();
+    return relativePath.replace(path.getFileSystem().getSeparator(), "/");
+  }
+
+}
@@ -0,0 +1,237 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * [ *.darkest ] compact item map, stores names and items in parallel arrays.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestItemMap_ extends AbstractMap<String, Item> {
+
+  private String[] nameArray;
+  private Item[] itemArray;
+  private int size;
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, AbstractMap
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return indexOf(name) >= 0;
+  }
+
+  @Override
+  public Item get(Object name) {
+    int index = indexOf(name);
+    return (index < 0) ? null : itemArray[index];
+  }
+
+  @Override
+  public Item put(String name, Item item) {
+    int index = indexOf(name);
+    if (index >= 0) {
+      Item oldItem = itemArray[index];
+      itemArray[index] = item;
+      return oldItem;
+    }
+    if (size == nameArray.length) {
+      int capacity = Math.max(4, size + (size >> 1));
+      nameArray = Arrays.copyOf(nameArray, capacity);
+      itemArray = Arrays.copyOf(itemArray, capacity);
+    }
+    nameArray[size] = _DarkestSymbolTable_.intern(name);
+    itemArray[size] = item;
+    size++;
+    return null;
+  }
+
+  @Override
+  public Item remove(Object name) {
+    int index = indexOf(name);
+    if (index < 0) {
+      return null;
+    }
+    Item oldItem = itemArray[index];
+    removeAt(index);
+    return oldItem;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(nameArray, 0, size, null);
+    Arrays.fill(itemArray, 0, size, null);
+    size = 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super Item> action) {
+    for (int i = 0; i < size; i++) {
+      action.accept(nameArray[i], itemArray[i]);
+    }
+  }
+
+  @Override
+  public Collection<Item> values() {
+    return new AbstractCollection<>() {
+      @Override
+      public Iterator<Item> iterator() {
+        return new Itr<>() {
+          @Override
+          Item get(int index) {
+            return itemArray[index];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public Set<Entry<String, Item>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, Item>> iterator() {
+        return new Itr<>() {
+          @Override
+          Entry<String, Item> get(int index) {
+            return new SimpleEntry<>(nameArray[index], itemArray[index]) {
+              @Override
+              public Item setValue(Item item) {
+                itemArray[index] = item;
+                return super.setValue(item);
+              }
+            };
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public _DarkestItemMap_(Map<String, Item> itemMap) {
+    int n = itemMap.size();
+    this.nameArray = new String[n];
+    this.itemArray = new Item[n];
+    itemMap.forEach(this::put);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private int indexOf(Object name) {
+    String[] nameArray = this.nameArray;
+    // names are interned, so the identity check hits for literals and other interned names
+    for (int i = 0; i < size; i++) {
+      if (nameArray[i] == name) {
+        return i;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      if (nameArray[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index) {
+    int n = size - index - 1;
+    System.arraycopy(nameArray, index + 1, nameArray, index, n);
+    System.arraycopy(itemArray, index + 1, itemArray, index, n);
+    size--;
+    nameArray[size] = null;
+    itemArray[size] = null;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private abstract class Itr<T> implements Iterator<T> {
+
+    private int cursor;
+    private int last = -1;
+
+    // -----------------------------------------------------------------------------------------
+    // @Override PublicMethods, Iterator
+    // -----------------------------------------------------------------------------------------
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    @Override
+    public T next() {
+      if (cursor >= size) {
+        throw new NoSuchElementException();
+      }
+      last = cursor++;
+      return get(last);
+    }
+
+    @Override
+    public void remove() {
+      Objects.checkIndex(last, size);
+      removeAt(last);
+      cursor = last;
+      last = -1;
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // PackageAbstractMethods
+    // -----------------------------------------------------------------------------------------
+
+    abstract T get(int index);
+
+  }
+
+}
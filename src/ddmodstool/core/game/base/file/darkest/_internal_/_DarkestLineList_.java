@@ -0,0 +1,61 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import java.util.ArrayList;
+
+/**
+ * [ *.darkest ] line list, whose modification count tells line indexes whether it has changed.
+ *
+ * <p>Replacing a line counts as a modification too, unlike in {@link ArrayList}.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestLineList_ extends ArrayList<Line> {
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, ArrayList
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public Line set(int index, Line line) {
+    modCount++;
+    return super.set(index, line);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public int modCount() {
+    return modCount;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public _DarkestLineList_() {
+  }
+
+  public _DarkestLineList_(int initialCapacity) {
+    super(initialCapacity);
+  }
+
+}
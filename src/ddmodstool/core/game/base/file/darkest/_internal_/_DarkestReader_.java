@@ -16,21 +16,21 @@
  */
 package ddmodstool.core.game.base.file.darkest._internal_;
 
-import static java.lang.String.format;
-
-import ddmodstool.core.game.base.data.localization.Loc;
 import ddmodstool.core.game.base.data.localization.LocX;
 import ddmodstool.core.game.base.file.darkest.Darkest;
 import ddmodstool.core.game.base.file.darkest.Darkest.Item;
 import ddmodstool.core.game.base.file.darkest.Darkest.Line;
-import ddmodstool.core.lang.util.IO;
+import ddmodstool.core.game.base.file.darkest.DarkestFilter;
+import ddmodstool.core.game.base.file.darkest.DarkestHandler;
 import ddmodstool.core.lang.util.Simple;
-import ddmodstool.core.lang.util.StringScanner;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * [ *.darkest ] reader.
@@ -38,32 +38,38 @@ import java.util.List;
  * @author wautsns
  * @since 1.0.0
  */
-public final class _DarkestReader_ {
+public final class _DarkestReader_ implements DarkestHandler {
 
   // ---------------------------------------------------------------------------------------------
   // PublicStaticMethods
   // ---------------------------------------------------------------------------------------------
 
-  public static Darkest read(Path path) {
+  // the source is retained and given to the setter if it is not null
+  public static Darkest read(
+      Path path, DarkestFilter filter, BiConsumer<Darkest, _DarkestSource_> sourceSetter) {
     Path absPath = path.toAbsolutePath();
     try {
-      return new _DarkestReader_(absPath).result;
+      return new _DarkestReader_(absPath, null, filter, sourceSetter).result;
     } catch (Exception e) {
       throw LocX.of(e).with("Darkest#path", absPath);
     }
   }
 
-  // ---------------------------------------------------------------------------------------------
-
-  private static final String FLAG_LINE_TYPE = "LINE_TYPE";
-  private static final String FLAG_ITEM_NAME = "ITEM_NAME";
-  private static final String FLAG_ITEM_VALUE = "ITEM_VALUE";
-  private static final String FLAG_ITEM_VALUE_TEXT = "ITEM_VALUE_TEXT";
-  private static final String FLAG_AFTER_ITEM_VALUE = "AFTER_ITEM_VALUE";
-
-  private static final String FLAG_INIT = FLAG_LINE_TYPE;
-  private static final String FLAG_OKAY = "OKAY";
-  private static final String FLAG_FAIL = "FAIL";
+  public static Darkest readCached(Path path) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      // parsed from the bytes hashed, so that an entry never holds a later version of the file
+      byte[] bytes = Files.readAllBytes(absPath);
+      Darkest result = _DarkestCache_.read(absPath, bytes);
+      if (result == null) {
+        result = new _DarkestReader_(absPath, ByteBuffer.wrap(bytes), null, null).result;
+        _DarkestCache_.write(absPath, bytes, result);
+      }
+      return result;
+    } catch (Exception e) {
+      throw LocX.of(e).with("Darkest#path", absPath);
+    }
+  }
 
   // ---------------------------------------------------------------------------------------------
   // ---------------------------------------------------------------------------------------------
@@ -74,200 +80,84 @@ public final class _DarkestReader_ {
     return result;
   });
 
-  private final StringScanner scanner;
+  private final _DarkestScanner_ scanner;
+  // not null only if the source is retained
+  private final _DarkestSource_ source;
 
-  private String flag;
   private Line line;
   private Item item;
 
   // ---------------------------------------------------------------------------------------------
-  // PrivateMethods
+  // @Override PublicMethods, DarkestHandler
   // ---------------------------------------------------------------------------------------------
 
-  private String readAndSetLineType(boolean returnFlagOnInvalidCharDetected) {
-    if (!scanner.dropWhileWhitespace().hasNext()) {
-      return FLAG_OKAY;
+  @Override
+  public void onLine(String type) {
+    line = new Line(type, new LinkedHashMap<>());
+    result.reqLineListMap().computeIfAbsent(type, ignored -> new _DarkestLineList_()).add(line);
+    if (source != null) {
+      source.onLine(line, scanner.getTokenStart(), scanner.getTokenEnd());
     }
-    if (scanner.hasNext('/')) {
-      scanner.dropWhileNotCrlf();
-      return flag;
-    }
-    if (!isIdentifierChar(scanner.look())) {
-      if (returnFlagOnInvalidCharDetected) {
-        return FLAG_FAIL;
-      }
-      throw LocX.of("Darkest!InvalidContent")
-          .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-          .with("txt[Expect]", Loc.G.text("Darkest#lineType"))
-          .with("txt[Actual]", scanner.near(0, 20));
-    }
-    String type = scanner.takeWhile(_DarkestReader_::isIdentifierChar);
-    scanner.dropWhile(c -> c != ':').drop();
-    line = new Line();
-    line.setType(type);
-    line.setItemMap(new LinkedHashMap<>());
-    result.reqLineListMap().computeIfAbsent(type, ignored -> new ArrayList<>()).add(line);
-    return FLAG_ITEM_NAME;
   }
 
-  private String readAndSetItemName(boolean returnFlagOnInvalidCharDetected) {
-    if (!scanner.dropWhileWhitespace().hasNext()) {
-      return FLAG_OKAY;
-    }
-    if (scanner.hasNext('/')) {
-      scanner.dropWhileNotCrlf();
-      return flag;
-    }
-    if (!scanner.hasNext('.')) {
-      if (returnFlagOnInvalidCharDetected) {
-        return FLAG_FAIL;
-      }
-      throw LocX.of("Darkest!InvalidContent")
-          .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-          .with("txt[Expect]", Loc.G.text("Darkest#itemName"))
-          .with("txt[Actual]", scanner.near(0, 20));
-    }
-    String name = scanner.drop().takeWhile(_DarkestReader_::isIdentifierChar);
-    item = new Item();
-    item.setName(name);
-    item.setValueList(new ArrayList<>());
+  @Override
+  public void onItem(String name) {
+    item = new Item(name, new ArrayList<>());
     if (line.reqItemMap().put(item.reqName(), item) != null) {
       throw LocX.of("Darkest!ConflictingItems")
           .with("Darkest#path", result.getPath())
           .with("Darkest#lineType", line.getType())
           .with("Darkest#itemName", item.getName());
     }
-    return FLAG_ITEM_VALUE;
-  }
-
-  private String readAndSetItemValue() {
-    if (scanner.dropWhileWhitespaceNotCrlf().hasNextCrlf()) {
-      return FLAG_AFTER_ITEM_VALUE;
-    }
-    if (!scanner.dropWhileWhitespace().hasNext()) {
-      return FLAG_OKAY;
-    }
-    if (scanner.hasNext('/')) {
-      scanner.dropWhileNotCrlf();
-      return flag;
-    }
-    if (scanner.hasNext('"')) {
-      return FLAG_ITEM_VALUE_TEXT;
-    } else if (scanner.hasNext('.')) {
-      return FLAG_ITEM_NAME;
-    } else {
-      String value = scanner.takeWhileNotWhitespace();
-      item.reqValueList().add(value);
-      return FLAG_AFTER_ITEM_VALUE;
+    if (source != null) {
+      source.onItem(item, scanner.getTokenStart(), scanner.getTokenEnd());
     }
   }
 
-  private String readAndSetItemValueText() {
-    if (scanner.hasNext('"')) {
-      scanner.drop();
-      StringBuilder bu = new StringBuilder();
-      boolean escaped = false;
-      while (scanner.hasNext()) {
-        char c = scanner.take();
-        if (escaped) {
-          bu.append(c);
-          escaped = false;
-        } else if (c == '\\') {
-          escaped = true;
-        } else if (c == '"') {
-          String value = bu.toString();
-          item.reqValueList().add(value);
-          return FLAG_AFTER_ITEM_VALUE;
-        } else {
-          bu.append(c);
-        }
-      }
+  @Override
+  public void onValue(String value) {
+    item.reqValueList().add(value);
+    if (source != null) {
+      int start = scanner.getTokenStart();
+      source.onValue(start, scanner.getTokenEnd(), scanner.getBytes().get(start) == '"');
     }
-    throw LocX.of("Darkest!InvalidContent")
-        .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-        .with("txt[Expect]", "\"")
-        .with("txt[Actual]", scanner.hasNext() ? scanner.near(0, 20) : "<EOF>");
   }
 
-  private String readAndSetAfterItemValue() {
-    scanner.dropWhileWhitespaceNotCrlf();
-    if (!scanner.hasNext()) {
-      return FLAG_OKAY;
-    }
-    if (scanner.hasNext('/')) {
-      scanner.dropWhileNotCrlf();
-      return flag;
+  @Override
+  public void onEndLine() {
+    if (source != null) {
+      source.onEndLine();
     }
-    boolean hasNextLineSeparator = scanner.hasNextCrlf();
-    String flagToReturn = readAndSetItemName(true);
-    if (flagToReturn.equals(FLAG_FAIL)) {
-      if (hasNextLineSeparator) {
-        flagToReturn = readAndSetLineType(true);
-        if (flagToReturn.equals(FLAG_FAIL)) {
-          throw LocX.of("Darkest!InvalidContent")
-              .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-              .with("txt[Expect]", format("%s|%s",
-                  Loc.G.text("Darkest#lineType"), Loc.G.text("Darkest#itemName")))
-              .with("txt[Actual]", scanner.near(0, 20));
-        }
-      } else {
-        flagToReturn = readAndSetItemValue();
-        if (flagToReturn.equals(FLAG_FAIL)) {
-          throw LocX.of("Darkest!InvalidContent")
-              .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-              .with("txt[Expect]", format("%s|%s",
-                  Loc.G.text("Darkest#itemName"), Loc.G.text("Darkest#itemValue")))
-              .with("txt[Actual]", scanner.near(0, 20));
-        }
-      }
-    }
-    return flagToReturn;
   }
 
   // ---------------------------------------------------------------------------------------------
   // PrivateConstructors
   // ---------------------------------------------------------------------------------------------
 
-  private _DarkestReader_(Path path) {
+  // the file is loaded if the bytes are null
+  private _DarkestReader_(Path path, ByteBuffer bytes, DarkestFilter filter,
+      BiConsumer<Darkest, _DarkestSource_> sourceSetter) throws IOException {
     result.setPath(path);
-    this.scanner = new StringScanner(IO.readString(path));
-    this.flag = FLAG_INIT;
+    this.scanner = (bytes == null) ?
+        new _DarkestScanner_(path, filter, this) : new _DarkestScanner_(bytes, filter, this);
+    this.source = (sourceSetter != null) ? new _DarkestSource_() : null;
     // --- do read ---
-    while (!FLAG_OKAY.equals(flag)) {
-      flag = switch (flag) {
-        case FLAG_LINE_TYPE -> readAndSetLineType(false);
-        case FLAG_ITEM_NAME -> readAndSetItemName(false);
-        case FLAG_ITEM_VALUE -> readAndSetItemValue();
-        case FLAG_ITEM_VALUE_TEXT -> readAndSetItemValueText();
-        case FLAG_AFTER_ITEM_VALUE -> readAndSetAfterItemValue();
-        default -> throw LocX.of("Darkest!InvalidContent")
-            .with("txt[PositionOfInvalidChar]", scanner.getCursor())
-            .with("txt[Actual]", scanner.near(10, 20));
-      };
+    try (this.scanner) {
+      scanner.scan();
+      if (source != null) {
+        // the scanned bytes may be a reused buffer or a mapping, so the source keeps its own copy
+        source.onEnd(scanner.getBytes());
+        sourceSetter.accept(result, source);
+      }
     }
     for (List<Line> lineList : result.reqLineListMap().values()) {
       ((ArrayList<?>) lineList).trimToSize();
-      lineList.stream().flatMap(line -> line.reqItemMap().values().stream()).forEach(item -> {
-        ((ArrayList<?>) item.reqValueList()).trimToSize();
-      });
+      for (Line line : lineList) {
+        for (Item item : line.reqItemMap().values()) {
+          ((ArrayList<?>) item.reqValueList()).trimToSize();
+        }
+      }
     }
   }
 
-  // ---------------------------------------------------------------------------------------------
-  // PrivateStaticMethods ( & Fields )
-  // ---------------------------------------------------------------------------------------------
-
-  private static final char[] IDENTIFIER_CHAR_ARRAY = Simple.init(() -> {
-    String string = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
-    char[] charArray = string.toCharArray();
-    Arrays.sort(charArray);
-    return charArray;
-  });
-
-  // ---------------------------------------------------------------------------------------------
-
-  private static boolean isIdentifierChar(char c) {
-    return (Arrays.binarySearch(IDENTIFIER_CHAR_ARRAY, c) >= 0);
-  }
-
 }
@@ -0,0 +1,487 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import static java.lang.String.format;
+
+import ddmodstool.core.game.base.data.localization.Loc;
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.darkest.DarkestFilter;
+import ddmodstool.core.game.base.file.darkest.DarkestHandler;
+import ddmodstool.core.lang.util.Simple;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * [ *.darkest ] scanner.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestScanner_ implements AutoCloseable {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static void scan(Path path, DarkestFilter filter, DarkestHandler handler) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      try (_DarkestScanner_ scanner = new _DarkestScanner_(absPath, filter, handler)) {
+        scanner.scan();
+      }
+    } catch (Exception e) {
+      throw LocX.of(e).with("Darkest#path", absPath);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static final int STATE_LINE_TYPE = 0;
+  private static final int STATE_ITEM_NAME = 1;
+  private static final int STATE_ITEM_VALUE = 2;
+  private static final int STATE_ITEM_VALUE_TEXT = 3;
+  private static final int STATE_AFTER_ITEM_VALUE = 4;
+
+  private static final int STATE_INIT = STATE_LINE_TYPE;
+  private static final int STATE_OKAY = 5;
+  private static final int STATE_FAIL = 6;
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final ByteBuffer bytes;
+  // whether the bytes are the buffer of the thread, given back on close
+  private final boolean bytesPooled;
+  private final int end;
+  private final DarkestHandler handler;
+  private final Predicate<String> lineTypeFilter;
+  private final Predicate<String> itemNameFilter;
+  private byte[] scratch = new byte[64];
+
+  private int cursor;
+  private int state;
+  // whether events of the current line / item are reported to the handler
+  private boolean lineAccepted;
+  private boolean itemAccepted;
+  // span of the token last reported to the handler, quotes and the leading '.' included
+  private int tokenStart;
+  private int tokenEnd;
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, AutoCloseable
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public void close() {
+    if (bytesPooled) {
+      threadLocalBuffer.set(bytes);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageMethods
+  // ---------------------------------------------------------------------------------------------
+
+  ByteBuffer getBytes() {
+    return bytes;
+  }
+
+  int getTokenStart() {
+    return tokenStart;
+  }
+
+  int getTokenEnd() {
+    return tokenEnd;
+  }
+
+  void scan() {
+    this.cursor = 0;
+    this.state = STATE_INIT;
+    while (state != STATE_OKAY) {
+      state = switch (state) {
+        case STATE_LINE_TYPE -> readAndSetLineType(false);
+        case STATE_ITEM_NAME -> readAndSetItemName(false);
+        case STATE_ITEM_VALUE -> readAndSetItemValue();
+        case STATE_ITEM_VALUE_TEXT -> readAndSetItemValueText();
+        case STATE_AFTER_ITEM_VALUE -> readAndSetAfterItemValue();
+        default -> throw newInvalidContentX(Integer.toString(state));
+      };
+    }
+    if (lineAccepted) {
+      lineAccepted = false;
+      handler.onEndLine();
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private int readAndSetLineType(boolean returnFailOnInvalidCharDetected) {
+    if (dropWhile(CHAR_WHITESPACE) == end) {
+      return STATE_OKAY;
+    }
+    byte b = bytes.get(cursor);
+    if (b == '/') {
+      dropComment();
+      return state;
+    }
+    if (!isByteOf(b, CHAR_IDENTIFIER)) {
+      if (returnFailOnInvalidCharDetected) {
+        return STATE_FAIL;
+      }
+      throw newInvalidContentX(Loc.G.text("Darkest#lineType"));
+    }
+    int start = cursor;
+    String type = _DarkestSymbolTable_.intern(bytes, start, dropWhile(CHAR_IDENTIFIER));
+    while ((cursor < end) && (bytes.get(cursor) != ':')) {
+      cursor++;
+    }
+    if (cursor == end) {
+      throw newInvalidContentX(":");
+    }
+    cursor++;
+    if (lineAccepted) {
+      handler.onEndLine();
+    }
+    lineAccepted = lineTypeFilter.test(type);
+    itemAccepted = false;
+    if (lineAccepted) {
+      tokenStart = start;
+      tokenEnd = cursor;
+      handler.onLine(type);
+    }
+    return STATE_ITEM_NAME;
+  }
+
+  private int readAndSetItemName(boolean returnFailOnInvalidCharDetected) {
+    if (dropWhile(CHAR_WHITESPACE) == end) {
+      return STATE_OKAY;
+    }
+    byte b = bytes.get(cursor);
+    if (b == '/') {
+      dropComment();
+      return state;
+    }
+    if (b != '.') {
+      if (returnFailOnInvalidCharDetected) {
+        return STATE_FAIL;
+      }
+      throw newInvalidContentX(Loc.G.text("Darkest#itemName"));
+    }
+    int start = ++cursor;
+    dropWhile(CHAR_IDENTIFIER);
+    if (lineAccepted) {
+      String name = _DarkestSymbolTable_.intern(bytes, start, cursor);
+      itemAccepted = itemNameFilter.test(name);
+      if (itemAccepted) {
+        tokenStart = start - 1;
+        tokenEnd = cursor;
+        handler.onItem(name);
+      }
+    }
+    return STATE_ITEM_VALUE;
+  }
+
+  private int readAndSetItemValue() {
+    if ((dropWhile(CHAR_WHITESPACE_NOT_CRLF) < end) && isByteOf(bytes.get(cursor), CHAR_CRLF)) {
+      return STATE_AFTER_ITEM_VALUE;
+    }
+    if (dropWhile(CHAR_WHITESPACE) == end) {
+      return STATE_OKAY;
+    }
+    byte b = bytes.get(cursor);
+    if (b == '/') {
+      dropComment();
+      return state;
+    }
+    if (b == '"') {
+      return STATE_ITEM_VALUE_TEXT;
+    } else if (b == '.') {
+      return STATE_ITEM_NAME;
+    } else {
+      int start = cursor;
+      while ((cursor < end) && (whitespaceLengthAt(cursor, CHAR_WHITESPACE) == 0)) {
+        cursor++;
+      }
+      if (itemAccepted) {
+        tokenStart = start;
+        tokenEnd = cursor;
+        handler.onValue(slice(start, cursor, StandardCharsets.UTF_8));
+      }
+      return STATE_AFTER_ITEM_VALUE;
+    }
+  }
+
+  private int readAndSetItemValueText() {
+    // the opening quote has been checked by readAndSetItemValue
+    int start = ++cursor;
+    while (cursor < end) {
+      byte b = bytes.get(cursor);
+      if (b == '"') {
+        if (itemAccepted) {
+          tokenStart = start - 1;
+          tokenEnd = cursor + 1;
+          handler.onValue(slice(start, cursor, StandardCharsets.UTF_8));
+        }
+        cursor++;
+        return STATE_AFTER_ITEM_VALUE;
+      } else if (b == '\\') {
+        return itemAccepted ?
+            readAndSetEscapedItemValueText(start) : dropEscapedItemValueText();
+      }
+      cursor++;
+    }
+    throw newInvalidContentX("\"");
+  }
+
+  private int readAndSetEscapedItemValueText(int start) {
+    // unescaped bytes are collected in the scratch array and decoded once at the closing quote
+    int length = cursor - start;
+    byte[] scratch = reqScratch(length);
+    bytes.get(start, scratch, 0, length);
+    boolean escaped = false;
+    while (cursor < end) {
+      byte b = bytes.get(cursor++);
+      if (!escaped && (b == '\\')) {
+        escaped = true;
+        continue;
+      } else if (!escaped && (b == '"')) {
+        tokenStart = start - 1;
+        tokenEnd = cursor;
+        handler.onValue(new String(scratch, 0, length, StandardCharsets.UTF_8));
+        return STATE_AFTER_ITEM_VALUE;
+      }
+      escaped = false;
+      if (length == scratch.length) {
+        scratch = reqScratch(length + 1);
+      }
+      scratch[length++] = b;
+    }
+    throw newInvalidContentX("\"");
+  }
+
+  private int dropEscapedItemValueText() {
+    boolean escaped = false;
+    while (cursor < end) {
+      byte b = bytes.get(cursor++);
+      if (escaped) {
+        escaped = false;
+      } else if (b == '\\') {
+        escaped = true;
+      } else if (b == '"') {
+        return STATE_AFTER_ITEM_VALUE;
+      }
+    }
+    throw newInvalidContentX("\"");
+  }
+
+  private int readAndSetAfterItemValue() {
+    if (dropWhile(CHAR_WHITESPACE_NOT_CRLF) == end) {
+      return STATE_OKAY;
+    }
+    byte b = bytes.get(cursor);
+    if (b == '/') {
+      dropComment();
+      return state;
+    }
+    boolean hasNextLineSeparator = isByteOf(b, CHAR_CRLF);
+    int stateToReturn = readAndSetItemName(true);
+    if (stateToReturn == STATE_FAIL) {
+      if (hasNextLineSeparator) {
+        stateToReturn = readAndSetLineType(true);
+        if (stateToReturn == STATE_FAIL) {
+          throw newInvalidContentX(format("%s|%s",
+              Loc.G.text("Darkest#lineType"), Loc.G.text("Darkest#itemName")));
+        }
+      } else {
+        stateToReturn = readAndSetItemValue();
+      }
+    }
+    return stateToReturn;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private int dropWhile(int charClass) {
+    ByteBuffer bytes = this.bytes;
+    int cursor = this.cursor;
+    if ((charClass & CHAR_IDENTIFIER) != 0) {
+      while ((cursor < end) && isByteOf(bytes.get(cursor), charClass)) {
+        cursor++;
+      }
+    } else {
+      for (int n; (cursor < end) && ((n = whitespaceLengthAt(cursor, charClass)) != 0); ) {
+        cursor += n;
+      }
+    }
+    return (this.cursor = cursor);
+  }
+
+  private void dropComment() {
+    while ((cursor < end) && !isByteOf(bytes.get(cursor), CHAR_CRLF)) {
+      cursor++;
+    }
+  }
+
+  private int whitespaceLengthAt(int index, int charClass) {
+    byte b = bytes.get(index);
+    if (b >= 0) {
+      return isByteOf(b, charClass) ? 1 : 0;
+    }
+    // non-ascii whitespace (U+1680, U+2000..U+205F, U+3000) is always encoded in 3 bytes
+    if ((b & 0xFC) != 0xE0 || (index + 2 >= end)) {
+      return 0;
+    }
+    int codePoint = ((b & 0x0F) << 12)
+        | ((bytes.get(index + 1) & 0x3F) << 6)
+        | (bytes.get(index + 2) & 0x3F);
+    return Character.isWhitespace(codePoint) ? 3 : 0;
+  }
+
+  private String slice(int start, int end, Charset charset) {
+    int length = end - start;
+    if (bytes.hasArray()) {
+      return new String(bytes.array(), bytes.arrayOffset() + start, length, charset);
+    }
+    byte[] scratch = reqScratch(length);
+    bytes.get(start, scratch, 0, length);
+    return new String(scratch, 0, length, charset);
+  }
+
+  private byte[] reqScratch(int length) {
+    byte[] scratch = this.scratch;
+    if (scratch.length < length) {
+      scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length << 1));
+      this.scratch = scratch;
+    }
+    return scratch;
+  }
+
+  private LocX newInvalidContentX(String expect) {
+    return LocX.of("Darkest!InvalidContent")
+        .with("txt[PositionOfInvalidChar]", cursor)
+        .with("txt[Expect]", expect)
+        .with("txt[Actual]", (cursor < end) ?
+            slice(cursor, Math.min(end, cursor + 20), StandardCharsets.UTF_8) : "<EOF>");
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  _DarkestScanner_(Path path, DarkestFilter filter, DarkestHandler handler) throws IOException {
+    this(load(path), true, filter, handler);
+  }
+
+  // the bytes are of the caller, and are not given back to the thread
+  _DarkestScanner_(ByteBuffer bytes, DarkestFilter filter, DarkestHandler handler) {
+    this(bytes, false, filter, handler);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _DarkestScanner_(
+      ByteBuffer bytes, boolean loaded, DarkestFilter filter, DarkestHandler handler) {
+    this.bytes = bytes;
+    // loaded mappings are direct, loaded heap buffers are taken from the thread
+    this.bytesPooled = loaded && !bytes.isDirect();
+    this.end = bytes.limit();
+    this.handler = handler;
+    Predicate<String> returnTrueDirectly = ignored -> true;
+    if ((filter == null) || (filter.getForLineType() == null)) {
+      this.lineTypeFilter = returnTrueDirectly;
+    } else {
+      this.lineTypeFilter = filter.getForLineType();
+    }
+    if ((filter == null) || (filter.getForItemName() == null)) {
+      this.itemNameFilter = returnTrueDirectly;
+    } else {
+      this.itemNameFilter = filter.getForItemName();
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final int CHAR_IDENTIFIER = 1;
+  private static final int CHAR_WHITESPACE = 1 << 1;
+  private static final int CHAR_WHITESPACE_NOT_CRLF = 1 << 2;
+  private static final int CHAR_CRLF = 1 << 3;
+
+  // ascii char -> bitwise OR of CHAR_*
+  private static final byte[] ASCII_CHAR_CLASS_ARRAY = Simple.init(() -> {
+    byte[] array = new byte[128];
+    String identifiers = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+    for (int i = 0; i < identifiers.length(); i++) {
+      array[identifiers.charAt(i)] |= CHAR_IDENTIFIER;
+    }
+    for (char c = 0; c < 128; c++) {
+      if (Character.isWhitespace(c)) {
+        array[c] |= CHAR_WHITESPACE;
+        array[c] |= ((c == '\n') || (c == '\r')) ? CHAR_CRLF : CHAR_WHITESPACE_NOT_CRLF;
+      }
+    }
+    return array;
+  });
+
+  // files smaller than this are read into a reused thread-local buffer instead of being mapped,
+  // which is taken while scanning and given back on close
+  private static final int MAPPING_THRESHOLD = 1 << 20;
+
+  private static final ThreadLocal<ByteBuffer> threadLocalBuffer =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocate(1 << 16));
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static ByteBuffer load(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size >= MAPPING_THRESHOLD) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      ByteBuffer buffer = threadLocalBuffer.get();
+      if ((buffer == null) || (buffer.capacity() < size)) {
+        // null if the one of the thread is in use, e.g. a handler reads another file
+        buffer = ByteBuffer.allocate(Math.max(1 << 16, Integer.highestOneBit((int) size) << 1));
+      }
+      buffer.clear();
+      while ((channel.read(buffer) >= 0) && buffer.hasRemaining()) {
+        // read until eof
+      }
+      threadLocalBuffer.set(null);
+      return buffer.flip();
+    }
+  }
+
+  private static boolean isByteOf(byte b, int charClass) {
+    // non-ascii bytes are never identifiers or line separators
+    return (b >= 0) && ((ASCII_CHAR_CLASS_ARRAY[b] & charClass) != 0);
+  }
+
+}
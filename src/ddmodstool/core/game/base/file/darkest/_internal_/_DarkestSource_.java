@@ -0,0 +1,192 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * [ *.darkest ] source retained by the reader, used by the writer to copy unchanged bytes.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestSource_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private byte[] bytes;
+  // lines in source order
+  private final List<Line> lineList = new ArrayList<>();
+  private final Map<Line, LineSpan> lineSpanMap = new IdentityHashMap<>();
+  private final Map<Item, ItemSpan> itemSpanMap = new IdentityHashMap<>();
+
+  // --- recording state ---
+  private Line line;
+  private int lineStart;
+  private int lineHeaderEnd;
+  private int lineEnd;
+  private Item item;
+  private int itemGapStart;
+  private int itemStart;
+  private int itemValueCount;
+  private long itemQuotedMask;
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageMethods
+  // ---------------------------------------------------------------------------------------------
+
+  byte[] getBytes() {
+    return bytes;
+  }
+
+  List<Line> getLineList() {
+    return lineList;
+  }
+
+  LineSpan getLineSpan(Line line) {
+    return lineSpanMap.get(line);
+  }
+
+  ItemSpan getItemSpan(Item item) {
+    return itemSpanMap.get(item);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  void onLine(Line line, int start, int end) {
+    onEndLine();
+    this.line = line;
+    this.lineStart = start;
+    this.lineHeaderEnd = end;
+    this.lineEnd = end;
+  }
+
+  void onItem(Item item, int start, int end) {
+    onEndItem();
+    this.item = item;
+    this.itemGapStart = lineEnd;
+    this.itemStart = start;
+    this.itemValueCount = 0;
+    this.itemQuotedMask = 0;
+    this.lineEnd = end;
+  }
+
+  void onValue(int start, int end, boolean quoted) {
+    if (quoted && (itemValueCount < Long.SIZE)) {
+      this.itemQuotedMask |= 1L << itemValueCount;
+    }
+    this.itemValueCount++;
+    this.lineEnd = end;
+  }
+
+  void onEndLine() {
+    Line line = this.line;
+    if (line == null) {
+      return;
+    }
+    onEndItem();
+    lineList.add(line);
+    lineSpanMap.put(line, new LineSpan(lineStart, lineHeaderEnd, lineEnd, line.reqType(),
+        line.reqItemMap().values().toArray(new Item[0])));
+    this.line = null;
+  }
+
+  void onEnd(ByteBuffer bytes) {
+    onEndLine();
+    byte[] array = new byte[bytes.limit()];
+    bytes.get(0, array);
+    this.bytes = array;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void onEndItem() {
+    Item item = this.item;
+    if (item == null) {
+      return;
+    }
+    itemSpanMap.put(item, new ItemSpan(line, itemGapStart, itemStart, lineEnd, item.reqName(),
+        item.reqValueList().toArray(new String[0]), itemQuotedMask));
+    this.item = null;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  // [start, headerEnd) is "type:", [start, end) is the whole line without trailing comments
+  record LineSpan(int start, int headerEnd, int end, String type, Item[] itemArray) {
+
+    boolean isUnchanged(Line line, _DarkestSource_ source) {
+      if (!type.equals(line.getType())) {
+        return false;
+      }
+      Map<String, Item> itemMap = line.reqItemMap();
+      if (itemMap.size() != itemArray.length) {
+        return false;
+      }
+      int i = 0;
+      for (Item item : itemMap.values()) {
+        if ((item != itemArray[i++]) || !source.getItemSpan(item).isUnchanged(item)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+  // [gapStart, start) is the whitespace and comments before ".name", [start, end) is the item
+  record ItemSpan(
+      Line line, int gapStart, int start, int end,
+      String name, String[] valueArray, long quotedMask) {
+
+    // values appended after the original ones follow the quoting of the last original value
+    boolean isQuoted(int index) {
+      int i = Math.min(index, Math.min(valueArray.length, Long.SIZE) - 1);
+      return (i >= 0) && ((quotedMask & (1L << i)) != 0);
+    }
+
+    boolean isUnchanged(Item item) {
+      if (!name.equals(item.getName())) {
+        return false;
+      }
+      List<String> valueList = item.reqValueList();
+      if (valueList.size() != valueArray.length) {
+        return false;
+      }
+      for (int i = 0; i < valueArray.length; i++) {
+        String value = valueList.get(i);
+        if ((value != valueArray[i]) && !valueArray[i].equals(value)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+}
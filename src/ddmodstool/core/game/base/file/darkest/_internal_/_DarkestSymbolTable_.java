@@ -0,0 +1,124 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * [ *.darkest ] symbol table ( line types and item names ).
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestSymbolTable_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static String intern(String symbol) {
+    return (symbol == null) ? null : symbol.intern();
+  }
+
+  public static String intern(ByteBuffer bytes, int start, int end) {
+    return threadLocalTable.get().lookup(bytes, start, end);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  // symbols are canonicalized by String#intern, and this per-thread cache keyed by raw bytes
+  // resolves a known symbol without allocating
+  private String[] symbolArray = new String[256];
+  private int[] hashArray = new int[256];
+  private int size;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private String lookup(ByteBuffer bytes, int start, int end) {
+    // same as String#hashCode since symbols are ascii
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + bytes.get(i);
+    }
+    int mask = symbolArray.length - 1;
+    int index = (hash ^ (hash >>> 16)) & mask;
+    for (String symbol; (symbol = symbolArray[index]) != null; index = (index + 1) & mask) {
+      if ((hashArray[index] == hash) && matches(symbol, bytes, start, end)) {
+        return symbol;
+      }
+    }
+    byte[] array = new byte[end - start];
+    bytes.get(start, array);
+    String symbol = new String(array, StandardCharsets.ISO_8859_1).intern();
+    if (size < MAX_SIZE) {
+      symbolArray[index] = symbol;
+      hashArray[index] = hash;
+      if (++size > (symbolArray.length >>> 1)) {
+        grow();
+      }
+    }
+    return symbol;
+  }
+
+  private void grow() {
+    String[] oldSymbolArray = symbolArray;
+    int[] oldHashArray = hashArray;
+    symbolArray = new String[oldSymbolArray.length << 1];
+    hashArray = new int[oldHashArray.length << 1];
+    int mask = symbolArray.length - 1;
+    for (int i = 0; i < oldSymbolArray.length; i++) {
+      if (oldSymbolArray[i] != null) {
+        int hash = oldHashArray[i];
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (symbolArray[index] != null) {
+          index = (index + 1) & mask;
+        }
+        symbolArray[index] = oldSymbolArray[i];
+        hashArray[index] = hash;
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  // line types and item names form a small vocabulary, this only guards against garbage input
+  private static final int MAX_SIZE = 1 << 14;
+
+  private static final ThreadLocal<_DarkestSymbolTable_> threadLocalTable =
+      ThreadLocal.withInitial(_DarkestSymbolTable_::new);
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static boolean matches(String symbol, ByteBuffer bytes, int start, int end) {
+    if (symbol.length() != (end - start)) {
+      return false;
+    }
+    for (int i = start, j = 0; i < end; i++, j++) {
+      if (symbol.charAt(j) != bytes.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
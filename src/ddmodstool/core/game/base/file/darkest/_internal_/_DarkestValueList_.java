@@ -0,0 +1,60 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * [ *.darkest ] compact item value list, an unmodifiable view of a shared value pool.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestValueList_ extends AbstractList<String> implements RandomAccess {
+
+  private final String[] pool;
+  private final int offset;
+  private final int size;
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, AbstractList
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public String get(int index) {
+    return pool[offset + Objects.checkIndex(index, size)];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public _DarkestValueList_(String[] pool, int offset, int size) {
+    Objects.checkFromIndexSize(offset, size, pool.length);
+    this.pool = pool;
+    this.offset = offset;
+    this.size = size;
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.darkest._internal_;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.darkest.Darkest;
+import ddmodstool.core.game.base.file.darkest.Darkest.Item;
+import ddmodstool.core.game.base.file.darkest.Darkest.Line;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestSource_.ItemSpan;
+import ddmodstool.core.game.base.file.darkest._internal_._DarkestSource_.LineSpan;
+import ddmodstool.core.lang.util.IO;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * [ *.darkest ] writer.
+ *
+ * <p>If the source is retained, unchanged lines and items are copied byte for byte together with
+ * the whitespace and comments around them, only changed items are serialized again, and new
+ * lines are appended at the end.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _DarkestWriter_ extends BufferedOutputStream {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // the file is replaced once written, see IO#replace
+  public static void write(Path path, Darkest darkest, _DarkestSource_ source) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      IO.replace(absPath, channel -> {
+        // the channel is closed by the caller, so the writer is only flushed
+        new _DarkestWriter_(Channels.newOutputStream(channel), darkest, source).flush();
+      });
+    } catch (Exception e) {
+      throw LocX.of(e).with("Darkest#path", absPath);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final byte[] lineSeparator;
+  // last byte written, used to decide whether appended lines need a leading line separator
+  private int lastByte = '\n';
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void writeWithSource(_DarkestSource_ source, Set<Line> lineSet) throws IOException {
+    byte[] bytes = source.getBytes();
+    int cursor = 0;
+    for (Line line : source.getLineList()) {
+      LineSpan lineSpan = source.getLineSpan(line);
+      writeBytes(bytes, cursor, lineSpan.start());
+      if (lineSet.remove(line)) {
+        writeLine(line, lineSpan, source);
+        cursor = lineSpan.end();
+      } else {
+        // the line is removed, together with the rest of its physical line
+        cursor = lineSpan.end();
+        while ((cursor < bytes.length) && (bytes[cursor] != '\n') && (bytes[cursor] != '\r')) {
+          cursor++;
+        }
+        if ((cursor < bytes.length) && (bytes[cursor] == '\r')) {
+          cursor++;
+        }
+        if ((cursor < bytes.length) && (bytes[cursor] == '\n')) {
+          cursor++;
+        }
+      }
+    }
+    writeBytes(bytes, cursor, bytes.length);
+  }
+
+  private void writeLine(Line line, LineSpan lineSpan, _DarkestSource_ source)
+      throws IOException {
+    byte[] bytes = source.getBytes();
+    if (lineSpan.isUnchanged(line, source)) {
+      writeBytes(bytes, lineSpan.start(), lineSpan.end());
+      return;
+    }
+    if (lineSpan.type().equals(line.getType())) {
+      writeBytes(bytes, lineSpan.start(), lineSpan.headerEnd());
+    } else {
+      writeString(line.reqType());
+      writeByte(':');
+    }
+    for (Item item : line.reqItemMap().values()) {
+      ItemSpan itemSpan = source.getItemSpan(item);
+      if ((itemSpan == null) || (itemSpan.line() != line)) {
+        // the item is new or merged from another line
+        writeByte(' ');
+        writeItem(item, itemSpan);
+      } else {
+        writeBytes(bytes, itemSpan.gapStart(), itemSpan.start());
+        if (itemSpan.isUnchanged(item)) {
+          writeBytes(bytes, itemSpan.start(), itemSpan.end());
+        } else {
+          writeItem(item, itemSpan);
+        }
+      }
+    }
+  }
+
+  private void writeLine(Line line) throws IOException {
+    writeString(line.reqType());
+    writeByte(':');
+    for (Item item : line.reqItemMap().values()) {
+      writeByte(' ');
+      writeItem(item, null);
+    }
+  }
+
+  private void writeItem(Item item, ItemSpan itemSpan) throws IOException {
+    writeByte('.');
+    writeString(item.reqName());
+    List<String> valueList = item.reqValueList();
+    for (int i = 0; i < valueList.size(); i++) {
+      String value = valueList.get(i);
+      writeByte(' ');
+      if (((itemSpan != null) && itemSpan.isQuoted(i)) || isQuotingRequired(value)) {
+        writeByte('"');
+        writeString(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        writeByte('"');
+      } else {
+        writeString(value);
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private void writeBytes(byte[] bytes, int start, int end) throws IOException {
+    if (start < end) {
+      write(bytes, start, end - start);
+      lastByte = bytes[end - 1];
+    }
+  }
+
+  private void writeString(String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    writeBytes(bytes, 0, bytes.length);
+  }
+
+  private void writeByte(int b) throws IOException {
+    write(b);
+    lastByte = b;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _DarkestWriter_(OutputStream output, Darkest darkest, _DarkestSource_ source)
+      throws IOException {
+    super(output);
+    this.lineSeparator = ((source != null) && isCrlfUsed(source.getBytes())) ?
+        new byte[]{'\r', '\n'} : new byte[]{'\n'};
+    Set<Line> lineSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (List<Line> lineList : darkest.reqLineListMap().values()) {
+      lineSet.addAll(lineList);
+    }
+    // --- do write ---
+    if (source != null) {
+      writeWithSource(source, lineSet);
+    }
+    // lines not found in the source are written in the order of the line list map
+    Set<Line> newLineSet = new LinkedHashSet<>();
+    for (List<Line> lineList : darkest.reqLineListMap().values()) {
+      for (Line line : lineList) {
+        if (lineSet.contains(line)) {
+          newLineSet.add(line);
+        }
+      }
+    }
+    for (Line line : newLineSet) {
+      if ((lastByte != '\n') && (lastByte != '\r')) {
+        writeBytes(lineSeparator, 0, lineSeparator.length);
+      }
+      writeLine(line);
+      writeBytes(lineSeparator, 0, lineSeparator.length);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static boolean isCrlfUsed(byte[] bytes) {
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == '\n') {
+        return (i > 0) && (bytes[i - 1] == '\r');
+      }
+    }
+    return false;
+  }
+
+  private static boolean isQuotingRequired(String value) {
+    if (value.isEmpty()) {
+      return true;
+    }
+    char first = value.charAt(0);
+    if ((first == '"') || (first == '.') || (first == '/')) {
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (Character.isWhitespace(value.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
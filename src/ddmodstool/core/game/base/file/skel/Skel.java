@@ -19,9 +19,11 @@ package ddmodstool.core.game.base.file.skel;
 import com.alibaba.fastjson2.JSONObject;
 import ddmodstool.core.game.base.data.localization.LocX;
 import ddmodstool.core.game.base.file.skel._internal_._SkelReader_;
+import ddmodstool.core.game.base.file.skel._internal_._SkelRenamer_;
 import ddmodstool.core.game.base.file.skel._internal_._SkelWriter_;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.UnaryOperator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -47,6 +49,16 @@ public final class Skel extends JSONObject {
     _SkelWriter_.write(path, skel);
   }
 
+  /**
+   * Renames animations of the skel in place without decoding it, names mapped to null or to
+   * themselves are kept.
+   *
+   * @return the number of renamed animations
+   */
+  public static int renameAnimations(Path path, UnaryOperator<String> renamer) {
+    return _SkelRenamer_.rename(path, renamer);
+  }
+
   // ---------------------------------------------------------------------------------------------
   // ---------------------------------------------------------------------------------------------
 
@@ -0,0 +1,119 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel._internal_._SkelBatch_;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * [ *.skel ] batch, skels under a directory tree are read, transformed and written concurrently.
+ *
+ * <p>Skels are read lazily, so transforms touching nothing but animation names never decode
+ * timelines, and renaming animations splices the new names into the files without reading them
+ * as skels at all. A failed skel is reported without aborting the others.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SkelBatch {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Runs the transform over every skel under the dir, progress is reported by
+   * {@link ddmodstool.core.lang.awt.JLoading#message(String)}.
+   */
+  public static Report run(Path dir, Transform transform) {
+    return _SkelBatch_.run(dir, transform);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  @FunctionalInterface
+  public interface Transform {
+
+    /**
+     * Transforms the skel, it is written back if and only if {@code true} is returned.
+     */
+    boolean apply(SkelData skel) throws Exception;
+
+    /**
+     * Transforms the skel file, by default it is read lazily, transformed by
+     * {@link #apply(SkelData)} and written back if changed.
+     *
+     * @return whether the file is changed
+     */
+    default boolean apply(Path path) throws Exception {
+      SkelData skel = SkelData.read(path, true);
+      if (!apply(skel)) {
+        return false;
+      }
+      SkelData.write(path, skel);
+      return true;
+    }
+
+    // -------------------------------------------------------------------------------------------
+
+    // the names are spliced into the files, see Skel#renameAnimations(Path, UnaryOperator)
+    static Transform renameAnimation(String name, String newName) {
+      UnaryOperator<String> renamer = animationName ->
+          name.equals(animationName) ? newName : null;
+      return new Transform() {
+        @Override
+        public boolean apply(SkelData skel) {
+          boolean changed = false;
+          for (SkelData.Animation animation : skel.reqAnimationList()) {
+            String renamed = renamer.apply(animation.getName());
+            if (renamed != null) {
+              animation.setName(renamed);
+              changed = true;
+            }
+          }
+          return changed;
+        }
+
+        @Override
+        public boolean apply(Path path) {
+          return Skel.renameAnimations(path, renamer) != 0;
+        }
+      };
+    }
+
+    static Transform removeAnimations(Predicate<String> namePredicate) {
+      return skel -> skel.reqAnimationList().removeIf(
+          animation -> namePredicate.test(animation.getName()));
+    }
+
+  }
+
+  // failureList holds failures in the order of skel paths
+  public record Report(int skelN, int changedN, List<LocX> failureList) {
+
+  }
+
+}
@@ -0,0 +1,635 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel._internal_._SkelDataAdapter_;
+import ddmodstool.core.game.base.file.skel._internal_._SkelDataBytes_;
+import ddmodstool.core.game.base.file.skel._internal_._SkelDataReader_;
+import ddmodstool.core.game.base.file.skel._internal_._SkelDataWriter_;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * [ {owner}.sprite.{ident}.skel ] typed object.
+ *
+ * <p>Unlike {@link Skel}, numbers are never boxed: leaves are records of primitives, and frames
+ * of a timeline are stored as parallel primitive arrays indexed by frame.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@Getter
+@Setter
+public final class SkelData {
+
+  public static final byte ATTACHMENT_REGION = 0;
+  public static final byte ATTACHMENT_BOUNDING_BOX = 1;
+  public static final byte ATTACHMENT_MESH = 2;
+  public static final byte ATTACHMENT_SKINNED_MESH = 3;
+
+  public static final byte TIMELINE_SCALE = 0;
+  public static final byte TIMELINE_ROTATE = 1;
+  public static final byte TIMELINE_TRANSLATE = 2;
+  public static final byte TIMELINE_ATTACHMENT = 3;
+  public static final byte TIMELINE_COLOR = 4;
+  public static final byte TIMELINE_FLIP_X = 5;
+  public static final byte TIMELINE_FLIP_Y = 6;
+
+  public static final byte CURVE_LINEAR = 0;
+  public static final byte CURVE_STEPPED = 1;
+  public static final byte CURVE_BEZIER = 2;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static SkelData read(Path path) {
+    return _SkelDataReader_.read(path, false, false);
+  }
+
+  /**
+   * Reads the skel, if lazy, only names of animations are decoded, everything else is kept as
+   * bytes, decoded on first access, and written back as is while untouched.
+   *
+   * <p>Decoding on first access is synchronized, so a lazily read skel can be read by multiple
+   * threads. A failed decoding keeps the bytes and is tried again on next access.
+   */
+  public static SkelData read(Path path, boolean lazy) {
+    return _SkelDataReader_.read(path, lazy, false);
+  }
+
+  /**
+   * Reads the skel, if arrays are shared, uvs, triangles and vertices of meshes and vertices of
+   * ffd frames identical to ones of other skels read so are the same arrays, they must not be
+   * modified.
+   */
+  public static SkelData read(Path path, boolean lazy, boolean arraysShared) {
+    return _SkelDataReader_.read(path, lazy, arraysShared);
+  }
+
+  public static void write(Path path, SkelData skel) {
+    _SkelDataWriter_.write(path, skel);
+  }
+
+  public static SkelData of(Skel skel) {
+    return _SkelDataAdapter_.toSkelData(skel);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private Path path;
+
+  private String owner;
+  private String ident;
+
+  private String hash;
+  private String version;
+  private float width;
+  private float height;
+  private boolean nonessential;
+  // null if not nonessential
+  private String imagesPath;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<Bone> boneList;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<Ik> ikList;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<Slot> slotList;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private Skin defaultSkin;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<Skin> skinList;
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private List<Event> eventList;
+  private List<Animation> animationList;
+
+  // bones, iks, slots, skins and events not decoded yet, null if read eagerly or decoded
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private volatile ByteBuffer setupBytes;
+  // true if arrays may be shared with other skels, see #read(Path, boolean, boolean)
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean arraysShared;
+  // true while the setup bytes are decoded, by the setters called back
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean setupDecoding;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public Path reqPath() {
+    Path path = this.path;
+    if (path == null) {
+      throw LocX.of("Skel!Uninitialized");
+    }
+    return path;
+  }
+
+  public String reqOwner() {
+    String owner = this.owner;
+    if (owner == null) {
+      throw LocX.of("Skel!Uninitialized");
+    }
+    return owner;
+  }
+
+  public String reqIdent() {
+    String ident = this.ident;
+    if (ident == null) {
+      throw LocX.of("Skel!Uninitialized");
+    }
+    return ident;
+  }
+
+  public List<Animation> reqAnimationList() {
+    List<Animation> animationList = this.animationList;
+    if (animationList == null) {
+      throw LocX.of("Skel!Uninitialized");
+    }
+    return animationList;
+  }
+
+  public List<String> reqAnimationNameList() {
+    return reqAnimationList().stream().map(Animation::reqName).toList();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  public List<Bone> getBoneList() {
+    load();
+    return boneList;
+  }
+
+  public void setBoneList(List<Bone> boneList) {
+    load();
+    this.boneList = boneList;
+  }
+
+  public List<Ik> getIkList() {
+    load();
+    return ikList;
+  }
+
+  public void setIkList(List<Ik> ikList) {
+    load();
+    this.ikList = ikList;
+  }
+
+  public List<Slot> getSlotList() {
+    load();
+    return slotList;
+  }
+
+  public void setSlotList(List<Slot> slotList) {
+    load();
+    this.slotList = slotList;
+  }
+
+  public Skin getDefaultSkin() {
+    load();
+    return defaultSkin;
+  }
+
+  public void setDefaultSkin(Skin defaultSkin) {
+    load();
+    this.defaultSkin = defaultSkin;
+  }
+
+  public List<Skin> getSkinList() {
+    load();
+    return skinList;
+  }
+
+  public void setSkinList(List<Skin> skinList) {
+    load();
+    this.skinList = skinList;
+  }
+
+  public List<Event> getEventList() {
+    load();
+    return eventList;
+  }
+
+  public void setEventList(List<Event> eventList) {
+    load();
+    this.eventList = eventList;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Returns the JSON view of this skel, for callers of {@link Skel}.
+   */
+  public Skel toSkel() {
+    return _SkelDataAdapter_.toSkel(this);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void load() {
+    if (setupBytes != null) {
+      decodeSetup();
+    }
+  }
+
+  private synchronized void decodeSetup() {
+    ByteBuffer setupBytes = this.setupBytes;
+    if ((setupBytes == null) || setupDecoding) {
+      // decoded by another thread, or called back by the setters decoding it
+      return;
+    }
+    setupDecoding = true;
+    try {
+      _SkelDataReader_.readSetup(this, setupBytes.duplicate(), arraysShared);
+      // cleared once decoded, so that a failed decoding is tried again
+      this.setupBytes = null;
+    } finally {
+      setupDecoding = false;
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // StaticBlock
+  // ---------------------------------------------------------------------------------------------
+
+  static {
+    _SkelDataBytes_.install(new _SkelDataBytes_() {
+      @Override
+      public ByteBuffer getSetupBytes(SkelData skel) {
+        return skel.setupBytes;
+      }
+
+      @Override
+      public void setSetupBytes(SkelData skel, ByteBuffer setupBytes, boolean arraysShared) {
+        skel.arraysShared = arraysShared;
+        skel.setupBytes = setupBytes;
+      }
+
+      @Override
+      public ByteBuffer getBodyBytes(Animation animation) {
+        return animation.bodyBytes;
+      }
+
+      @Override
+      public void setBodyBytes(Animation animation, ByteBuffer bodyBytes, boolean arraysShared) {
+        animation.arraysShared = arraysShared;
+        animation.bodyBytes = bodyBytes;
+      }
+    });
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  // color is meaningful only if nonessential
+  public record Bone(
+      String name, int parentId,
+      float x, float y, float scaleX, float scaleY, float rotation, float length,
+      boolean flipX, boolean flipY, boolean inheritScale, boolean inheritRotation,
+      int color) {
+
+  }
+
+  public record Ik(
+      String name, int[] boneIndexArray, int targetBoneIndex, float mix, byte bendDirection) {
+
+  }
+
+  public record Slot(
+      String name, int boneIndex, int color, String attachmentName, int blendMode) {
+
+  }
+
+  public record Skin(String name, List<SkinSlot> slotList) {
+
+  }
+
+  public record SkinSlot(int index, List<Attachment> attachmentList) {
+
+  }
+
+  /**
+   * Attachment of any type, fields not used by the type are zero or null.
+   *
+   * <p>For {@link #ATTACHMENT_SKINNED_MESH}, {@code vertexArray} holds the raw weighted vertices:
+   * for each vertex, the bone count followed by (boneIndex, x, y, weight) of each bone. The hull
+   * length is {@code hullLengthX * 2}, edges, width and height of meshes are meaningful only if
+   * nonessential.
+   */
+  public record Attachment(
+      String name1, String name2, byte type, String path,
+      float x, float y, float scaleX, float scaleY, float rotation, float width, float height,
+      int color, float[] regionUVArray, short[] triangleArray, float[] vertexArray,
+      int hullLengthX, int[] edgeArray) {
+
+  }
+
+  // intValue = ((intValueX >>> 1) ^ -(intValueX & 1))
+  public record Event(String name, int intValueX, float floatValue, String stringValue) {
+
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  @Getter
+  @Setter
+  public static final class Animation {
+
+    private String name;
+    // slot index -> color & attachment timelines
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<TimelineGroup> slotList;
+    // bone index -> rotate & translate & scale & flip timelines
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<TimelineGroup> boneList;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<IkTimeline> ikTimelineList;
+    // skin index -> slot index -> ffd timelines
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private List<FfdSkin> ffdList;
+    // null if absent
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DrawOrderTimeline drawOrderTimeline;
+    // null if absent
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EventTimeline eventTimeline;
+
+    // timelines not decoded yet (the bytes following the name), null if read eagerly or decoded
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile ByteBuffer bodyBytes;
+    // true if arrays may be shared with other skels, see SkelData#read(Path, boolean, boolean)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean arraysShared;
+    // true while the body bytes are decoded, by the setters called back
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean bodyDecoding;
+
+    // -----------------------------------------------------------------------------------------
+    // PublicMethods
+    // -----------------------------------------------------------------------------------------
+
+    public String reqName() {
+      String name = this.name;
+      if (name == null) {
+        throw LocX.of("Skel!Uninitialized");
+      }
+      return name;
+    }
+
+    /**
+     * Returns a copy sharing timelines (and the bytes, if not decoded yet) with this animation.
+     */
+    public synchronized Animation copy() {
+      Animation copy = new Animation();
+      copy.name = name;
+      copy.arraysShared = arraysShared;
+      // synchronized with the decoding, so either the bytes or the decoded lists are copied
+      ByteBuffer bodyBytes = this.bodyBytes;
+      if (bodyBytes != null) {
+        copy.bodyBytes = bodyBytes.duplicate();
+      } else {
+        copy.slotList = (slotList == null) ? null : new ArrayList<>(slotList);
+        copy.boneList = (boneList == null) ? null : new ArrayList<>(boneList);
+        copy.ikTimelineList = (ikTimelineList == null) ? null : new ArrayList<>(ikTimelineList);
+        copy.ffdList = (ffdList == null) ? null : new ArrayList<>(ffdList);
+        copy.drawOrderTimeline = drawOrderTimeline;
+        copy.eventTimeline = eventTimeline;
+      }
+      return copy;
+    }
+
+    // -----------------------------------------------------------------------------------------
+
+    public List<TimelineGroup> getSlotList() {
+      load();
+      return slotList;
+    }
+
+    public void setSlotList(List<TimelineGroup> slotList) {
+      load();
+      this.slotList = slotList;
+    }
+
+    public List<TimelineGroup> getBoneList() {
+      load();
+      return boneList;
+    }
+
+    public void setBoneList(List<TimelineGroup> boneList) {
+      load();
+      this.boneList = boneList;
+    }
+
+    public List<IkTimeline> getIkTimelineList() {
+      load();
+      return ikTimelineList;
+    }
+
+    public void setIkTimelineList(List<IkTimeline> ikTimelineList) {
+      load();
+      this.ikTimelineList = ikTimelineList;
+    }
+
+    public List<FfdSkin> getFfdList() {
+      load();
+      return ffdList;
+    }
+
+    public void setFfdList(List<FfdSkin> ffdList) {
+      load();
+      this.ffdList = ffdList;
+    }
+
+    public DrawOrderTimeline getDrawOrderTimeline() {
+      load();
+      return drawOrderTimeline;
+    }
+
+    public void setDrawOrderTimeline(DrawOrderTimeline drawOrderTimeline) {
+      load();
+      this.drawOrderTimeline = drawOrderTimeline;
+    }
+
+    public EventTimeline getEventTimeline() {
+      load();
+      return eventTimeline;
+    }
+
+    public void setEventTimeline(EventTimeline eventTimeline) {
+      load();
+      this.eventTimeline = eventTimeline;
+    }
+
+    // -----------------------------------------------------------------------------------------
+    // PrivateMethods
+    // -----------------------------------------------------------------------------------------
+
+    private void load() {
+      if (bodyBytes != null) {
+        decodeBody();
+      }
+    }
+
+    // same as SkelData#decodeSetup()
+    private synchronized void decodeBody() {
+      ByteBuffer bodyBytes = this.bodyBytes;
+      if ((bodyBytes == null) || bodyDecoding) {
+        return;
+      }
+      bodyDecoding = true;
+      try {
+        _SkelDataReader_.readAnimationBody(this, bodyBytes.duplicate(), arraysShared);
+        this.bodyBytes = null;
+      } finally {
+        bodyDecoding = false;
+      }
+    }
+
+  }
+
+  public record TimelineGroup(int index, List<Timeline> timelineList) {
+
+  }
+
+  public record FfdSkin(int index, List<FfdSlot> slotList) {
+
+  }
+
+  public record FfdSlot(int index, List<FfdTimeline> timelineList) {
+
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Timeline of a slot or a bone, frame {@code i} is described by the i-th element of each
+   * array.
+   */
+  public sealed interface Timeline {
+
+    byte type();
+
+    float[] timeArray();
+
+  }
+
+  /**
+   * Curves between frames, the curve from frame {@code i} to frame {@code i + 1} is
+   * {@code typeArray[i]}, and if bezier, its control points are
+   * {@code bezierArray[i * 4 .. i * 4 + 3]} as (cx1, cy1, cx2, cy2).
+   */
+  public record Curves(byte[] typeArray, float[] bezierArray) {
+
+  }
+
+  public record ColorTimeline(float[] timeArray, int[] colorArray, Curves curves)
+      implements Timeline {
+
+    @Override
+    public byte type() {
+      return TIMELINE_COLOR;
+    }
+
+  }
+
+  public record AttachmentTimeline(float[] timeArray, String[] attachmentNameArray)
+      implements Timeline {
+
+    @Override
+    public byte type() {
+      return TIMELINE_ATTACHMENT;
+    }
+
+  }
+
+  public record RotateTimeline(float[] timeArray, float[] angleArray, Curves curves)
+      implements Timeline {
+
+    @Override
+    public byte type() {
+      return TIMELINE_ROTATE;
+    }
+
+  }
+
+  // translate or scale, frame i is (xyArray[i * 2], xyArray[i * 2 + 1])
+  public record VectorTimeline(byte type, float[] timeArray, float[] xyArray, Curves curves)
+      implements Timeline {
+
+  }
+
+  // flip x or flip y
+  public record FlipTimeline(byte type, float[] timeArray, boolean[] flipArray)
+      implements Timeline {
+
+  }
+
+  public record IkTimeline(
+      int ikIndex, float[] timeArray, float[] mixArray, byte[] bendDirectionArray,
+      Curves curves) {
+
+  }
+
+  // vertexArray2d[i] is empty if frame i has no vertices, otherwise starts at startArray[i]
+  public record FfdTimeline(
+      String attachmentName, float[] timeArray, int[] startArray, float[][] vertexArray2d,
+      Curves curves) {
+
+  }
+
+  // offsetArray2d[i] holds (slotIndex, offset) pairs of frame i
+  public record DrawOrderTimeline(float[] timeArray, int[][] offsetArray2d) {
+
+  }
+
+  // intValue = ((intValueX >>> 1) ^ -(intValueX & 1))
+  public record EventTimeline(
+      float[] timeArray, int[] eventIndexArray, int[] intValueXArray, float[] floatValueArray,
+      boolean[] hasStringValueArray, String[] stringValueArray) {
+
+  }
+
+}
@@ -0,0 +1,498 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.atlas.Atlas;
+import ddmodstool.core.game.base.file.atlas.Atlas.Page;
+import ddmodstool.core.game.base.file.atlas.Atlas.Region;
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import ddmodstool.core.game.base.file.skel.SkelData.Attachment;
+import ddmodstool.core.game.base.file.skel.SkelData.Slot;
+import ddmodstool.core.lang.util.IO;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * [ *.skel ] renderer, draws region and mesh attachments of a skel posed by a {@link SkelSampler}
+ * into a reused image, no display is needed.
+ *
+ * <p>Pages are converted once into premultiplied images, regions drawn upright are cut out (and
+ * rotated back if packed rotated) once as well. Slot colors tint only the alpha, and additive
+ * blending is drawn as normal blending.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class SkelRenderer {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Returns a renderer of the skel with the atlas next to it ({@code xxx.sprite.yyy.atlas}).
+   */
+  public static SkelRenderer of(SkelData skel, int width, int height) {
+    String atlasName = skel.reqOwner() + ".sprite." + skel.reqIdent() + ".atlas";
+    Atlas atlas = Atlas.read(skel.reqPath().resolveSibling(atlasName));
+    return new SkelRenderer(skel, atlas, width, height);
+  }
+
+  /**
+   * Renders frames evenly spaced over the animation into a sprite sheet, row by row, and writes
+   * it as png. The frame count, column count and frame size must be positive.
+   */
+  public static void exportSheet(
+      Path skelPath, String animationName, int frameN, int columnN,
+      int frameWidth, int frameHeight, Path pngPath) {
+    checkSheetArgument("frameN", frameN);
+    checkSheetArgument("columnN", columnN);
+    checkSheetArgument("frameWidth", frameWidth);
+    checkSheetArgument("frameHeight", frameHeight);
+    int rowN = (frameN + columnN - 1) / columnN;
+    if (((long) columnN * frameWidth) * ((long) rowN * frameHeight) > Integer.MAX_VALUE) {
+      throw LocX.of("Skel!InvalidSheetArgument")
+          .with("Skel#sheetArgument", "columnN * frameWidth * rowN * frameHeight")
+          .with("txt[Expect]", "<= " + Integer.MAX_VALUE)
+          .with("txt[Actual]", ((long) columnN * frameWidth) * ((long) rowN * frameHeight));
+    }
+    SkelData skel = SkelData.read(skelPath, true);
+    Animation animation = skel.reqAnimationList().stream()
+        .filter(anim -> animationName.equals(anim.getName()))
+        .findFirst()
+        .orElseThrow(() -> LocX.of("Skel!MissingAnimation")
+            .with("Skel#path", skel.getPath())
+            .with("Skel#animationName", animationName));
+    SkelRenderer renderer = SkelRenderer.of(skel, frameWidth, frameHeight);
+    renderer.fit(animation);
+    BufferedImage sheet = new BufferedImage(
+        columnN * frameWidth, rowN * frameHeight, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = sheet.createGraphics();
+    try {
+      float duration = SkelSampler.duration(animation);
+      for (int i = 0; i < frameN; i++) {
+        BufferedImage frame = renderer.render(animation, (duration * i) / frameN);
+        g.drawImage(frame, (i % columnN) * frameWidth, (i / columnN) * frameHeight, null);
+      }
+    } finally {
+      g.dispose();
+    }
+    IO.writeImage(pngPath, sheet);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private static final int FIT_SAMPLE_N = 30;
+
+  @Getter
+  private final SkelSampler sampler;
+  // the image every render draws into
+  @Getter
+  private final BufferedImage image;
+
+  private final List<Slot> slotList;
+  private final Atlas atlas;
+  private final Map<Page, BufferedImage> pageImageMap = new HashMap<>();
+  // region -> the region cut out of the page upright
+  private final Map<Region, BufferedImage> regionImageMap = new HashMap<>();
+  // region -> the region as packed in the page
+  private final Map<Region, BufferedImage> packedImageMap = new HashMap<>();
+
+  // skel (x, y) is drawn at (originX + x * scale, originY - y * scale)
+  private float scale = 1;
+  private float originX;
+  private float originY;
+
+  // world vertices of the attachment being drawn
+  private float[] vertexArray = new float[8];
+  private final Path2D.Float triangle = new Path2D.Float();
+  private final AffineTransform transform = new AffineTransform();
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Scales and centers the skel so that every frame of the animation (the setup pose if null)
+   * fits in the image.
+   */
+  public void fit(Animation animation) {
+    float minX = Float.POSITIVE_INFINITY;
+    float minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY;
+    float maxY = Float.NEGATIVE_INFINITY;
+    float duration = (animation == null) ? 0 : SkelSampler.duration(animation);
+    int sampleN = (duration == 0) ? 1 : FIT_SAMPLE_N;
+    for (int s = 0; s < sampleN; s++) {
+      if (animation == null) {
+        sampler.sampleSetup();
+      } else {
+        sampler.sample(animation, (duration * s) / sampleN);
+      }
+      for (int slot = 0, n = sampler.getSlotN(); slot < n; slot++) {
+        Attachment attachment = sampler.getAttachment(slot);
+        int vertexN = (attachment == null) ? 0 : computeVertices(slot, attachment);
+        for (int i = 0; i < vertexN; i += 2) {
+          minX = Math.min(minX, vertexArray[i]);
+          maxX = Math.max(maxX, vertexArray[i]);
+          minY = Math.min(minY, vertexArray[i + 1]);
+          maxY = Math.max(maxY, vertexArray[i + 1]);
+        }
+      }
+    }
+    int width = image.getWidth();
+    int height = image.getHeight();
+    if (minX > maxX) {
+      scale = 1;
+      originX = width / 2f;
+      originY = height / 2f;
+      return;
+    }
+    // a little margin around
+    scale = 0.9f * Math.min(width / Math.max(maxX - minX, 1), height / Math.max(maxY - minY, 1));
+    originX = (width / 2f) - (((minX + maxX) / 2) * scale);
+    originY = (height / 2f) + (((minY + maxY) / 2) * scale);
+  }
+
+  /**
+   * Renders the animation at the time (the setup pose if the animation is null) into the image.
+   */
+  public BufferedImage render(Animation animation, float time) {
+    if (animation == null) {
+      sampler.sampleSetup();
+    } else {
+      sampler.sample(animation, time);
+    }
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setComposite(AlphaComposite.Clear);
+      g.fillRect(0, 0, image.getWidth(), image.getHeight());
+      g.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      for (int i = 0, n = sampler.getSlotN(); i < n; i++) {
+        int slot = sampler.getDrawOrder(i);
+        Attachment attachment = sampler.getAttachment(slot);
+        if (attachment == null) {
+          continue;
+        }
+        Region region = atlas.reqRegionMap().get(regionName(attachment));
+        float alpha = sampler.getColorA(slot) * ((attachment.color() & 0xFF) / 255f);
+        if ((region == null) || (alpha <= 0)) {
+          continue;
+        }
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.min(alpha, 1)));
+        switch (attachment.type()) {
+          case SkelData.ATTACHMENT_REGION -> drawRegion(g, slot, attachment, region);
+          case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH ->
+              drawMesh(g, slot, attachment, region);
+          default -> {
+            // bounding boxes are invisible
+          }
+        }
+      }
+    } finally {
+      g.dispose();
+    }
+    return image;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public SkelRenderer(SkelData skel, Atlas atlas, int width, int height) {
+    this.sampler = new SkelSampler(skel);
+    this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    this.slotList = skel.getSlotList();
+    this.atlas = atlas;
+    for (Page page : atlas.reqPageList()) {
+      BufferedImage pageImage;
+      try {
+        pageImage = IO.readImage(page.getPath());
+        // null if no image reader supports the file
+        if (pageImage == null) {
+          throw LocX.of("Atlas!UnreadablePageImage")
+              .with("Atlas#path", atlas.getPath())
+              .with("Atlas#pagePath", page.getPath());
+        }
+      } catch (LocX e) {
+        throw e;
+      } catch (Exception e) {
+        throw LocX.of(e).with("Atlas#path", atlas.getPath()).with("Atlas#pagePath", page.getPath());
+      }
+      pageImageMap.put(page, premultiplied(pageImage));
+    }
+    this.originX = width / 2f;
+    this.originY = height / 2f;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void drawRegion(Graphics2D g, int slot, Attachment attachment, Region region) {
+    computeVertices(slot, attachment, region);
+    BufferedImage regionImage = regionImageMap.computeIfAbsent(region, this::cutRegion);
+    float w = region.getWidth();
+    float h = region.getHeight();
+    // vertices are (bottom left, top left, top right, bottom right), the image starts top left
+    float tlX = screenX(vertexArray[2]);
+    float tlY = screenY(vertexArray[3]);
+    transform.setTransform(
+        (screenX(vertexArray[4]) - tlX) / w, (screenY(vertexArray[5]) - tlY) / w,
+        (screenX(vertexArray[0]) - tlX) / h, (screenY(vertexArray[1]) - tlY) / h,
+        tlX, tlY);
+    g.drawImage(regionImage, transform, null);
+  }
+
+  private void drawMesh(Graphics2D g, int slot, Attachment attachment, Region region) {
+    computeVertices(slot, attachment);
+    BufferedImage packedImage = packedImageMap.computeIfAbsent(region, this::cutPacked);
+    // region uvs are relative to the region as packed
+    boolean rotate = region.isRotate();
+    float packedW = rotate ? region.getHeight() : region.getWidth();
+    float packedH = rotate ? region.getWidth() : region.getHeight();
+    float[] uvArray = attachment.regionUVArray();
+    short[] triangleArray = attachment.triangleArray();
+    for (int t = 0; t < triangleArray.length; t += 3) {
+      int a = triangleArray[t] << 1;
+      int b = triangleArray[t + 1] << 1;
+      int c = triangleArray[t + 2] << 1;
+      float u0 = packedU(uvArray, a, packedW, rotate);
+      float v0 = packedV(uvArray, a, packedH, rotate);
+      float du1 = packedU(uvArray, b, packedW, rotate) - u0;
+      float dv1 = packedV(uvArray, b, packedH, rotate) - v0;
+      float du2 = packedU(uvArray, c, packedW, rotate) - u0;
+      float dv2 = packedV(uvArray, c, packedH, rotate) - v0;
+      float det = (du1 * dv2) - (du2 * dv1);
+      if (Math.abs(det) < 1e-6f) {
+        continue;
+      }
+      float x0 = screenX(vertexArray[a]);
+      float y0 = screenY(vertexArray[a + 1]);
+      float x1 = screenX(vertexArray[b]);
+      float y1 = screenY(vertexArray[b + 1]);
+      float x2 = screenX(vertexArray[c]);
+      float y2 = screenY(vertexArray[c + 1]);
+      float dx1 = x1 - x0;
+      float dy1 = y1 - y0;
+      float dx2 = x2 - x0;
+      float dy2 = y2 - y0;
+      // maps (du1, dv1) -> (dx1, dy1) and (du2, dv2) -> (dx2, dy2)
+      float m00 = ((dx1 * dv2) - (dx2 * dv1)) / det;
+      float m01 = ((dx2 * du1) - (dx1 * du2)) / det;
+      float m10 = ((dy1 * dv2) - (dy2 * dv1)) / det;
+      float m11 = ((dy2 * du1) - (dy1 * du2)) / det;
+      transform.setTransform(
+          m00, m10, m01, m11, x0 - (m00 * u0) - (m01 * v0), y0 - (m10 * u0) - (m11 * v0));
+      triangle.reset();
+      triangle.moveTo(x0, y0);
+      triangle.lineTo(x1, y1);
+      triangle.lineTo(x2, y2);
+      triangle.closePath();
+      g.setClip(triangle);
+      g.drawImage(packedImage, transform, null);
+    }
+    g.setClip(null);
+  }
+
+  // fills world vertices of the attachment, returns the number of floats filled
+  private int computeVertices(int slot, Attachment attachment) {
+    return switch (attachment.type()) {
+      case SkelData.ATTACHMENT_REGION -> {
+        Region region = atlas.reqRegionMap().get(regionName(attachment));
+        yield (region == null) ? 0 : computeVertices(slot, attachment, region);
+      }
+      case SkelData.ATTACHMENT_MESH -> {
+        float[] localArray = sampler.getFfd(slot);
+        if (localArray == null) {
+          localArray = attachment.vertexArray();
+        }
+        int bone = slotList.get(slot).boneIndex();
+        float[] vertexArray = vertexArray(localArray.length);
+        for (int i = 0; i < localArray.length; i += 2) {
+          float x = localArray[i];
+          float y = localArray[i + 1];
+          vertexArray[i] = worldX(bone, x, y);
+          vertexArray[i + 1] = worldY(bone, x, y);
+        }
+        yield localArray.length;
+      }
+      case SkelData.ATTACHMENT_SKINNED_MESH -> {
+        float[] weightArray = attachment.vertexArray();
+        float[] ffdArray = sampler.getFfd(slot);
+        int vertexN = 0;
+        for (int i = 0; i < weightArray.length; ) {
+          i += 1 + (((int) weightArray[i]) << 2);
+          vertexN++;
+        }
+        float[] vertexArray = vertexArray(vertexN << 1);
+        for (int i = 0, v = 0, f = 0; i < weightArray.length; v += 2) {
+          float wx = 0;
+          float wy = 0;
+          for (int n = (int) weightArray[i++]; n > 0; n--, i += 4, f += 2) {
+            int bone = (int) weightArray[i];
+            float x = weightArray[i + 1];
+            float y = weightArray[i + 2];
+            if (ffdArray != null) {
+              x += ffdArray[f];
+              y += ffdArray[f + 1];
+            }
+            float weight = weightArray[i + 3];
+            wx += worldX(bone, x, y) * weight;
+            wy += worldY(bone, x, y) * weight;
+          }
+          vertexArray[v] = wx;
+          vertexArray[v + 1] = wy;
+        }
+        yield vertexN << 1;
+      }
+      default -> 0;
+    };
+  }
+
+  // corners of a region attachment as spine 2.1 RegionAttachment#updateOffset computes them
+  private int computeVertices(int slot, Attachment attachment, Region region) {
+    float regionScaleX = (attachment.width() / region.getOriginalWidth()) * attachment.scaleX();
+    float regionScaleY = (attachment.height() / region.getOriginalHeight()) * attachment.scaleY();
+    float localX = ((-attachment.width() / 2) * attachment.scaleX())
+        + (region.getOffsetX() * regionScaleX);
+    float localY = ((-attachment.height() / 2) * attachment.scaleY())
+        + (region.getOffsetY() * regionScaleY);
+    float localX2 = localX + (region.getWidth() * regionScaleX);
+    float localY2 = localY + (region.getHeight() * regionScaleY);
+    double radians = Math.toRadians(attachment.rotation());
+    float cos = (float) Math.cos(radians);
+    float sin = (float) Math.sin(radians);
+    float x = attachment.x();
+    float y = attachment.y();
+    int bone = slotList.get(slot).boneIndex();
+    float[] vertexArray = vertexArray(8);
+    float[] localArray = {localX, localY, localX, localY2, localX2, localY2, localX2, localY};
+    for (int i = 0; i < 8; i += 2) {
+      float ox = ((localArray[i] * cos) - (localArray[i + 1] * sin)) + x;
+      float oy = ((localArray[i + 1] * cos) + (localArray[i] * sin)) + y;
+      vertexArray[i] = worldX(bone, ox, oy);
+      vertexArray[i + 1] = worldY(bone, ox, oy);
+    }
+    return 8;
+  }
+
+  private float[] vertexArray(int n) {
+    if (vertexArray.length < n) {
+      vertexArray = new float[Math.max(n, vertexArray.length << 1)];
+    }
+    return vertexArray;
+  }
+
+  private float worldX(int bone, float x, float y) {
+    return (x * sampler.getM00(bone)) + (y * sampler.getM01(bone)) + sampler.getWorldX(bone);
+  }
+
+  private float worldY(int bone, float x, float y) {
+    return (x * sampler.getM10(bone)) + (y * sampler.getM11(bone)) + sampler.getWorldY(bone);
+  }
+
+  private float screenX(float x) {
+    return originX + (x * scale);
+  }
+
+  private float screenY(float y) {
+    return originY - (y * scale);
+  }
+
+  private BufferedImage cutPacked(Region region) {
+    int w = region.isRotate() ? region.getHeight() : region.getWidth();
+    int h = region.isRotate() ? region.getWidth() : region.getHeight();
+    return pageImageMap.get(region.getPage()).getSubimage(region.getX(), region.getY(), w, h);
+  }
+
+  private BufferedImage cutRegion(Region region) {
+    BufferedImage packedImage = packedImageMap.computeIfAbsent(region, this::cutPacked);
+    if (!region.isRotate()) {
+      return packedImage;
+    }
+    int w = region.getWidth();
+    BufferedImage regionImage =
+        new BufferedImage(w, region.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g = regionImage.createGraphics();
+    try {
+      // packed (px, py) -> upright (w - py, px)
+      g.drawImage(packedImage, new AffineTransform(0, 1, -1, 0, w, 0), null);
+    } finally {
+      g.dispose();
+    }
+    return regionImage;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static void checkSheetArgument(String argumentName, int value) {
+    if (value <= 0) {
+      throw LocX.of("Skel!InvalidSheetArgument")
+          .with("Skel#sheetArgument", argumentName)
+          .with("txt[Expect]", "> 0")
+          .with("txt[Actual]", value);
+    }
+  }
+
+  private static String regionName(Attachment attachment) {
+    if (attachment.path() != null) {
+      return attachment.path();
+    }
+    return (attachment.name2() != null) ? attachment.name2() : attachment.name1();
+  }
+
+  // (x, y) in the packed region of the (u, v) at i of region uvs, see spine 2.1
+  // MeshAttachment#updateUVs
+  private static float packedU(float[] uvArray, int i, float packedW, boolean rotate) {
+    return (rotate ? uvArray[i + 1] : uvArray[i]) * packedW;
+  }
+
+  private static float packedV(float[] uvArray, int i, float packedH, boolean rotate) {
+    return rotate ? ((1 - uvArray[i]) * packedH) : (uvArray[i + 1] * packedH);
+  }
+
+  private static BufferedImage premultiplied(BufferedImage image) {
+    if (image.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+      return image;
+    }
+    BufferedImage result = new BufferedImage(
+        image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+    Graphics2D g = result.createGraphics();
+    try {
+      g.drawImage(image, 0, 0, null);
+    } finally {
+      g.dispose();
+    }
+    return result;
+  }
+
+}
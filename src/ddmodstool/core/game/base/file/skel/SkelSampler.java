@@ -0,0 +1,1029 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel;
+
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import ddmodstool.core.game.base.file.skel.SkelData.Attachment;
+import ddmodstool.core.game.base.file.skel.SkelData.AttachmentTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Bone;
+import ddmodstool.core.game.base.file.skel.SkelData.ColorTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Curves;
+import ddmodstool.core.game.base.file.skel.SkelData.DrawOrderTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSkin;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FlipTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Ik;
+import ddmodstool.core.game.base.file.skel.SkelData.IkTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.RotateTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Skin;
+import ddmodstool.core.game.base.file.skel.SkelData.SkinSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.Slot;
+import ddmodstool.core.game.base.file.skel.SkelData.Timeline;
+import ddmodstool.core.game.base.file.skel.SkelData.TimelineGroup;
+import ddmodstool.core.game.base.file.skel.SkelData.VectorTimeline;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * [ *.skel ] sampler, poses the bones and slots of a skel at any time of an animation the way
+ * spine 2.1 runtimes do (ik constraints, draw order and ffd included).
+ *
+ * <p>Bezier curves are baked into lookup tables the first time they are sampled, keyframes are
+ * binary searched, and poses are kept in arrays reused by every sample, so sampling allocates
+ * nothing once each animation has been sampled. Not thread-safe.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class SkelSampler {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Returns the time of the last keyframe of the animation.
+   */
+  public static float duration(Animation animation) {
+    float duration = 0;
+    for (TimelineGroup group : animation.getSlotList()) {
+      for (Timeline timeline : group.timelineList()) {
+        duration = Math.max(duration, last(timeline.timeArray()));
+      }
+    }
+    for (TimelineGroup group : animation.getBoneList()) {
+      for (Timeline timeline : group.timelineList()) {
+        duration = Math.max(duration, last(timeline.timeArray()));
+      }
+    }
+    for (IkTimeline timeline : animation.getIkTimelineList()) {
+      duration = Math.max(duration, last(timeline.timeArray()));
+    }
+    for (FfdSkin ffdSkin : animation.getFfdList()) {
+      for (FfdSlot ffdSlot : ffdSkin.slotList()) {
+        for (FfdTimeline timeline : ffdSlot.timelineList()) {
+          duration = Math.max(duration, last(timeline.timeArray()));
+        }
+      }
+    }
+    if (animation.getDrawOrderTimeline() != null) {
+      duration = Math.max(duration, last(animation.getDrawOrderTimeline().timeArray()));
+    }
+    if (animation.getEventTimeline() != null) {
+      duration = Math.max(duration, last(animation.getEventTimeline().timeArray()));
+    }
+    return duration;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final List<Bone> boneList;
+  private final List<Ik> ikList;
+  // -1 if root
+  private final int[] parentArray;
+  // bones updated before the i-th ik constraint is applied, the last holds bones updated after all
+  private final int[][] boneCache;
+
+  // local pose
+  private final float[] xArray;
+  private final float[] yArray;
+  private final float[] rotationArray;
+  private final float[] rotationIKArray;
+  private final float[] scaleXArray;
+  private final float[] scaleYArray;
+  private final boolean[] flipXArray;
+  private final boolean[] flipYArray;
+
+  // world pose
+  private final float[] worldXArray;
+  private final float[] worldYArray;
+  private final float[] worldRotationArray;
+  private final float[] worldScaleXArray;
+  private final float[] worldScaleYArray;
+  private final boolean[] worldFlipXArray;
+  private final boolean[] worldFlipYArray;
+  private final float[] m00Array;
+  private final float[] m01Array;
+  private final float[] m10Array;
+  private final float[] m11Array;
+
+  private final float[] ikMixArray;
+  private final byte[] ikBendDirectionArray;
+
+  private final List<Slot> slotList;
+  private final Skin defaultSkin;
+  // skins as indexed by ffd timelines, the default one first unless empty
+  private final List<Skin> skinList;
+  // null if only the default skin is used
+  private Skin skin;
+
+  // slot pose
+  private final String[] attachmentNameArray;
+  private final Attachment[] attachmentArray;
+  // (r, g, b, a) of each slot
+  private final float[] colorArray;
+  // draw order -> slot
+  private final int[] drawOrderArray;
+  // deformed vertices of attachments of slots, meaningful only for ffdAttachmentArray[slot]
+  private final float[][] ffdArray2d;
+  private final Attachment[] ffdAttachmentArray;
+
+  // bezier lookup tables of curves, see #bake(Curves)
+  private final Map<Curves, float[]> lutMap = new IdentityHashMap<>();
+  // draw orders of frames, see #drawOrders(DrawOrderTimeline)
+  private final Map<DrawOrderTimeline, int[][]> drawOrderMap = new IdentityHashMap<>();
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  public SkelSampler(SkelData skel) {
+    boneList = skel.getBoneList();
+    ikList = skel.getIkList();
+    int n = boneList.size();
+    parentArray = new int[n];
+    for (int i = 0; i < n; i++) {
+      parentArray[i] = boneList.get(i).parentId() - 1;
+    }
+    boneCache = cache(parentArray, ikList);
+    xArray = new float[n];
+    yArray = new float[n];
+    rotationArray = new float[n];
+    rotationIKArray = new float[n];
+    scaleXArray = new float[n];
+    scaleYArray = new float[n];
+    flipXArray = new boolean[n];
+    flipYArray = new boolean[n];
+    worldXArray = new float[n];
+    worldYArray = new float[n];
+    worldRotationArray = new float[n];
+    worldScaleXArray = new float[n];
+    worldScaleYArray = new float[n];
+    worldFlipXArray = new boolean[n];
+    worldFlipYArray = new boolean[n];
+    m00Array = new float[n];
+    m01Array = new float[n];
+    m10Array = new float[n];
+    m11Array = new float[n];
+    ikMixArray = new float[ikList.size()];
+    ikBendDirectionArray = new byte[ikList.size()];
+    slotList = skel.getSlotList();
+    defaultSkin = skel.getDefaultSkin();
+    skinList = new ArrayList<>();
+    if (!defaultSkin.slotList().isEmpty()) {
+      skinList.add(defaultSkin);
+    }
+    skinList.addAll(skel.getSkinList());
+    int slotN = slotList.size();
+    attachmentNameArray = new String[slotN];
+    attachmentArray = new Attachment[slotN];
+    colorArray = new float[slotN << 2];
+    drawOrderArray = new int[slotN];
+    ffdArray2d = new float[slotN][];
+    ffdAttachmentArray = new Attachment[slotN];
+    sampleSetup();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Uses the named skin, or only the default skin if null, attachments missing from the skin are
+   * looked up in the default skin.
+   */
+  public void setSkin(String name) {
+    skin = null;
+    if (name != null) {
+      for (Skin skin : skinList) {
+        if (name.equals(skin.name()) && (skin != defaultSkin)) {
+          this.skin = skin;
+        }
+      }
+    }
+    Arrays.fill(attachmentArray, null);
+    sampleSetup();
+  }
+
+  public void sampleSetup() {
+    setupPose();
+    updateAttachments();
+    updateWorldTransform();
+  }
+
+  /**
+   * Poses bones at the time of the animation, timelines not keyed yet leave the setup pose.
+   */
+  public void sample(Animation animation, float time) {
+    setupPose();
+    // indexed loops, no iterator is allocated
+    List<TimelineGroup> boneGroupList = animation.getBoneList();
+    for (int i = 0, n = boneGroupList.size(); i < n; i++) {
+      TimelineGroup group = boneGroupList.get(i);
+      int bone = group.index();
+      List<Timeline> timelineList = group.timelineList();
+      for (int j = 0, m = timelineList.size(); j < m; j++) {
+        Timeline timeline = timelineList.get(j);
+        float[] timeArray = timeline.timeArray();
+        if ((timeArray.length == 0) || (time < timeArray[0])) {
+          continue;
+        }
+        switch (timeline.type()) {
+          case SkelData.TIMELINE_ROTATE -> applyRotate(bone, (RotateTimeline) timeline, time);
+          case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE ->
+              applyVector(bone, (VectorTimeline) timeline, time);
+          case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y ->
+              applyFlip(bone, (FlipTimeline) timeline, time);
+          default -> {
+            // not a bone timeline
+          }
+        }
+      }
+    }
+    List<IkTimeline> ikTimelineList = animation.getIkTimelineList();
+    for (int i = 0, n = ikTimelineList.size(); i < n; i++) {
+      applyIk(ikTimelineList.get(i), time);
+    }
+    List<TimelineGroup> slotGroupList = animation.getSlotList();
+    for (int i = 0, n = slotGroupList.size(); i < n; i++) {
+      TimelineGroup group = slotGroupList.get(i);
+      int slot = group.index();
+      List<Timeline> timelineList = group.timelineList();
+      for (int j = 0, m = timelineList.size(); j < m; j++) {
+        Timeline timeline = timelineList.get(j);
+        float[] timeArray = timeline.timeArray();
+        if ((timeArray.length == 0) || (time < timeArray[0])) {
+          continue;
+        }
+        if (timeline instanceof ColorTimeline colorTimeline) {
+          applyColor(slot, colorTimeline, time);
+        } else if (timeline instanceof AttachmentTimeline attachmentTimeline) {
+          applyAttachment(slot, attachmentTimeline, time);
+        }
+      }
+    }
+    updateAttachments();
+    List<FfdSkin> ffdList = animation.getFfdList();
+    for (int i = 0, n = ffdList.size(); i < n; i++) {
+      FfdSkin ffdSkin = ffdList.get(i);
+      Skin skin = (ffdSkin.index() < skinList.size()) ? skinList.get(ffdSkin.index()) : null;
+      for (int j = 0, m = ffdSkin.slotList().size(); (skin != null) && (j < m); j++) {
+        FfdSlot ffdSlot = ffdSkin.slotList().get(j);
+        List<FfdTimeline> timelineList = ffdSlot.timelineList();
+        for (int k = 0, l = timelineList.size(); k < l; k++) {
+          applyFfd(skin, ffdSlot.index(), timelineList.get(k), time);
+        }
+      }
+    }
+    DrawOrderTimeline drawOrderTimeline = animation.getDrawOrderTimeline();
+    if (drawOrderTimeline != null) {
+      applyDrawOrder(drawOrderTimeline, time);
+    }
+    updateWorldTransform();
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  public int getBoneN() {
+    return parentArray.length;
+  }
+
+  public float getWorldX(int bone) {
+    return worldXArray[bone];
+  }
+
+  public float getWorldY(int bone) {
+    return worldYArray[bone];
+  }
+
+  public float getWorldRotation(int bone) {
+    return worldRotationArray[bone];
+  }
+
+  public float getWorldScaleX(int bone) {
+    return worldScaleXArray[bone];
+  }
+
+  public float getWorldScaleY(int bone) {
+    return worldScaleYArray[bone];
+  }
+
+  public boolean isWorldFlipX(int bone) {
+    return worldFlipXArray[bone];
+  }
+
+  public boolean isWorldFlipY(int bone) {
+    return worldFlipYArray[bone];
+  }
+
+  // (m00, m01, m10, m11) maps local to world: (x * m00 + y * m01, x * m10 + y * m11) + world
+
+  public float getM00(int bone) {
+    return m00Array[bone];
+  }
+
+  public float getM01(int bone) {
+    return m01Array[bone];
+  }
+
+  public float getM10(int bone) {
+    return m10Array[bone];
+  }
+
+  public float getM11(int bone) {
+    return m11Array[bone];
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  public int getSlotN() {
+    return drawOrderArray.length;
+  }
+
+  // the slot drawn at the position of the draw order
+  public int getDrawOrder(int i) {
+    return drawOrderArray[i];
+  }
+
+  // null if the slot shows nothing
+  public Attachment getAttachment(int slot) {
+    return attachmentArray[slot];
+  }
+
+  public float getColorR(int slot) {
+    return colorArray[slot << 2];
+  }
+
+  public float getColorG(int slot) {
+    return colorArray[(slot << 2) + 1];
+  }
+
+  public float getColorB(int slot) {
+    return colorArray[(slot << 2) + 2];
+  }
+
+  public float getColorA(int slot) {
+    return colorArray[(slot << 2) + 3];
+  }
+
+  /**
+   * Returns the deformed vertices of the attachment of the slot, laid out as the vertices of a
+   * mesh, or as (x, y) offsets of each weight of a skinned mesh, or null if not deformed.
+   */
+  public float[] getFfd(int slot) {
+    Attachment attachment = attachmentArray[slot];
+    return ((attachment != null) && (ffdAttachmentArray[slot] == attachment)) ?
+        ffdArray2d[slot] : null;
+  }
+
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void setupPose() {
+    for (int i = 0, n = parentArray.length; i < n; i++) {
+      Bone bone = boneList.get(i);
+      xArray[i] = bone.x();
+      yArray[i] = bone.y();
+      rotationArray[i] = bone.rotation();
+      scaleXArray[i] = bone.scaleX();
+      scaleYArray[i] = bone.scaleY();
+      flipXArray[i] = bone.flipX();
+      flipYArray[i] = bone.flipY();
+    }
+    for (int i = 0, n = ikMixArray.length; i < n; i++) {
+      Ik ik = ikList.get(i);
+      ikMixArray[i] = ik.mix();
+      ikBendDirectionArray[i] = ik.bendDirection();
+    }
+    for (int i = 0, n = drawOrderArray.length; i < n; i++) {
+      Slot slot = slotList.get(i);
+      attachmentNameArray[i] = slot.attachmentName();
+      setColor(i, slot.color());
+      drawOrderArray[i] = i;
+      ffdAttachmentArray[i] = null;
+    }
+  }
+
+  private void setColor(int slot, int rgba) {
+    colorArray[slot << 2] = ((rgba >>> 24) & 0xFF) / 255f;
+    colorArray[(slot << 2) + 1] = ((rgba >>> 16) & 0xFF) / 255f;
+    colorArray[(slot << 2) + 2] = ((rgba >>> 8) & 0xFF) / 255f;
+    colorArray[(slot << 2) + 3] = (rgba & 0xFF) / 255f;
+  }
+
+  // resolves attachments of slots whose attachment names are changed
+  private void updateAttachments() {
+    for (int i = 0, n = attachmentNameArray.length; i < n; i++) {
+      String name = attachmentNameArray[i];
+      Attachment attachment = attachmentArray[i];
+      if ((name == null) ? (attachment != null) :
+          ((attachment == null) || !name.equals(attachment.name1()))) {
+        attachment = (skin == null) ? null : find(skin, i, name);
+        attachmentArray[i] = (attachment != null) ? attachment : find(defaultSkin, i, name);
+      }
+    }
+  }
+
+  private void applyRotate(int bone, RotateTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    float[] angleArray = timeline.angleArray();
+    int last = timeArray.length - 1;
+    float angle;
+    if (time >= timeArray[last]) {
+      angle = angleArray[last];
+    } else {
+      int next = search(timeArray, time);
+      float percent = percent(timeline.curves(), next - 1, timeArray, time);
+      float prev = angleArray[next - 1];
+      angle = prev + wrap(angleArray[next] - prev) * percent;
+    }
+    rotationArray[bone] = boneList.get(bone).rotation() + wrap(angle);
+  }
+
+  private void applyVector(int bone, VectorTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    float[] xyArray = timeline.xyArray();
+    int last = timeArray.length - 1;
+    float x;
+    float y;
+    if (time >= timeArray[last]) {
+      x = xyArray[last << 1];
+      y = xyArray[(last << 1) + 1];
+    } else {
+      int next = search(timeArray, time);
+      float percent = percent(timeline.curves(), next - 1, timeArray, time);
+      float prevX = xyArray[(next - 1) << 1];
+      float prevY = xyArray[((next - 1) << 1) + 1];
+      x = prevX + (xyArray[next << 1] - prevX) * percent;
+      y = prevY + (xyArray[(next << 1) + 1] - prevY) * percent;
+    }
+    Bone data = boneList.get(bone);
+    if (timeline.type() == SkelData.TIMELINE_TRANSLATE) {
+      xArray[bone] = data.x() + x;
+      yArray[bone] = data.y() + y;
+    } else {
+      scaleXArray[bone] = data.scaleX() * x;
+      scaleYArray[bone] = data.scaleY() * y;
+    }
+  }
+
+  private void applyFlip(int bone, FlipTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    int last = timeArray.length - 1;
+    int frame = (time >= timeArray[last]) ? last : (search(timeArray, time) - 1);
+    boolean flip = timeline.flipArray()[frame];
+    if (timeline.type() == SkelData.TIMELINE_FLIP_X) {
+      flipXArray[bone] = flip;
+    } else {
+      flipYArray[bone] = flip;
+    }
+  }
+
+  private void applyIk(IkTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    if ((timeArray.length == 0) || (time < timeArray[0])) {
+      return;
+    }
+    int ik = timeline.ikIndex();
+    float[] mixArray = timeline.mixArray();
+    int last = timeArray.length - 1;
+    if (time >= timeArray[last]) {
+      ikMixArray[ik] = mixArray[last];
+      ikBendDirectionArray[ik] = timeline.bendDirectionArray()[last];
+    } else {
+      int next = search(timeArray, time);
+      float percent = percent(timeline.curves(), next - 1, timeArray, time);
+      float prev = mixArray[next - 1];
+      ikMixArray[ik] = prev + (mixArray[next] - prev) * percent;
+      // the bend direction of the previous frame, as spine 2.1 does
+      ikBendDirectionArray[ik] = timeline.bendDirectionArray()[next - 1];
+    }
+  }
+
+  private void applyColor(int slot, ColorTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    int[] rgbaArray = timeline.colorArray();
+    int last = timeArray.length - 1;
+    if (time >= timeArray[last]) {
+      setColor(slot, rgbaArray[last]);
+      return;
+    }
+    int next = search(timeArray, time);
+    float percent = percent(timeline.curves(), next - 1, timeArray, time);
+    int prev = rgbaArray[next - 1];
+    int curr = rgbaArray[next];
+    for (int c = 0, shift = 24; c < 4; c++, shift -= 8) {
+      float prevValue = ((prev >>> shift) & 0xFF) / 255f;
+      float currValue = ((curr >>> shift) & 0xFF) / 255f;
+      colorArray[(slot << 2) + c] = prevValue + ((currValue - prevValue) * percent);
+    }
+  }
+
+  private void applyAttachment(int slot, AttachmentTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    int last = timeArray.length - 1;
+    int frame = (time >= timeArray[last]) ? last : (search(timeArray, time) - 1);
+    attachmentNameArray[slot] = timeline.attachmentNameArray()[frame];
+  }
+
+  private void applyFfd(Skin skin, int slot, FfdTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    Attachment attachment = attachmentArray[slot];
+    if ((timeArray.length == 0) || (time < timeArray[0]) || (attachment == null)
+        || (find(skin, slot, timeline.attachmentName()) != attachment)) {
+      return;
+    }
+    // a mesh is deformed from its vertices, a skinned mesh from zero offsets of its weights
+    float[] baseArray = (attachment.type() == SkelData.ATTACHMENT_MESH) ?
+        attachment.vertexArray() : null;
+    int vertexN = (baseArray != null) ? baseArray.length : weightN(attachment.vertexArray()) << 1;
+    float[] ffdArray = ffdArray2d[slot];
+    if ((ffdArray == null) || (ffdArray.length < vertexN)) {
+      ffdArray = new float[vertexN];
+      ffdArray2d[slot] = ffdArray;
+    }
+    int last = timeArray.length - 1;
+    int prev;
+    int next;
+    float percent;
+    if (time >= timeArray[last]) {
+      prev = last;
+      next = last;
+      percent = 0;
+    } else {
+      next = search(timeArray, time);
+      prev = next - 1;
+      percent = percent(timeline.curves(), prev, timeArray, time);
+    }
+    float[] prevArray = timeline.vertexArray2d()[prev];
+    float[] nextArray = timeline.vertexArray2d()[next];
+    int prevStart = timeline.startArray()[prev];
+    int nextStart = timeline.startArray()[next];
+    for (int i = 0; i < vertexN; i++) {
+      float prevValue = offset(prevArray, prevStart, i);
+      float nextValue = offset(nextArray, nextStart, i);
+      float value = prevValue + ((nextValue - prevValue) * percent);
+      ffdArray[i] = (baseArray != null) ? (baseArray[i] + value) : value;
+    }
+    ffdAttachmentArray[slot] = attachment;
+  }
+
+  private void applyDrawOrder(DrawOrderTimeline timeline, float time) {
+    float[] timeArray = timeline.timeArray();
+    if ((timeArray.length == 0) || (time < timeArray[0])) {
+      return;
+    }
+    int last = timeArray.length - 1;
+    int frame = (time >= timeArray[last]) ? last : (search(timeArray, time) - 1);
+    int[] drawOrder = lutDrawOrders(timeline)[frame];
+    System.arraycopy(drawOrder, 0, drawOrderArray, 0, drawOrderArray.length);
+  }
+
+  private int[][] lutDrawOrders(DrawOrderTimeline timeline) {
+    int[][] drawOrders = drawOrderMap.get(timeline);
+    if (drawOrders == null) {
+      drawOrders = drawOrders(timeline, drawOrderArray.length);
+      drawOrderMap.put(timeline, drawOrders);
+    }
+    return drawOrders;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private void updateWorldTransform() {
+    System.arraycopy(rotationArray, 0, rotationIKArray, 0, rotationArray.length);
+    for (int i = 0, last = boneCache.length - 1; ; i++) {
+      for (int bone : boneCache[i]) {
+        updateWorldTransform(bone);
+      }
+      if (i == last) {
+        break;
+      }
+      applyIkConstraint(i);
+    }
+  }
+
+  private void updateWorldTransform(int bone) {
+    Bone data = boneList.get(bone);
+    int parent = parentArray[bone];
+    float x = xArray[bone];
+    float y = yArray[bone];
+    if (parent >= 0) {
+      worldXArray[bone] = (x * m00Array[parent]) + (y * m01Array[parent]) + worldXArray[parent];
+      worldYArray[bone] = (x * m10Array[parent]) + (y * m11Array[parent]) + worldYArray[parent];
+      if (data.inheritScale()) {
+        worldScaleXArray[bone] = worldScaleXArray[parent] * scaleXArray[bone];
+        worldScaleYArray[bone] = worldScaleYArray[parent] * scaleYArray[bone];
+      } else {
+        worldScaleXArray[bone] = scaleXArray[bone];
+        worldScaleYArray[bone] = scaleYArray[bone];
+      }
+      worldRotationArray[bone] = data.inheritRotation() ?
+          (worldRotationArray[parent] + rotationIKArray[bone]) : rotationIKArray[bone];
+      worldFlipXArray[bone] = worldFlipXArray[parent] != flipXArray[bone];
+      worldFlipYArray[bone] = worldFlipYArray[parent] != flipYArray[bone];
+    } else {
+      worldXArray[bone] = x;
+      worldYArray[bone] = y;
+      worldScaleXArray[bone] = scaleXArray[bone];
+      worldScaleYArray[bone] = scaleYArray[bone];
+      worldRotationArray[bone] = rotationIKArray[bone];
+      worldFlipXArray[bone] = flipXArray[bone];
+      worldFlipYArray[bone] = flipYArray[bone];
+    }
+    double radians = Math.toRadians(worldRotationArray[bone]);
+    float cos = (float) Math.cos(radians);
+    float sin = (float) Math.sin(radians);
+    float worldScaleX = worldScaleXArray[bone];
+    float worldScaleY = worldScaleYArray[bone];
+    if (worldFlipXArray[bone]) {
+      m00Array[bone] = -cos * worldScaleX;
+      m01Array[bone] = sin * worldScaleY;
+    } else {
+      m00Array[bone] = cos * worldScaleX;
+      m01Array[bone] = -sin * worldScaleY;
+    }
+    if (worldFlipYArray[bone]) {
+      m10Array[bone] = -sin * worldScaleX;
+      m11Array[bone] = -cos * worldScaleY;
+    } else {
+      m10Array[bone] = sin * worldScaleX;
+      m11Array[bone] = cos * worldScaleY;
+    }
+  }
+
+  private void applyIkConstraint(int ik) {
+    int[] boneIndexArray = ikList.get(ik).boneIndexArray();
+    int target = ikList.get(ik).targetBoneIndex();
+    float mix = ikMixArray[ik];
+    if (boneIndexArray.length == 1) {
+      applyIk1(boneIndexArray[0], worldXArray[target], worldYArray[target], mix);
+    } else if (boneIndexArray.length == 2) {
+      applyIk2(boneIndexArray[0], boneIndexArray[1], worldXArray[target], worldYArray[target],
+          ikBendDirectionArray[ik], mix);
+    }
+  }
+
+  private void applyIk1(int bone, float targetX, float targetY, float alpha) {
+    int parent = parentArray[bone];
+    float parentRotation = (!boneList.get(bone).inheritRotation() || (parent < 0)) ?
+        0 : worldRotationArray[parent];
+    float rotation = rotationArray[bone];
+    float rotationIK = (float) Math.toDegrees(
+        Math.atan2(targetY - worldYArray[bone], targetX - worldXArray[bone])) - parentRotation;
+    rotationIKArray[bone] = rotation + ((rotationIK - rotation) * alpha);
+  }
+
+  private void applyIk2(
+      int parent, int child, float targetX, float targetY, int bendDirection, float alpha) {
+    float childRotation = rotationArray[child];
+    float parentRotation = rotationArray[parent];
+    int childParent = parentArray[child];
+    if ((alpha == 0) || (childParent < 0)) {
+      // a child without parent is not a chain, left unconstrained
+      rotationIKArray[child] = childRotation;
+      rotationIKArray[parent] = parentRotation;
+      return;
+    }
+    int parentParent = parentArray[parent];
+    if (parentParent >= 0) {
+      float localX = worldToLocalX(parentParent, targetX, targetY);
+      float localY = worldToLocalY(parentParent, targetX, targetY);
+      targetX = (localX - xArray[parent]) * worldScaleXArray[parentParent];
+      targetY = (localY - yArray[parent]) * worldScaleYArray[parentParent];
+    } else {
+      targetX -= xArray[parent];
+      targetY -= yArray[parent];
+    }
+    float positionX = xArray[child];
+    float positionY = yArray[child];
+    if (childParent != parent) {
+      float worldX = (positionX * m00Array[childParent]) + (positionY * m01Array[childParent])
+          + worldXArray[childParent];
+      float worldY = (positionX * m10Array[childParent]) + (positionY * m11Array[childParent])
+          + worldYArray[childParent];
+      positionX = worldToLocalX(parent, worldX, worldY);
+      positionY = worldToLocalY(parent, worldX, worldY);
+    }
+    float childX = positionX * worldScaleXArray[parent];
+    float childY = positionY * worldScaleYArray[parent];
+    float offset = (float) Math.atan2(childY, childX);
+    float len1 = (float) Math.sqrt((childX * childX) + (childY * childY));
+    float len2 = boneList.get(child).length() * worldScaleXArray[child];
+    float cosDenom = 2 * len1 * len2;
+    if (cosDenom < 0.0001f) {
+      rotationIKArray[child] = childRotation + (((float) Math.toDegrees(
+          Math.atan2(targetY, targetX)) - parentRotation - childRotation) * alpha);
+      return;
+    }
+    float cos = ((targetX * targetX) + (targetY * targetY) - (len1 * len1) - (len2 * len2))
+        / cosDenom;
+    cos = Math.max(-1, Math.min(1, cos));
+    float childAngle = (float) Math.acos(cos) * bendDirection;
+    float adjacent = len1 + (len2 * cos);
+    float opposite = len2 * (float) Math.sin(childAngle);
+    float parentAngle = (float) Math.atan2(
+        (targetY * adjacent) - (targetX * opposite), (targetX * adjacent) + (targetY * opposite));
+    float rotation = wrap((float) Math.toDegrees(parentAngle - offset) - parentRotation);
+    rotationIKArray[parent] = parentRotation + (rotation * alpha);
+    rotation = wrap((float) Math.toDegrees(childAngle + offset) - childRotation);
+    rotationIKArray[child] = childRotation
+        + ((rotation + worldRotationArray[parent] - worldRotationArray[childParent]) * alpha);
+  }
+
+  private float worldToLocalX(int bone, float worldX, float worldY) {
+    float x = worldX - worldXArray[bone];
+    float y = worldY - worldYArray[bone];
+    float m00 = m00Array[bone];
+    float m01 = m01Array[bone];
+    float m10 = m10Array[bone];
+    float m11 = m11Array[bone];
+    if (worldFlipXArray[bone] != worldFlipYArray[bone]) {
+      m00 = -m00;
+      m11 = -m11;
+    }
+    float invDet = 1 / ((m00 * m11) - (m01 * m10));
+    return (x * m00 * invDet) - (y * m01 * invDet);
+  }
+
+  private float worldToLocalY(int bone, float worldX, float worldY) {
+    float x = worldX - worldXArray[bone];
+    float y = worldY - worldYArray[bone];
+    float m00 = m00Array[bone];
+    float m01 = m01Array[bone];
+    float m10 = m10Array[bone];
+    float m11 = m11Array[bone];
+    if (worldFlipXArray[bone] != worldFlipYArray[bone]) {
+      m00 = -m00;
+      m11 = -m11;
+    }
+    float invDet = 1 / ((m00 * m11) - (m01 * m10));
+    return (y * m11 * invDet) - (x * m10 * invDet);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  // the curved percent from frame i to frame i + 1 at the time
+  private float percent(Curves curves, int i, float[] timeArray, float time) {
+    float prevTime = timeArray[i];
+    float percent = (time - prevTime) / (timeArray[i + 1] - prevTime);
+    percent = Math.max(0, Math.min(1, percent));
+    return switch (curves.typeArray()[i]) {
+      case SkelData.CURVE_STEPPED -> 0;
+      case SkelData.CURVE_BEZIER -> curve(lutMap.computeIfAbsent(curves, SkelSampler::bake), i,
+          percent);
+      default -> percent;
+    };
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  // spine 2.1 bakes a bezier curve into 10 segments, (0,0), 9 points kept by the table, (1,1)
+  private static final int BEZIER_SEGMENTS = 10;
+  private static final int BEZIER_SIZE = (BEZIER_SEGMENTS - 1) << 1;
+
+  // ---------------------------------------------------------------------------------------------
+
+  // bezier curves of the i-th curve are points [i * BEZIER_SIZE, (i + 1) * BEZIER_SIZE) as (x, y)
+  private static float[] bake(Curves curves) {
+    byte[] typeArray = curves.typeArray();
+    float[] bezierArray = curves.bezierArray();
+    float[] lut = new float[typeArray.length * BEZIER_SIZE];
+    float subdiv1 = 1f / BEZIER_SEGMENTS;
+    float subdiv2 = subdiv1 * subdiv1;
+    float subdiv3 = subdiv2 * subdiv1;
+    float pre1 = 3 * subdiv1;
+    float pre2 = 3 * subdiv2;
+    float pre4 = 6 * subdiv2;
+    float pre5 = 6 * subdiv3;
+    for (int c = 0; c < typeArray.length; c++) {
+      if (typeArray[c] != SkelData.CURVE_BEZIER) {
+        continue;
+      }
+      float cx1 = bezierArray[c << 2];
+      float cy1 = bezierArray[(c << 2) + 1];
+      float cx2 = bezierArray[(c << 2) + 2];
+      float cy2 = bezierArray[(c << 2) + 3];
+      float tmp1x = (-cx1 * 2) + cx2;
+      float tmp1y = (-cy1 * 2) + cy2;
+      float tmp2x = ((cx1 - cx2) * 3) + 1;
+      float tmp2y = ((cy1 - cy2) * 3) + 1;
+      float dfx = (cx1 * pre1) + (tmp1x * pre2) + (tmp2x * subdiv3);
+      float dfy = (cy1 * pre1) + (tmp1y * pre2) + (tmp2y * subdiv3);
+      float ddfx = (tmp1x * pre4) + (tmp2x * pre5);
+      float ddfy = (tmp1y * pre4) + (tmp2y * pre5);
+      float dddfx = tmp2x * pre5;
+      float dddfy = tmp2y * pre5;
+      float x = dfx;
+      float y = dfy;
+      for (int i = c * BEZIER_SIZE, n = i + BEZIER_SIZE; i < n; i += 2) {
+        lut[i] = x;
+        lut[i + 1] = y;
+        dfx += ddfx;
+        dfy += ddfy;
+        ddfx += dddfx;
+        ddfy += dddfy;
+        x += dfx;
+        y += dfy;
+      }
+    }
+    return lut;
+  }
+
+  private static float curve(float[] lut, int c, float percent) {
+    int start = c * BEZIER_SIZE;
+    int i = start;
+    float x = 0;
+    for (int n = start + BEZIER_SIZE; i < n; i += 2) {
+      x = lut[i];
+      if (x >= percent) {
+        float prevX = (i == start) ? 0 : lut[i - 2];
+        float prevY = (i == start) ? 0 : lut[i - 1];
+        return prevY + (((lut[i + 1] - prevY) * (percent - prevX)) / (x - prevX));
+      }
+    }
+    // the last point is (1,1)
+    float y = lut[i - 1];
+    return y + (((1 - y) * (percent - x)) / (1 - x));
+  }
+
+  // index of the first frame after the time, given timeArray[0] <= time < timeArray[last]
+  private static int search(float[] timeArray, float time) {
+    int low = 0;
+    int high = timeArray.length - 2;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timeArray[mid + 1] <= time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low + 1;
+  }
+
+  // the attachment keyed by the name in the slot of the skin, null if none
+  private static Attachment find(Skin skin, int slot, String name) {
+    if (name == null) {
+      return null;
+    }
+    List<SkinSlot> skinSlotList = skin.slotList();
+    for (int i = 0, n = skinSlotList.size(); i < n; i++) {
+      SkinSlot skinSlot = skinSlotList.get(i);
+      if (skinSlot.index() != slot) {
+        continue;
+      }
+      List<Attachment> attachmentList = skinSlot.attachmentList();
+      for (int j = 0, m = attachmentList.size(); j < m; j++) {
+        Attachment attachment = attachmentList.get(j);
+        if (name.equals(attachment.name1())) {
+          return attachment;
+        }
+      }
+    }
+    return null;
+  }
+
+  // number of weights of a skinned mesh, see SkelData.Attachment
+  private static int weightN(float[] vertexArray) {
+    int weightN = 0;
+    for (int i = 0; i < vertexArray.length; ) {
+      int boneN = (int) vertexArray[i];
+      weightN += boneN;
+      i += 1 + (boneN << 2);
+    }
+    return weightN;
+  }
+
+  // the i-th value of ffd frame vertices starting at start, zero out of them
+  private static float offset(float[] array, int start, int i) {
+    int j = i - start;
+    return ((j >= 0) && (j < array.length)) ? array[j] : 0;
+  }
+
+  // draw orders (draw order -> slot) of frames, as spine 2.1 SkeletonBinary builds them, a frame
+  // with offsets out of the slots keeps the setup draw order
+  private static int[][] drawOrders(DrawOrderTimeline timeline, int slotN) {
+    int[][] offsetArray2d = timeline.offsetArray2d();
+    int[][] drawOrders = new int[offsetArray2d.length][];
+    for (int f = 0; f < offsetArray2d.length; f++) {
+      int[] drawOrder = drawOrder(offsetArray2d[f], slotN);
+      if (drawOrder == null) {
+        drawOrder = new int[slotN];
+        for (int i = 0; i < slotN; i++) {
+          drawOrder[i] = i;
+        }
+      }
+      drawOrders[f] = drawOrder;
+    }
+    return drawOrders;
+  }
+
+  private static int[] drawOrder(int[] offsetArray, int slotN) {
+    int offsetN = offsetArray.length >> 1;
+    if (offsetN > slotN) {
+      return null;
+    }
+    int[] drawOrder = new int[slotN];
+    Arrays.fill(drawOrder, -1);
+    int[] unchanged = new int[slotN - offsetN];
+    int original = 0;
+    int unchangedIndex = 0;
+    for (int i = 0; i < offsetN; i++) {
+      int slot = offsetArray[i << 1];
+      if ((slot < original) || (slot > (slotN - (offsetN - i)))) {
+        return null;
+      }
+      while (original != slot) {
+        unchanged[unchangedIndex++] = original++;
+      }
+      int index = original + offsetArray[(i << 1) + 1];
+      if ((index < 0) || (index >= slotN) || (drawOrder[index] != -1)) {
+        return null;
+      }
+      drawOrder[index] = original++;
+    }
+    while (original < slotN) {
+      unchanged[unchangedIndex++] = original++;
+    }
+    for (int i = slotN - 1; i >= 0; i--) {
+      if (drawOrder[i] == -1) {
+        drawOrder[i] = unchanged[--unchangedIndex];
+      }
+    }
+    return drawOrder;
+  }
+
+  private static float wrap(float degrees) {
+    while (degrees > 180) {
+      degrees -= 360;
+    }
+    while (degrees < -180) {
+      degrees += 360;
+    }
+    return degrees;
+  }
+
+  private static float last(float[] timeArray) {
+    return (timeArray.length == 0) ? 0 : timeArray[timeArray.length - 1];
+  }
+
+  // bones updated before each ik constraint is applied, as spine 2.1 Skeleton#updateCache does
+  private static int[][] cache(int[] parentArray, List<Ik> ikList) {
+    int ikN = ikList.size();
+    List<List<Integer>> cache = new ArrayList<>(ikN + 1);
+    for (int i = 0; i <= ikN; i++) {
+      cache.add(new ArrayList<>());
+    }
+    outer:
+    for (int bone = 0; bone < parentArray.length; bone++) {
+      for (int current = bone; current >= 0; current = parentArray[current]) {
+        for (int ik = 0; ik < ikN; ik++) {
+          int[] boneIndexArray = ikList.get(ik).boneIndexArray();
+          int ikParent = boneIndexArray[0];
+          for (int child = boneIndexArray[boneIndexArray.length - 1]; ; ) {
+            if (current == child) {
+              cache.get(ik).add(bone);
+              cache.get(ik + 1).add(bone);
+              continue outer;
+            }
+            if ((child == ikParent) || (child < 0)) {
+              break;
+            }
+            child = parentArray[child];
+          }
+        }
+      }
+      cache.get(0).add(bone);
+    }
+    int[][] boneCache = new int[ikN + 1][];
+    for (int i = 0; i <= ikN; i++) {
+      boneCache[i] = cache.get(i).stream().mapToInt(Integer::intValue).toArray();
+    }
+    return boneCache;
+  }
+
+}
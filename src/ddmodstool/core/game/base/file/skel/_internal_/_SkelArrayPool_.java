@@ -0,0 +1,195 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * [ *.skel ] array pool, identical arrays of all skels read with arrays shared are one array.
+ *
+ * <p>Arrays are looked up by a hash of their encoded bytes and compared with them bit for bit
+ * before being decoded, so a shared array is never allocated twice. Pooled arrays are weakly
+ * referenced, an array is dropped once no skel holds it.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+final class _SkelArrayPool_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // n floats encoded at [start, start + n * 4)
+  static float[] floats(ByteBuffer bytes, int start, int n) {
+    long hash = hash(bytes, start, n << 2, FLOATS);
+    synchronized (pool) {
+      expunge();
+      for (Entry entry = pool.get(hash); entry != null; entry = entry.next) {
+        if ((entry.get() instanceof float[] array) && equals(array, bytes, start, n)) {
+          return array;
+        }
+      }
+    }
+    float[] array = new float[n];
+    bytes.slice(start, n << 2).asFloatBuffer().get(array);
+    return (float[]) intern(hash, array);
+  }
+
+  // n shorts encoded at [start, start + n * 2)
+  static short[] shorts(ByteBuffer bytes, int start, int n) {
+    long hash = hash(bytes, start, n << 1, SHORTS);
+    synchronized (pool) {
+      expunge();
+      for (Entry entry = pool.get(hash); entry != null; entry = entry.next) {
+        if ((entry.get() instanceof short[] array) && equals(array, bytes, start, n)) {
+          return array;
+        }
+      }
+    }
+    short[] array = new short[n];
+    bytes.slice(start, n << 1).asShortBuffer().get(array);
+    return (short[]) intern(hash, array);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final long FLOATS = 0x666C6F6174730000L;
+  private static final long SHORTS = 0x73686F7274730000L;
+
+  // hash -> entries (chained by next) of arrays with the hash
+  private static final Map<Long, Entry> pool = new HashMap<>();
+  private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static long hash(ByteBuffer bytes, int start, int length, long seed) {
+    long hash = (seed ^ length) * 0x9E3779B97F4A7C15L;
+    int end = start + length;
+    int i = start;
+    for (; (i + 8) <= end; i += 8) {
+      hash = (hash ^ bytes.getLong(i)) * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 29;
+    }
+    for (; i < end; i++) {
+      hash = (hash ^ bytes.get(i)) * 0x100000001B3L;
+    }
+    return hash ^ (hash >>> 32);
+  }
+
+  // compared by raw bits, so that -0.0 and NaNs with different payloads are never mixed up
+  private static boolean equals(float[] array, ByteBuffer bytes, int start, int n) {
+    if (array.length != n) {
+      return false;
+    }
+    for (int i = 0; i < n; i++) {
+      if (Float.floatToRawIntBits(array[i]) != bytes.getInt(start + (i << 2))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean equals(short[] array, ByteBuffer bytes, int start, int n) {
+    if (array.length != n) {
+      return false;
+    }
+    for (int i = 0; i < n; i++) {
+      if (array[i] != bytes.getShort(start + (i << 1))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // returns the pooled array equal to the array if another thread pooled one meanwhile
+  private static Object intern(long hash, Object array) {
+    synchronized (pool) {
+      Entry head = pool.get(hash);
+      for (Entry entry = head; entry != null; entry = entry.next) {
+        Object pooled = entry.get();
+        if ((pooled instanceof float[] a) && (array instanceof float[] b) && equals(a, b)) {
+          return pooled;
+        } else if ((pooled instanceof short[] a) && (array instanceof short[] b)
+            && Arrays.equals(a, b)) {
+          return pooled;
+        }
+      }
+      pool.put(hash, new Entry(hash, array, head));
+      return array;
+    }
+  }
+
+  private static boolean equals(float[] a, float[] b) {
+    if (a.length != b.length) {
+      return false;
+    }
+    for (int i = 0; i < a.length; i++) {
+      if (Float.floatToRawIntBits(a[i]) != Float.floatToRawIntBits(b[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // unlinks entries whose arrays are collected, must be called with the pool locked
+  private static void expunge() {
+    for (Object ref; (ref = queue.poll()) != null; ) {
+      Entry cleared = (Entry) ref;
+      Entry head = pool.get(cleared.hash);
+      if (head == cleared) {
+        if (cleared.next == null) {
+          pool.remove(cleared.hash);
+        } else {
+          pool.put(cleared.hash, cleared.next);
+        }
+      } else {
+        for (Entry entry = head; entry != null; entry = entry.next) {
+          if (entry.next == cleared) {
+            entry.next = cleared.next;
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private static final class Entry extends WeakReference<Object> {
+
+    private final long hash;
+    private Entry next;
+
+    private Entry(long hash, Object array, Entry next) {
+      super(array, queue);
+      this.hash = hash;
+      this.next = next;
+    }
+
+  }
+
+}
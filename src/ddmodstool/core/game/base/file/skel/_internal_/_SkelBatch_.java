@@ -0,0 +1,106 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import ddmodstool.core.game.base.data.localization.Loc;
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel.SkelBatch.Report;
+import ddmodstool.core.game.base.file.skel.SkelBatch.Transform;
+import ddmodstool.core.lang.awt.JLoading;
+import ddmodstool.core.lang.util.IO;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * [ *.skel ] batch runner.
+ *
+ * <p>Skels are processed on a pool bounded by the number of processors, progress is reported on
+ * the calling thread since {@link JLoading#message(String)} is bound to it.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _SkelBatch_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static Report run(Path dir, Transform transform) {
+    List<Path> pathList = new ArrayList<>();
+    IO.walkExt(dir, ".skel", pathList::add);
+    int n = pathList.size();
+    if (n == 0) {
+      return new Report(0, 0, List.of());
+    }
+    int threadN = Math.min(n, Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(threadN, runnable -> {
+      Thread thread = new Thread(runnable, "skel-batch");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+      boolean[] changedArray = new boolean[n];
+      LocX[] failureArray = new LocX[n];
+      for (int i = 0; i < n; i++) {
+        int index = i;
+        completion.submit(() -> {
+          Path path = pathList.get(index);
+          try {
+            changedArray[index] = transform.apply(path);
+          } catch (LocX e) {
+            // thrown by read or write, with the path already
+            failureArray[index] = e;
+          } catch (Exception e) {
+            failureArray[index] = LocX.of(e).with("Skel#path", path.toAbsolutePath());
+          }
+          return index;
+        });
+      }
+      String processing = Loc.G.text("txt[Processing]");
+      for (int done = 1; done <= n; done++) {
+        Path path = pathList.get(completion.take().get());
+        JLoading.message(processing + " " + done + "/" + n + " " + IO.name(path));
+      }
+      int changedN = 0;
+      List<LocX> failureList = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        changedN += changedArray[i] ? 1 : 0;
+        if (failureArray[i] != null) {
+          failureList.add(failureArray[i]);
+        }
+      }
+      return new Report(n, changedN, failureList);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
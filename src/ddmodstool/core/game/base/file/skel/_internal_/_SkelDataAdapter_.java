@@ -0,0 +1,654 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel.Skel;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import ddmodstool.core.game.base.file.skel.SkelData.Attachment;
+import ddmodstool.core.game.base.file.skel.SkelData.AttachmentTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Bone;
+import ddmodstool.core.game.base.file.skel.SkelData.ColorTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Curves;
+import ddmodstool.core.game.base.file.skel.SkelData.DrawOrderTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Event;
+import ddmodstool.core.game.base.file.skel.SkelData.EventTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSkin;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FlipTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Ik;
+import ddmodstool.core.game.base.file.skel.SkelData.IkTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.RotateTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Skin;
+import ddmodstool.core.game.base.file.skel.SkelData.SkinSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.Slot;
+import ddmodstool.core.game.base.file.skel.SkelData.Timeline;
+import ddmodstool.core.game.base.file.skel.SkelData.TimelineGroup;
+import ddmodstool.core.game.base.file.skel.SkelData.VectorTimeline;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * [ *.skel ] adapter between {@link SkelData} and the JSON view {@link Skel}.
+ *
+ * <p>The JSON view has exactly the layout produced by {@link _SkelReader_}, so both models are
+ * written to the same bytes.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _SkelDataAdapter_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static Skel toSkel(SkelData data) {
+    boolean nonessential = data.isNonessential();
+    Skel skel = new Skel();
+    skel.setPath(data.getPath());
+    skel.setOwner(data.getOwner());
+    skel.setIdent(data.getIdent());
+    skel.put("hash", data.getHash());
+    skel.put("version", data.getVersion());
+    skel.put("width", data.getWidth());
+    skel.put("height", data.getHeight());
+    skel.put("nonessential", nonessential);
+    if (nonessential) {
+      skel.put("imagesPath", data.getImagesPath());
+    }
+    skel.put("boneArray", toArray(data.getBoneList(), bone -> {
+      JSONObject object = new JSONObject();
+      object.put("name", bone.name());
+      object.put("parentId", bone.parentId());
+      object.put("x", bone.x());
+      object.put("y", bone.y());
+      object.put("scaleX", bone.scaleX());
+      object.put("scaleY", bone.scaleY());
+      object.put("rotation", bone.rotation());
+      object.put("length", bone.length());
+      object.put("flipX", bone.flipX());
+      object.put("flipY", bone.flipY());
+      object.put("inheritScale", bone.inheritScale());
+      object.put("inheritRotation", bone.inheritRotation());
+      if (nonessential) {
+        object.put("color", bone.color());
+      }
+      return object;
+    }));
+    skel.put("ikArray", toArray(data.getIkList(), ik -> {
+      JSONObject object = new JSONObject();
+      object.put("name", ik.name());
+      object.put("boneIndexArray", ik.boneIndexArray());
+      object.put("targetBoneIndex", ik.targetBoneIndex());
+      object.put("mix", ik.mix());
+      object.put("bendDirection", ik.bendDirection());
+      return object;
+    }));
+    skel.put("slotArray", toArray(data.getSlotList(), slot -> {
+      JSONObject object = new JSONObject();
+      object.put("name", slot.name());
+      object.put("boneIndex", slot.boneIndex());
+      object.put("color", slot.color());
+      object.put("attachmentName", slot.attachmentName());
+      object.put("blendMode", slot.blendMode());
+      return object;
+    }));
+    skel.put("defaultSkin", toSkin(data.getDefaultSkin(), nonessential));
+    skel.put("skinArray", toArray(data.getSkinList(), skin -> toSkin(skin, nonessential)));
+    skel.put("eventArray", toArray(data.getEventList(), event -> {
+      JSONObject object = new JSONObject();
+      object.put("name", event.name());
+      object.put("_intValue_", event.intValueX());
+      object.put("floatValue", event.floatValue());
+      object.put("stringValue", event.stringValue());
+      return object;
+    }));
+    skel.put("animationArray", toArray(data.getAnimationList(), _SkelDataAdapter_::toAnimation));
+    return skel;
+  }
+
+  public static SkelData toSkelData(Skel skel) {
+    boolean nonessential = skel.getBooleanValue("nonessential");
+    SkelData data = new SkelData();
+    data.setPath(skel.getPath());
+    data.setOwner(skel.getOwner());
+    data.setIdent(skel.getIdent());
+    data.setHash(skel.getString("hash"));
+    data.setVersion(skel.getString("version"));
+    data.setWidth(skel.getFloatValue("width"));
+    data.setHeight(skel.getFloatValue("height"));
+    data.setNonessential(nonessential);
+    if (nonessential) {
+      data.setImagesPath(skel.getString("imagesPath"));
+    }
+    data.setBoneList(toList(skel.getJSONArray("boneArray"), bone -> new Bone(
+        bone.getString("name"), bone.getIntValue("parentId"),
+        bone.getFloatValue("x"), bone.getFloatValue("y"),
+        bone.getFloatValue("scaleX"), bone.getFloatValue("scaleY"),
+        bone.getFloatValue("rotation"), bone.getFloatValue("length"),
+        bone.getBooleanValue("flipX"), bone.getBooleanValue("flipY"),
+        bone.getBooleanValue("inheritScale"), bone.getBooleanValue("inheritRotation"),
+        nonessential ? bone.getIntValue("color") : 0)));
+    data.setIkList(toList(skel.getJSONArray("ikArray"), ik -> new Ik(
+        ik.getString("name"), ik.getObject("boneIndexArray", int[].class),
+        ik.getIntValue("targetBoneIndex"), ik.getFloatValue("mix"),
+        ik.getByteValue("bendDirection"))));
+    data.setSlotList(toList(skel.getJSONArray("slotArray"), slot -> new Slot(
+        slot.getString("name"), slot.getIntValue("boneIndex"), slot.getIntValue("color"),
+        slot.getString("attachmentName"), slot.getIntValue("blendMode"))));
+    data.setDefaultSkin(toSkinRecord(skel.getJSONObject("defaultSkin"), nonessential));
+    data.setSkinList(toList(skel.getJSONArray("skinArray"),
+        skin -> toSkinRecord(skin, nonessential)));
+    data.setEventList(toList(skel.getJSONArray("eventArray"), event -> new Event(
+        event.getString("name"), event.getIntValue("_intValue_"),
+        event.getFloatValue("floatValue"), event.getString("stringValue"))));
+    data.setAnimationList(toList(skel.getJSONArray("animationArray"),
+        _SkelDataAdapter_::toAnimationRecord));
+    return data;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods, SkelData -> Skel
+  // ---------------------------------------------------------------------------------------------
+
+  private static JSONObject toSkin(Skin skin, boolean nonessential) {
+    JSONObject object = new JSONObject();
+    object.put("name", skin.name());
+    object.put("slotArray", toArray(skin.slotList(), slot -> {
+      JSONObject slotObject = new JSONObject();
+      slotObject.put("index", slot.index());
+      slotObject.put("attachmentArray", toArray(
+          slot.attachmentList(), attachment -> toAttachment(attachment, nonessential)));
+      return slotObject;
+    }));
+    return object;
+  }
+
+  private static JSONObject toAttachment(Attachment attachment, boolean nonessential) {
+    JSONObject object = new JSONObject();
+    object.put("name1", attachment.name1());
+    object.put("name2", attachment.name2());
+    byte type = attachment.type();
+    object.put("type", type);
+    switch (type) {
+      case SkelData.ATTACHMENT_REGION -> {
+        object.put("path", attachment.path());
+        object.put("x", attachment.x());
+        object.put("y", attachment.y());
+        object.put("scaleX", attachment.scaleX());
+        object.put("scaleY", attachment.scaleY());
+        object.put("rotation", attachment.rotation());
+        object.put("width", attachment.width());
+        object.put("height", attachment.height());
+        object.put("color", attachment.color());
+      }
+      case SkelData.ATTACHMENT_BOUNDING_BOX -> {
+        object.put("vertexArray", attachment.vertexArray());
+      }
+      case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH -> {
+        object.put("path", attachment.path());
+        object.put("regionUVArray", attachment.regionUVArray());
+        object.put("triangleArray", attachment.triangleArray());
+        float[] vertexArray = attachment.vertexArray();
+        if (type == SkelData.ATTACHMENT_MESH) {
+          object.put("vertexArray", vertexArray);
+        } else {
+          object.put("vertexN", vertexArray.length);
+          JSONArray boneArray2d = new JSONArray();
+          for (int i = 0; i < vertexArray.length; ) {
+            int boneArrayN = (int) vertexArray[i++];
+            JSONArray boneArray = new JSONArray(boneArrayN);
+            for (int j = 0; j < boneArrayN; j++, i += 4) {
+              JSONObject bone = new JSONObject();
+              bone.put("index", (int) vertexArray[i]);
+              bone.put("x", vertexArray[i + 1]);
+              bone.put("y", vertexArray[i + 2]);
+              bone.put("weight", vertexArray[i + 3]);
+              boneArray.add(bone);
+            }
+            boneArray2d.add(boneArray);
+          }
+          object.put("boneArray2d", boneArray2d);
+        }
+        object.put("color", attachment.color());
+        object.put("_hullLengthX_", attachment.hullLengthX());
+        if (nonessential) {
+          object.put("edgeArray", attachment.edgeArray());
+          object.put("width", attachment.width());
+          object.put("height", attachment.height());
+        }
+      }
+      default -> throw LocX.of("Skel!UnexpectedAttachmentType")
+          .with("txt[Expect]", "{0,1,2,3}")
+          .with("txt[Actual]", type);
+    }
+    return object;
+  }
+
+  private static Skel.Animation toAnimation(Animation animation) {
+    Skel.Animation object = new Skel.Animation();
+    object.put("name", animation.getName());
+    object.put("slotArray", toArray(animation.getSlotList(), _SkelDataAdapter_::toTimelineGroup));
+    object.put("boneArray", toArray(animation.getBoneList(), _SkelDataAdapter_::toTimelineGroup));
+    object.put("ikTimelineArray", toArray(animation.getIkTimelineList(), timeline -> {
+      JSONObject timelineObject = new JSONObject();
+      timelineObject.put("ikIndex", timeline.ikIndex());
+      timelineObject.put("frameArray", toFrameArray(timeline.timeArray(), (frame, i) -> {
+        frame.put("min", timeline.mixArray()[i]);
+        frame.put("bendDirection", timeline.bendDirectionArray()[i]);
+      }, timeline.curves()));
+      return timelineObject;
+    }));
+    object.put("ffdArray", toArray(animation.getFfdList(), ffd -> {
+      JSONObject ffdObject = new JSONObject();
+      ffdObject.put("index", ffd.index());
+      ffdObject.put("slotArray", toArray(ffd.slotList(), slot -> {
+        JSONObject slotObject = new JSONObject();
+        slotObject.put("index", slot.index());
+        slotObject.put("timelineArray", toArray(slot.timelineList(), timeline -> {
+          JSONObject timelineObject = new JSONObject();
+          timelineObject.put("attachmentName", timeline.attachmentName());
+          timelineObject.put("frameArray", toFrameArray(timeline.timeArray(), (frame, i) -> {
+            float[] vertexArray = timeline.vertexArray2d()[i];
+            frame.put("end", vertexArray.length);
+            if (vertexArray.length != 0) {
+              frame.put("start", timeline.startArray()[i]);
+              frame.put("vertexArray", vertexArray);
+            }
+          }, timeline.curves()));
+          return timelineObject;
+        }));
+        return slotObject;
+      }));
+      return ffdObject;
+    }));
+    JSONObject drawOrderTimelineObject = new JSONObject();
+    DrawOrderTimeline drawOrderTimeline = animation.getDrawOrderTimeline();
+    if (drawOrderTimeline == null) {
+      drawOrderTimelineObject.put("frameArray", null);
+    } else {
+      JSONArray frameArray = new JSONArray(drawOrderTimeline.timeArray().length);
+      for (int i = 0; i < drawOrderTimeline.timeArray().length; i++) {
+        int[] offsetArray = drawOrderTimeline.offsetArray2d()[i];
+        JSONArray slotArray = new JSONArray(offsetArray.length >> 1);
+        for (int j = 0; j < offsetArray.length; j += 2) {
+          JSONObject slot = new JSONObject();
+          slot.put("index", offsetArray[j]);
+          slot.put("offset", offsetArray[j + 1]);
+          slotArray.add(slot);
+        }
+        JSONObject frame = new JSONObject();
+        frame.put("slotArray", slotArray);
+        frame.put("time", drawOrderTimeline.timeArray()[i]);
+        frameArray.add(frame);
+      }
+      drawOrderTimelineObject.put("frameArray", frameArray);
+    }
+    object.put("drawOrderTimeline", drawOrderTimelineObject);
+    JSONObject eventTimelineObject = new JSONObject();
+    EventTimeline eventTimeline = animation.getEventTimeline();
+    if (eventTimeline == null) {
+      eventTimelineObject.put("frameArray", null);
+    } else {
+      eventTimelineObject.put("frameArray", toFrameArray(eventTimeline.timeArray(), (frame, i) -> {
+        frame.put("eventIndex", eventTimeline.eventIndexArray()[i]);
+        frame.put("_intValue_", eventTimeline.intValueXArray()[i]);
+        frame.put("floatValue", eventTimeline.floatValueArray()[i]);
+        boolean hasStringValue = eventTimeline.hasStringValueArray()[i];
+        frame.put("hasStringValue", hasStringValue);
+        if (hasStringValue) {
+          frame.put("stringValue", eventTimeline.stringValueArray()[i]);
+        }
+      }, null));
+    }
+    object.put("eventTimeline", eventTimelineObject);
+    return object;
+  }
+
+  private static JSONObject toTimelineGroup(TimelineGroup group) {
+    JSONObject object = new JSONObject();
+    object.put("index", group.index());
+    object.put("timelineArray", toArray(group.timelineList(), timeline -> {
+      JSONObject timelineObject = new JSONObject();
+      timelineObject.put("type", timeline.type());
+      timelineObject.put("frameArray", toFrameArray(timeline));
+      return timelineObject;
+    }));
+    return object;
+  }
+
+  private static JSONArray toFrameArray(Timeline timeline) {
+    switch (timeline.type()) {
+      case SkelData.TIMELINE_COLOR -> {
+        ColorTimeline t = (ColorTimeline) timeline;
+        return toFrameArray(t.timeArray(), (frame, i) -> {
+          frame.put("color", t.colorArray()[i]);
+        }, t.curves());
+      }
+      case SkelData.TIMELINE_ATTACHMENT -> {
+        AttachmentTimeline t = (AttachmentTimeline) timeline;
+        return toFrameArray(t.timeArray(), (frame, i) -> {
+          frame.put("attachmentName", t.attachmentNameArray()[i]);
+        }, null);
+      }
+      case SkelData.TIMELINE_ROTATE -> {
+        RotateTimeline t = (RotateTimeline) timeline;
+        return toFrameArray(t.timeArray(), (frame, i) -> {
+          frame.put("angle", t.angleArray()[i]);
+        }, t.curves());
+      }
+      case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE -> {
+        VectorTimeline t = (VectorTimeline) timeline;
+        return toFrameArray(t.timeArray(), (frame, i) -> {
+          frame.put("x", t.xyArray()[i << 1]);
+          frame.put("y", t.xyArray()[(i << 1) + 1]);
+        }, t.curves());
+      }
+      case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y -> {
+        FlipTimeline t = (FlipTimeline) timeline;
+        return toFrameArray(t.timeArray(), (frame, i) -> {
+          frame.put("flip", t.flipArray()[i]);
+        }, null);
+      }
+      default -> throw LocX.of("Skel!UnexpectedTimelineType")
+          .with("txt[Expect]", "{0,1,2,3,4,5,6}")
+          .with("txt[Actual]", timeline.type());
+    }
+  }
+
+  private static JSONArray toFrameArray(float[] timeArray, FrameFiller filler, Curves curves) {
+    int n = timeArray.length;
+    JSONArray frameArray = new JSONArray(n);
+    for (int i = 0; i < n; i++) {
+      JSONObject frame = new JSONObject();
+      frame.put("time", timeArray[i]);
+      filler.fill(frame, i);
+      if ((curves != null) && ((i + 1) < n)) {
+        byte type = curves.typeArray()[i];
+        frame.put("curveType", type);
+        if (type == SkelData.CURVE_BEZIER) {
+          float[] bezierArray = curves.bezierArray();
+          frame.put("cx1", bezierArray[i << 2]);
+          frame.put("cy1", bezierArray[(i << 2) + 1]);
+          frame.put("cx2", bezierArray[(i << 2) + 2]);
+          frame.put("cy2", bezierArray[(i << 2) + 3]);
+        }
+      }
+      frameArray.add(frame);
+    }
+    return frameArray;
+  }
+
+  private static <T> JSONArray toArray(List<T> list, Function<T, Object> mapper) {
+    JSONArray array = new JSONArray(list.size());
+    for (T value : list) {
+      array.add(mapper.apply(value));
+    }
+    return array;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods, Skel -> SkelData
+  // ---------------------------------------------------------------------------------------------
+
+  private static Skin toSkinRecord(JSONObject skin, boolean nonessential) {
+    return new Skin(skin.getString("name"), toList(skin.getJSONArray("slotArray"),
+        slot -> new SkinSlot(slot.getIntValue("index"), toList(
+            slot.getJSONArray("attachmentArray"),
+            attachment -> toAttachmentRecord(attachment, nonessential)))));
+  }
+
+  private static Attachment toAttachmentRecord(JSONObject attachment, boolean nonessential) {
+    String name1 = attachment.getString("name1");
+    String name2 = attachment.getString("name2");
+    byte type = attachment.getByteValue("type");
+    return switch (type) {
+      case SkelData.ATTACHMENT_REGION -> new Attachment(
+          name1, name2, type, attachment.getString("path"),
+          attachment.getFloatValue("x"), attachment.getFloatValue("y"),
+          attachment.getFloatValue("scaleX"), attachment.getFloatValue("scaleY"),
+          attachment.getFloatValue("rotation"),
+          attachment.getFloatValue("width"), attachment.getFloatValue("height"),
+          attachment.getIntValue("color"), null, null, null, 0, null);
+      case SkelData.ATTACHMENT_BOUNDING_BOX -> new Attachment(
+          name1, name2, type, null,
+          0, 0, 0, 0, 0, 0, 0,
+          0, null, null, attachment.getObject("vertexArray", float[].class), 0, null);
+      case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH -> {
+        float[] vertexArray;
+        if (type == SkelData.ATTACHMENT_MESH) {
+          vertexArray = attachment.getObject("vertexArray", float[].class);
+        } else {
+          JSONArray boneArray2d = attachment.getJSONArray("boneArray2d");
+          int length = 0;
+          for (int i = 0; i < boneArray2d.size(); i++) {
+            length += 1 + (boneArray2d.getJSONArray(i).size() << 2);
+          }
+          vertexArray = new float[length];
+          int k = 0;
+          for (int i = 0; i < boneArray2d.size(); i++) {
+            JSONArray boneArray = boneArray2d.getJSONArray(i);
+            vertexArray[k++] = boneArray.size();
+            for (int j = 0; j < boneArray.size(); j++) {
+              JSONObject bone = boneArray.getJSONObject(j);
+              vertexArray[k++] = bone.getIntValue("index");
+              vertexArray[k++] = bone.getFloatValue("x");
+              vertexArray[k++] = bone.getFloatValue("y");
+              vertexArray[k++] = bone.getFloatValue("weight");
+            }
+          }
+        }
+        yield new Attachment(
+            name1, name2, type, attachment.getString("path"),
+            0, 0, 0, 0, 0,
+            nonessential ? attachment.getFloatValue("width") : 0,
+            nonessential ? attachment.getFloatValue("height") : 0,
+            attachment.getIntValue("color"),
+            attachment.getObject("regionUVArray", float[].class),
+            attachment.getObject("triangleArray", short[].class),
+            vertexArray,
+            attachment.getIntValue("_hullLengthX_"),
+            nonessential ? attachment.getObject("edgeArray", int[].class) : null);
+      }
+      default -> throw LocX.of("Skel!UnexpectedAttachmentType")
+          .with("txt[Expect]", "{0,1,2,3}")
+          .with("txt[Actual]", type);
+    };
+  }
+
+  private static Animation toAnimationRecord(JSONObject object) {
+    Animation animation = new Animation();
+    animation.setName(object.getString("name"));
+    animation.setSlotList(toList(object.getJSONArray("slotArray"),
+        _SkelDataAdapter_::toTimelineGroupRecord));
+    animation.setBoneList(toList(object.getJSONArray("boneArray"),
+        _SkelDataAdapter_::toTimelineGroupRecord));
+    animation.setIkTimelineList(toList(object.getJSONArray("ikTimelineArray"), timeline -> {
+      JSONArray frameArray = timeline.getJSONArray("frameArray");
+      int n = frameArray.size();
+      float[] mixArray = new float[n];
+      byte[] bendDirectionArray = new byte[n];
+      for (int i = 0; i < n; i++) {
+        JSONObject frame = frameArray.getJSONObject(i);
+        mixArray[i] = frame.getFloatValue("min");
+        bendDirectionArray[i] = frame.getByteValue("bendDirection");
+      }
+      return new IkTimeline(timeline.getIntValue("ikIndex"), toTimeArray(frameArray),
+          mixArray, bendDirectionArray, toCurves(frameArray));
+    }));
+    animation.setFfdList(toList(object.getJSONArray("ffdArray"), ffd -> new FfdSkin(
+        ffd.getIntValue("index"), toList(ffd.getJSONArray("slotArray"), slot -> new FfdSlot(
+            slot.getIntValue("index"), toList(slot.getJSONArray("timelineArray"), timeline -> {
+          JSONArray frameArray = timeline.getJSONArray("frameArray");
+          int n = frameArray.size();
+          int[] startArray = new int[n];
+          float[][] vertexArray2d = new float[n][];
+          for (int i = 0; i < n; i++) {
+            JSONObject frame = frameArray.getJSONObject(i);
+            if (frame.getIntValue("end") == 0) {
+              vertexArray2d[i] = new float[0];
+            } else {
+              startArray[i] = frame.getIntValue("start");
+              vertexArray2d[i] = frame.getObject("vertexArray", float[].class);
+            }
+          }
+          return new FfdTimeline(timeline.getString("attachmentName"),
+              toTimeArray(frameArray), startArray, vertexArray2d, toCurves(frameArray));
+        }))))));
+    JSONArray drawOrderFrameArray = object.getJSONObject("drawOrderTimeline")
+        .getJSONArray("frameArray");
+    if (drawOrderFrameArray != null) {
+      int n = drawOrderFrameArray.size();
+      int[][] offsetArray2d = new int[n][];
+      for (int i = 0; i < n; i++) {
+        JSONArray slotArray = drawOrderFrameArray.getJSONObject(i).getJSONArray("slotArray");
+        int[] offsetArray = new int[slotArray.size() << 1];
+        for (int j = 0; j < slotArray.size(); j++) {
+          offsetArray[j << 1] = slotArray.getJSONObject(j).getIntValue("index");
+          offsetArray[(j << 1) + 1] = slotArray.getJSONObject(j).getIntValue("offset");
+        }
+        offsetArray2d[i] = offsetArray;
+      }
+      animation.setDrawOrderTimeline(
+          new DrawOrderTimeline(toTimeArray(drawOrderFrameArray), offsetArray2d));
+    }
+    JSONArray eventFrameArray = object.getJSONObject("eventTimeline").getJSONArray("frameArray");
+    if (eventFrameArray != null) {
+      int n = eventFrameArray.size();
+      int[] eventIndexArray = new int[n];
+      int[] intValueXArray = new int[n];
+      float[] floatValueArray = new float[n];
+      boolean[] hasStringValueArray = new boolean[n];
+      String[] stringValueArray = new String[n];
+      for (int i = 0; i < n; i++) {
+        JSONObject frame = eventFrameArray.getJSONObject(i);
+        eventIndexArray[i] = frame.getIntValue("eventIndex");
+        intValueXArray[i] = frame.getIntValue("_intValue_");
+        floatValueArray[i] = frame.getFloatValue("floatValue");
+        hasStringValueArray[i] = frame.getBooleanValue("hasStringValue");
+        stringValueArray[i] = frame.getString("stringValue");
+      }
+      animation.setEventTimeline(new EventTimeline(toTimeArray(eventFrameArray),
+          eventIndexArray, intValueXArray, floatValueArray, hasStringValueArray,
+          stringValueArray));
+    }
+    return animation;
+  }
+
+  private static TimelineGroup toTimelineGroupRecord(JSONObject group) {
+    return new TimelineGroup(group.getIntValue("index"), toList(
+        group.getJSONArray("timelineArray"), _SkelDataAdapter_::toTimelineRecord));
+  }
+
+  private static Timeline toTimelineRecord(JSONObject timeline) {
+    byte type = timeline.getByteValue("type");
+    JSONArray frameArray = timeline.getJSONArray("frameArray");
+    int n = frameArray.size();
+    float[] timeArray = toTimeArray(frameArray);
+    switch (type) {
+      case SkelData.TIMELINE_COLOR -> {
+        int[] colorArray = new int[n];
+        for (int i = 0; i < n; i++) {
+          colorArray[i] = frameArray.getJSONObject(i).getIntValue("color");
+        }
+        return new ColorTimeline(timeArray, colorArray, toCurves(frameArray));
+      }
+      case SkelData.TIMELINE_ATTACHMENT -> {
+        String[] attachmentNameArray = new String[n];
+        for (int i = 0; i < n; i++) {
+          attachmentNameArray[i] = frameArray.getJSONObject(i).getString("attachmentName");
+        }
+        return new AttachmentTimeline(timeArray, attachmentNameArray);
+      }
+      case SkelData.TIMELINE_ROTATE -> {
+        float[] angleArray = new float[n];
+        for (int i = 0; i < n; i++) {
+          angleArray[i] = frameArray.getJSONObject(i).getFloatValue("angle");
+        }
+        return new RotateTimeline(timeArray, angleArray, toCurves(frameArray));
+      }
+      case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE -> {
+        float[] xyArray = new float[n << 1];
+        for (int i = 0; i < n; i++) {
+          xyArray[i << 1] = frameArray.getJSONObject(i).getFloatValue("x");
+          xyArray[(i << 1) + 1] = frameArray.getJSONObject(i).getFloatValue("y");
+        }
+        return new VectorTimeline(type, timeArray, xyArray, toCurves(frameArray));
+      }
+      case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y -> {
+        boolean[] flipArray = new boolean[n];
+        for (int i = 0; i < n; i++) {
+          flipArray[i] = frameArray.getJSONObject(i).getBooleanValue("flip");
+        }
+        return new FlipTimeline(type, timeArray, flipArray);
+      }
+      default -> throw LocX.of("Skel!UnexpectedTimelineType")
+          .with("txt[Expect]", "{0,1,2,3,4,5,6}")
+          .with("txt[Actual]", type);
+    }
+  }
+
+  private static float[] toTimeArray(JSONArray frameArray) {
+    float[] timeArray = new float[frameArray.size()];
+    for (int i = 0; i < timeArray.length; i++) {
+      timeArray[i] = frameArray.getJSONObject(i).getFloatValue("time");
+    }
+    return timeArray;
+  }
+
+  private static Curves toCurves(JSONArray frameArray) {
+    int curveN = Math.max(frameArray.size() - 1, 0);
+    byte[] typeArray = new byte[curveN];
+    float[] bezierArray = new float[curveN << 2];
+    for (int i = 0; i < curveN; i++) {
+      JSONObject frame = frameArray.getJSONObject(i);
+      typeArray[i] = frame.getByteValue("curveType");
+      if (typeArray[i] == SkelData.CURVE_BEZIER) {
+        bezierArray[i << 2] = frame.getFloatValue("cx1");
+        bezierArray[(i << 2) + 1] = frame.getFloatValue("cy1");
+        bezierArray[(i << 2) + 2] = frame.getFloatValue("cx2");
+        bezierArray[(i << 2) + 3] = frame.getFloatValue("cy2");
+      }
+    }
+    return new Curves(typeArray, bezierArray);
+  }
+
+  private static <T> List<T> toList(JSONArray array, Function<JSONObject, T> mapper) {
+    List<T> list = new ArrayList<>(array.size());
+    for (int i = 0; i < array.size(); i++) {
+      list.add(mapper.apply(array.getJSONObject(i)));
+    }
+    return list;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private interface FrameFiller {
+
+    void fill(JSONObject frame, int i);
+
+  }
+
+}
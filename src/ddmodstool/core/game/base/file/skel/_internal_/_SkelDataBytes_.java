@@ -0,0 +1,72 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import java.nio.ByteBuffer;
+
+/**
+ * Access to the bytes kept by a lazily read {@link SkelData}, which are not part of its API.
+ *
+ * <p>Installed once by {@link SkelData}, and used only by the typed reader and writer.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public abstract class _SkelDataBytes_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static void install(_SkelDataBytes_ bytes) {
+    if (instance != null) {
+      throw new IllegalStateException();
+    }
+    instance = bytes;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // bones, iks, slots, skins and events not decoded yet, null if read eagerly or decoded
+  public abstract ByteBuffer getSetupBytes(SkelData skel);
+
+  public abstract void setSetupBytes(SkelData skel, ByteBuffer setupBytes, boolean arraysShared);
+
+  // timelines not decoded yet (the bytes following the name), null if read eagerly or decoded
+  public abstract ByteBuffer getBodyBytes(Animation animation);
+
+  public abstract void setBodyBytes(
+      Animation animation, ByteBuffer bodyBytes, boolean arraysShared);
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static volatile _SkelDataBytes_ instance;
+
+  // ---------------------------------------------------------------------------------------------
+
+  // SkelData is initialized, and so is the instance, before any skel exists
+  static _SkelDataBytes_ get() {
+    return instance;
+  }
+
+}
@@ -0,0 +1,709 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import ddmodstool.core.game.base.file.skel.SkelData.Attachment;
+import ddmodstool.core.game.base.file.skel.SkelData.AttachmentTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Bone;
+import ddmodstool.core.game.base.file.skel.SkelData.ColorTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Curves;
+import ddmodstool.core.game.base.file.skel.SkelData.DrawOrderTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Event;
+import ddmodstool.core.game.base.file.skel.SkelData.EventTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSkin;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FlipTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Ik;
+import ddmodstool.core.game.base.file.skel.SkelData.IkTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.RotateTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Skin;
+import ddmodstool.core.game.base.file.skel.SkelData.SkinSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.Slot;
+import ddmodstool.core.game.base.file.skel.SkelData.Timeline;
+import ddmodstool.core.game.base.file.skel.SkelData.TimelineGroup;
+import ddmodstool.core.game.base.file.skel.SkelData.VectorTimeline;
+import ddmodstool.core.lang.util.IO;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * [ *.skel ] typed reader.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _SkelDataReader_ extends _SkelInput_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static SkelData read(Path path, boolean lazy, boolean arraysShared) {
+    Path absPath = path.toAbsolutePath();
+    try (_SkelDataReader_ r = new _SkelDataReader_(absPath, lazy, arraysShared)) {
+      return r.result;
+    } catch (Exception e) {
+      throw LocX.of(e).with("Skel#path", absPath);
+    }
+  }
+
+  // [start, end) of the name of each animation is [spanArray[i * 2], spanArray[i * 2 + 1])
+  static int[] scanAnimationNames(Path path, List<String> nameList) throws IOException {
+    try (_SkelDataReader_ r = new _SkelDataReader_(path, true, false)) {
+      for (Animation animation : r.result.reqAnimationList()) {
+        nameList.add(animation.getName());
+      }
+      return r.nameSpanArray;
+    }
+  }
+
+  // bytes are the setup kept by a lazy read
+  public static void readSetup(SkelData skel, ByteBuffer bytes, boolean arraysShared) {
+    try (_SkelDataReader_ r = new _SkelDataReader_(bytes, skel, arraysShared)) {
+      r.readSetup();
+    } catch (Exception e) {
+      throw LocX.of(e).with("Skel#path", skel.getPath());
+    }
+  }
+
+  // bytes are the body kept by a lazy read
+  public static void readAnimationBody(
+      Animation animation, ByteBuffer bytes, boolean arraysShared) {
+    try (_SkelDataReader_ r = new _SkelDataReader_(bytes, null, arraysShared)) {
+      r.readAnimationBody(animation);
+    } catch (Exception e) {
+      throw LocX.of(e);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final SkelData result;
+
+  private final boolean nonessential;
+  private final boolean arraysShared;
+
+  // [start, end) of each animation name, not null only if read lazily
+  private int[] nameSpanArray;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private Bone readBone() throws IOException {
+    return new Bone(
+        readAsciiString(), readVarint(),
+        readFloat(), readFloat(), readFloat(), readFloat(), readFloat(), readFloat(),
+        readBoolean(), readBoolean(), readBoolean(), readBoolean(),
+        nonessential ? readInt() : 0);
+  }
+
+  private Skin readSkin(String name) throws IOException {
+    return new Skin(name, readList(() -> new SkinSlot(readVarint(), readList(this::readAttachment))));
+  }
+
+  private void readSetup() throws IOException {
+    result.setBoneList(readList(this::readBone));
+    result.setIkList(readList(() -> new Ik(
+        readAsciiString(), readVarintArray(), readVarint(), readFloat(), readByte())));
+    result.setSlotList(readList(() -> new Slot(
+        readAsciiString(), readVarint(), readInt(), readAsciiString(), readVarint())));
+    result.setDefaultSkin(readSkin("default"));
+    result.setSkinList(readList(() -> readSkin(readAsciiString())));
+    result.setEventList(readList(() -> new Event(
+        readAsciiString(), readVarint(), readFloat(), readAsciiString())));
+  }
+
+  private Animation readAnimation() throws IOException {
+    Animation animation = new Animation();
+    animation.setName(readAsciiString());
+    readAnimationBody(animation);
+    return animation;
+  }
+
+  private void readAnimationBody(Animation animation) throws IOException {
+    animation.setSlotList(readList(() -> new TimelineGroup(
+        readVarint(), readList(this::readSlotTimeline))));
+    animation.setBoneList(readList(() -> new TimelineGroup(
+        readVarint(), readList(this::readBoneTimeline))));
+    animation.setIkTimelineList(readList(this::readIkTimeline));
+    animation.setFfdList(readList(() -> new FfdSkin(readVarint(), readList(() -> new FfdSlot(
+        readVarint(), readList(this::readFfdTimeline))))));
+    animation.setDrawOrderTimeline(readDrawOrderTimeline());
+    animation.setEventTimeline(readEventTimeline());
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private Attachment readAttachment() throws IOException {
+    String name1 = readAsciiString();
+    String name2 = readAsciiString();
+    byte type = readByte();
+    return switch (type) {
+      case SkelData.ATTACHMENT_REGION -> new Attachment(
+          name1, name2, type, readAsciiString(),
+          readFloat(), readFloat(), readFloat(), readFloat(), readFloat(), readFloat(), readFloat(),
+          readInt(), null, null, null, 0, null);
+      case SkelData.ATTACHMENT_BOUNDING_BOX -> new Attachment(
+          name1, name2, type, null,
+          0, 0, 0, 0, 0, 0, 0,
+          0, null, null, readFloats(readVarint()), 0, null);
+      case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH -> {
+        String path = readAsciiString();
+        float[] regionUVArray = readFloats(readVarint());
+        short[] triangleArray = readShorts(readVarint());
+        float[] vertexArray = (type == SkelData.ATTACHMENT_MESH) ?
+            readFloats(readVarint()) : readWeightedVertexArray();
+        int color = readInt();
+        int hullLengthX = readVarint();
+        int[] edgeArray = null;
+        float width = 0;
+        float height = 0;
+        if (nonessential) {
+          edgeArray = readVarintArray();
+          width = readFloat();
+          height = readFloat();
+        }
+        yield new Attachment(
+            name1, name2, type, path,
+            0, 0, 0, 0, 0, width, height,
+            color, regionUVArray, triangleArray, vertexArray, hullLengthX, edgeArray);
+      }
+      default -> throw LocX.of("Skel!UnexpectedAttachmentType")
+          .with("txt[Expect]", "{0,1,2,3}")
+          .with("txt[Actual]", type);
+    };
+  }
+
+  private float[] readWeightedVertexArray() throws IOException {
+    int vertexN = readVarint();
+    if (arraysShared) {
+      int start = bytes.position();
+      skipWeightedVertexArray(vertexN);
+      return _SkelArrayPool_.floats(bytes, start, (bytes.position() - start) >> 2);
+    }
+    float[] array = new float[vertexN];
+    int length = 0;
+    for (int i = 0; i < vertexN; i++) {
+      // readFloat is correct
+      float boneArrayN = readFloat();
+      array = ensureCapacity(array, length + 1);
+      array[length++] = boneArrayN;
+      for (int j = 0; j < (int) boneArrayN; j++, i += 4) {
+        array = ensureCapacity(array, length + 4);
+        array[length++] = readFloat();
+        array[length++] = readFloat();
+        array[length++] = readFloat();
+        array[length++] = readFloat();
+      }
+    }
+    return (length == array.length) ? array : Arrays.copyOf(array, length);
+  }
+
+  private Timeline readSlotTimeline() throws IOException {
+    byte type = readByte();
+    return switch (type) {
+      case SkelData.TIMELINE_COLOR -> {
+        int n = readVarint();
+        float[] timeArray = new float[n];
+        int[] colorArray = new int[n];
+        Curves curves = newCurves(n);
+        for (int i = 0; i < n; i++) {
+          timeArray[i] = readFloat();
+          colorArray[i] = readInt();
+          if ((i + 1) < n) {
+            readCurve(curves, i);
+          }
+        }
+        yield new ColorTimeline(timeArray, colorArray, curves);
+      }
+      case SkelData.TIMELINE_ATTACHMENT -> {
+        int n = readVarint();
+        float[] timeArray = new float[n];
+        String[] attachmentNameArray = new String[n];
+        for (int i = 0; i < n; i++) {
+          timeArray[i] = readFloat();
+          attachmentNameArray[i] = readAsciiString();
+        }
+        yield new AttachmentTimeline(timeArray, attachmentNameArray);
+      }
+      default -> throw LocX.of("Skel!UnexpectedTimelineType")
+          .with("txt[Expect]", "{3,4}")
+          .with("txt[Actual]", type);
+    };
+  }
+
+  private Timeline readBoneTimeline() throws IOException {
+    byte type = readByte();
+    return switch (type) {
+      case SkelData.TIMELINE_ROTATE -> {
+        int n = readVarint();
+        float[] timeArray = new float[n];
+        float[] angleArray = new float[n];
+        Curves curves = newCurves(n);
+        for (int i = 0; i < n; i++) {
+          timeArray[i] = readFloat();
+          angleArray[i] = readFloat();
+          if ((i + 1) < n) {
+            readCurve(curves, i);
+          }
+        }
+        yield new RotateTimeline(timeArray, angleArray, curves);
+      }
+      case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE -> {
+        int n = readVarint();
+        float[] timeArray = new float[n];
+        float[] xyArray = new float[n << 1];
+        Curves curves = newCurves(n);
+        for (int i = 0; i < n; i++) {
+          timeArray[i] = readFloat();
+          xyArray[i << 1] = readFloat();
+          xyArray[(i << 1) + 1] = readFloat();
+          if ((i + 1) < n) {
+            readCurve(curves, i);
+          }
+        }
+        yield new VectorTimeline(type, timeArray, xyArray, curves);
+      }
+      case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y -> {
+        int n = readVarint();
+        float[] timeArray = new float[n];
+        boolean[] flipArray = new boolean[n];
+        for (int i = 0; i < n; i++) {
+          timeArray[i] = readFloat();
+          flipArray[i] = readBoolean();
+        }
+        yield new FlipTimeline(type, timeArray, flipArray);
+      }
+      default -> throw LocX.of("Skel!UnexpectedTimelineType")
+          .with("txt[Expect]", "{0,1,2,5,6}")
+          .with("txt[Actual]", type);
+    };
+  }
+
+  private IkTimeline readIkTimeline() throws IOException {
+    int ikIndex = readVarint();
+    int n = readVarint();
+    float[] timeArray = new float[n];
+    float[] mixArray = new float[n];
+    byte[] bendDirectionArray = new byte[n];
+    Curves curves = newCurves(n);
+    for (int i = 0; i < n; i++) {
+      timeArray[i] = readFloat();
+      mixArray[i] = readFloat();
+      bendDirectionArray[i] = readByte();
+      if ((i + 1) < n) {
+        readCurve(curves, i);
+      }
+    }
+    return new IkTimeline(ikIndex, timeArray, mixArray, bendDirectionArray, curves);
+  }
+
+  private FfdTimeline readFfdTimeline() throws IOException {
+    String attachmentName = readAsciiString();
+    int n = readVarint();
+    float[] timeArray = new float[n];
+    int[] startArray = new int[n];
+    float[][] vertexArray2d = new float[n][];
+    Curves curves = newCurves(n);
+    for (int i = 0; i < n; i++) {
+      timeArray[i] = readFloat();
+      int end = readVarint();
+      if (end == 0) {
+        vertexArray2d[i] = EMPTY_FLOAT_ARRAY;
+      } else {
+        startArray[i] = readVarint();
+        vertexArray2d[i] = readFloats(end);
+      }
+      if ((i + 1) < n) {
+        readCurve(curves, i);
+      }
+    }
+    return new FfdTimeline(attachmentName, timeArray, startArray, vertexArray2d, curves);
+  }
+
+  private DrawOrderTimeline readDrawOrderTimeline() throws IOException {
+    int n = readVarint();
+    if (n == -1) {
+      return null;
+    }
+    float[] timeArray = new float[n];
+    int[][] offsetArray2d = new int[n][];
+    for (int i = 0; i < n; i++) {
+      int[] offsetArray = new int[readVarint() << 1];
+      for (int j = 0; j < offsetArray.length; j++) {
+        offsetArray[j] = readVarint();
+      }
+      offsetArray2d[i] = offsetArray;
+      timeArray[i] = readFloat();
+    }
+    return new DrawOrderTimeline(timeArray, offsetArray2d);
+  }
+
+  private EventTimeline readEventTimeline() throws IOException {
+    int n = readVarint();
+    if (n == -1) {
+      return null;
+    }
+    float[] timeArray = new float[n];
+    int[] eventIndexArray = new int[n];
+    int[] intValueXArray = new int[n];
+    float[] floatValueArray = new float[n];
+    boolean[] hasStringValueArray = new boolean[n];
+    String[] stringValueArray = new String[n];
+    for (int i = 0; i < n; i++) {
+      timeArray[i] = readFloat();
+      eventIndexArray[i] = readVarint();
+      intValueXArray[i] = readVarint();
+      floatValueArray[i] = readFloat();
+      hasStringValueArray[i] = readBoolean();
+      if (hasStringValueArray[i]) {
+        stringValueArray[i] = readAsciiString();
+      }
+    }
+    return new EventTimeline(timeArray, eventIndexArray, intValueXArray, floatValueArray,
+        hasStringValueArray, stringValueArray);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // skipXxx mirror readXxx without decoding anything but counts and types
+
+  private void skipSetup() throws IOException {
+    for (int n = readVarint(); n > 0; n--) {
+      // name, parent, x, y, scaleX, scaleY, rotation, length, flips & inherits, color
+      skipAsciiString();
+      readVarint();
+      skip(24 + 4 + (nonessential ? 4 : 0));
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      // name, bones, target, mix, bendDirection
+      skipAsciiString();
+      skipVarintArray();
+      readVarint();
+      skip(4 + 1);
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      // name, bone, color, attachment, blendMode
+      skipAsciiString();
+      readVarint();
+      skip(4);
+      skipAsciiString();
+      readVarint();
+    }
+    skipSkin();
+    for (int n = readVarint(); n > 0; n--) {
+      skipAsciiString();
+      skipSkin();
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      // name, int, float, string
+      skipAsciiString();
+      readVarint();
+      skip(4);
+      skipAsciiString();
+    }
+  }
+
+  private void skipSkin() throws IOException {
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+      for (int m = readVarint(); m > 0; m--) {
+        skipAttachment();
+      }
+    }
+  }
+
+  private void skipAttachment() throws IOException {
+    skipAsciiString();
+    skipAsciiString();
+    byte type = readByte();
+    switch (type) {
+      case SkelData.ATTACHMENT_REGION -> {
+        skipAsciiString();
+        skip((7 + 1) << 2);
+      }
+      case SkelData.ATTACHMENT_BOUNDING_BOX -> skipFloatArray();
+      case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH -> {
+        skipAsciiString();
+        skipFloatArray();
+        skipShortArray();
+        if (type == SkelData.ATTACHMENT_MESH) {
+          skipFloatArray();
+        } else {
+          skipWeightedVertexArray(readVarint());
+        }
+        skip(4);
+        readVarint();
+        if (nonessential) {
+          skipVarintArray();
+          skip(8);
+        }
+      }
+      default -> throw LocX.of("Skel!UnexpectedAttachmentType")
+          .with("txt[Expect]", "{0,1,2,3}")
+          .with("txt[Actual]", type);
+    }
+  }
+
+  private void skipWeightedVertexArray(int vertexN) {
+    for (int i = 0; i < vertexN; i++) {
+      int boneArrayN = (int) readFloat();
+      skip(boneArrayN << 4);
+      i += boneArrayN << 2;
+    }
+  }
+
+  private void skipAnimationBody() throws IOException {
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+      for (int m = readVarint(); m > 0; m--) {
+        byte type = readByte();
+        switch (type) {
+          case SkelData.TIMELINE_COLOR -> skipFrames(4 + 4, true);
+          case SkelData.TIMELINE_ATTACHMENT -> {
+            for (int i = readVarint(); i > 0; i--) {
+              skip(4);
+              skipAsciiString();
+            }
+          }
+          default -> throw LocX.of("Skel!UnexpectedTimelineType")
+              .with("txt[Expect]", "{3,4}")
+              .with("txt[Actual]", type);
+        }
+      }
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+      for (int m = readVarint(); m > 0; m--) {
+        byte type = readByte();
+        switch (type) {
+          case SkelData.TIMELINE_ROTATE -> skipFrames(4 + 4, true);
+          case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE -> skipFrames(4 + 8, true);
+          case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y -> skipFrames(4 + 1, false);
+          default -> throw LocX.of("Skel!UnexpectedTimelineType")
+              .with("txt[Expect]", "{0,1,2,5,6}")
+              .with("txt[Actual]", type);
+        }
+      }
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+      skipFrames(4 + 4 + 1, true);
+    }
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+      for (int m = readVarint(); m > 0; m--) {
+        readVarint();
+        for (int k = readVarint(); k > 0; k--) {
+          skipAsciiString();
+          int frameN = readVarint();
+          for (int i = 0; i < frameN; i++) {
+            skip(4);
+            int end = readVarint();
+            if (end != 0) {
+              readVarint();
+              skip(end << 2);
+            }
+            if ((i + 1) < frameN) {
+              skipCurve();
+            }
+          }
+        }
+      }
+    }
+    int drawOrderN = readVarint();
+    for (int i = 0; i < drawOrderN; i++) {
+      for (int j = readVarint() << 1; j > 0; j--) {
+        readVarint();
+      }
+      skip(4);
+    }
+    int eventN = readVarint();
+    for (int i = 0; i < eventN; i++) {
+      skip(4);
+      readVarint();
+      readVarint();
+      skip(4);
+      if (readBoolean()) {
+        skipAsciiString();
+      }
+    }
+  }
+
+  // frames of fixed size, each but the last one followed by a curve if curved
+  private void skipFrames(int frameSize, boolean curved) throws IOException {
+    int n = readVarint();
+    for (int i = 0; i < n; i++) {
+      skip(frameSize);
+      if (curved && ((i + 1) < n)) {
+        skipCurve();
+      }
+    }
+  }
+
+  private void skipCurve() throws IOException {
+    if (readByte() == SkelData.CURVE_BEZIER) {
+      skip(16);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private void readCurve(Curves curves, int i) throws IOException {
+    byte type = readByte();
+    curves.typeArray()[i] = type;
+    if (type == SkelData.CURVE_BEZIER) {
+      float[] bezierArray = curves.bezierArray();
+      bezierArray[i << 2] = readFloat();
+      bezierArray[(i << 2) + 1] = readFloat();
+      bezierArray[(i << 2) + 2] = readFloat();
+      bezierArray[(i << 2) + 3] = readFloat();
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private float[] readFloats(int n) {
+    if (!arraysShared) {
+      return readFloatArray(n);
+    }
+    int start = bytes.position();
+    skip(n << 2);
+    return _SkelArrayPool_.floats(bytes, start, n);
+  }
+
+  private short[] readShorts(int n) {
+    if (!arraysShared) {
+      return readShortArray(n);
+    }
+    int start = bytes.position();
+    skip(n << 1);
+    return _SkelArrayPool_.shorts(bytes, start, n);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private <T> List<T> readList(Reader<T> reader) throws IOException {
+    int n = readVarint();
+    List<T> list = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      list.add(reader.read());
+    }
+    return list;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _SkelDataReader_(Path path, boolean lazy, boolean arraysShared) throws IOException {
+    super(path);
+    result = new SkelData();
+    result.setPath(path);
+    this.arraysShared = arraysShared;
+    // --- do read ---
+    String filename = IO.name(path);
+    Matcher filenameMatcher = Pattern.compile("([^.]+)\\.sprite\\.(.*)\\.skel").matcher(filename);
+    if (!filenameMatcher.find()) {
+      throw LocX.of("Skel!InvalidFilename")
+          .with("txt[Expect]", "*.sprite.*.skel")
+          .with("txt[Actual]", filename);
+    }
+    result.setOwner(filenameMatcher.group(1));
+    result.setIdent(filenameMatcher.group(2));
+    result.setHash(readAsciiString());
+    result.setVersion(readAsciiString());
+    result.setWidth(readFloat());
+    result.setHeight(readFloat());
+    nonessential = readBoolean();
+    result.setNonessential(nonessential);
+    if (nonessential) {
+      result.setImagesPath(readAsciiString());
+    }
+    if (!lazy) {
+      readSetup();
+      result.setAnimationList(readList(this::readAnimation));
+    } else {
+      int setupStart = bytes.position();
+      skipSetup();
+      _SkelDataBytes_.get().setSetupBytes(
+          result, slice(setupStart, bytes.position()), arraysShared);
+      int n = readVarint();
+      List<Animation> animationList = new ArrayList<>(n);
+      nameSpanArray = new int[n << 1];
+      for (int i = 0; i < n; i++) {
+        Animation animation = new Animation();
+        nameSpanArray[i << 1] = bytes.position();
+        animation.setName(readAsciiString());
+        int bodyStart = bytes.position();
+        nameSpanArray[(i << 1) + 1] = bodyStart;
+        skipAnimationBody();
+        _SkelDataBytes_.get().setBodyBytes(
+            animation, slice(bodyStart, bytes.position()), arraysShared);
+        animationList.add(animation);
+      }
+      result.setAnimationList(animationList);
+    }
+  }
+
+  private _SkelDataReader_(ByteBuffer bytes, SkelData skel, boolean arraysShared) {
+    super(bytes);
+    result = skel;
+    nonessential = (skel != null) && skel.isNonessential();
+    this.arraysShared = arraysShared;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final float[] EMPTY_FLOAT_ARRAY = new float[0];
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static Curves newCurves(int frameN) {
+    int curveN = Math.max(frameN - 1, 0);
+    return new Curves(new byte[curveN], new float[curveN << 2]);
+  }
+
+  private static float[] ensureCapacity(float[] array, int capacity) {
+    return (array.length >= capacity) ?
+        array : Arrays.copyOf(array, Math.max(capacity, array.length << 1));
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private interface Reader<T> {
+
+    T read() throws IOException;
+
+  }
+
+}
@@ -0,0 +1,384 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelData.Animation;
+import ddmodstool.core.game.base.file.skel.SkelData.Attachment;
+import ddmodstool.core.game.base.file.skel.SkelData.AttachmentTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Bone;
+import ddmodstool.core.game.base.file.skel.SkelData.ColorTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Curves;
+import ddmodstool.core.game.base.file.skel.SkelData.DrawOrderTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Event;
+import ddmodstool.core.game.base.file.skel.SkelData.EventTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSkin;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.FfdTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.FlipTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Ik;
+import ddmodstool.core.game.base.file.skel.SkelData.IkTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.RotateTimeline;
+import ddmodstool.core.game.base.file.skel.SkelData.Skin;
+import ddmodstool.core.game.base.file.skel.SkelData.SkinSlot;
+import ddmodstool.core.game.base.file.skel.SkelData.Slot;
+import ddmodstool.core.game.base.file.skel.SkelData.Timeline;
+import ddmodstool.core.game.base.file.skel.SkelData.TimelineGroup;
+import ddmodstool.core.game.base.file.skel.SkelData.VectorTimeline;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * [ *.skel ] typed writer.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _SkelDataWriter_ extends _SkelOutput_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  public static void write(Path path, SkelData skel) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      new _SkelDataWriter_(skel).writeTo(absPath);
+    } catch (Exception e) {
+      throw LocX.of(e).with("Skel#path", absPath);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private final boolean nonessential;
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void writeBone(Bone bone) throws IOException {
+    writeAsciiString(bone.name());
+    writeVarint(bone.parentId());
+    writeFloat(bone.x());
+    writeFloat(bone.y());
+    writeFloat(bone.scaleX());
+    writeFloat(bone.scaleY());
+    writeFloat(bone.rotation());
+    writeFloat(bone.length());
+    writeBoolean(bone.flipX());
+    writeBoolean(bone.flipY());
+    writeBoolean(bone.inheritScale());
+    writeBoolean(bone.inheritRotation());
+    if (nonessential) {
+      writeInt(bone.color());
+    }
+  }
+
+  private void writeSkin(Skin skin, boolean writeName) throws IOException {
+    if (writeName) {
+      writeAsciiString(skin.name());
+    }
+    writeList(skin.slotList(), (SkinSlot slot) -> {
+      writeVarint(slot.index());
+      writeList(slot.attachmentList(), this::writeAttachment);
+    });
+  }
+
+  private void writeAnimation(Animation animation) throws IOException {
+    writeAsciiString(animation.getName());
+    ByteBuffer bodyBytes = _SkelDataBytes_.get().getBodyBytes(animation);
+    if (bodyBytes != null) {
+      // untouched since a lazy read
+      writeBytes(bodyBytes.duplicate());
+      return;
+    }
+    writeList(animation.getSlotList(), (TimelineGroup slot) -> {
+      writeVarint(slot.index());
+      writeList(slot.timelineList(), this::writeTimeline);
+    });
+    writeList(animation.getBoneList(), (TimelineGroup bone) -> {
+      writeVarint(bone.index());
+      writeList(bone.timelineList(), this::writeTimeline);
+    });
+    writeList(animation.getIkTimelineList(), this::writeIkTimeline);
+    writeList(animation.getFfdList(), (FfdSkin ffd) -> {
+      writeVarint(ffd.index());
+      writeList(ffd.slotList(), (FfdSlot slot) -> {
+        writeVarint(slot.index());
+        writeList(slot.timelineList(), this::writeFfdTimeline);
+      });
+    });
+    writeDrawOrderTimeline(animation.getDrawOrderTimeline());
+    writeEventTimeline(animation.getEventTimeline());
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private void writeAttachment(Attachment attachment) throws IOException {
+    writeAsciiString(attachment.name1());
+    writeAsciiString(attachment.name2());
+    byte type = attachment.type();
+    writeByte(type);
+    switch (type) {
+      case SkelData.ATTACHMENT_REGION -> {
+        writeAsciiString(attachment.path());
+        writeFloat(attachment.x());
+        writeFloat(attachment.y());
+        writeFloat(attachment.scaleX());
+        writeFloat(attachment.scaleY());
+        writeFloat(attachment.rotation());
+        writeFloat(attachment.width());
+        writeFloat(attachment.height());
+        writeInt(attachment.color());
+      }
+      case SkelData.ATTACHMENT_BOUNDING_BOX -> {
+        writeFloatArray(attachment.vertexArray());
+      }
+      case SkelData.ATTACHMENT_MESH, SkelData.ATTACHMENT_SKINNED_MESH -> {
+        writeAsciiString(attachment.path());
+        writeFloatArray(attachment.regionUVArray());
+        writeShortArray(attachment.triangleArray());
+        // the weighted vertices of skinned meshes are prefixed by the count of floats too
+        writeFloatArray(attachment.vertexArray());
+        writeInt(attachment.color());
+        writeVarint(attachment.hullLengthX());
+        if (nonessential) {
+          writeVarintArray(attachment.edgeArray());
+          writeFloat(attachment.width());
+          writeFloat(attachment.height());
+        }
+      }
+      default -> throw LocX.of("Skel!UnexpectedAttachmentType")
+          .with("txt[Expect]", "{0,1,2,3}")
+          .with("txt[Actual]", type);
+    }
+  }
+
+  private void writeTimeline(Timeline timeline) throws IOException {
+    byte type = timeline.type();
+    writeByte(type);
+    float[] timeArray = timeline.timeArray();
+    int n = timeArray.length;
+    writeVarint(n);
+    switch (type) {
+      case SkelData.TIMELINE_COLOR -> {
+        ColorTimeline colorTimeline = (ColorTimeline) timeline;
+        for (int i = 0; i < n; i++) {
+          writeFloat(timeArray[i]);
+          writeInt(colorTimeline.colorArray()[i]);
+          if ((i + 1) < n) {
+            writeCurve(colorTimeline.curves(), i);
+          }
+        }
+      }
+      case SkelData.TIMELINE_ATTACHMENT -> {
+        AttachmentTimeline attachmentTimeline = (AttachmentTimeline) timeline;
+        for (int i = 0; i < n; i++) {
+          writeFloat(timeArray[i]);
+          writeAsciiString(attachmentTimeline.attachmentNameArray()[i]);
+        }
+      }
+      case SkelData.TIMELINE_ROTATE -> {
+        RotateTimeline rotateTimeline = (RotateTimeline) timeline;
+        for (int i = 0; i < n; i++) {
+          writeFloat(timeArray[i]);
+          writeFloat(rotateTimeline.angleArray()[i]);
+          if ((i + 1) < n) {
+            writeCurve(rotateTimeline.curves(), i);
+          }
+        }
+      }
+      case SkelData.TIMELINE_TRANSLATE, SkelData.TIMELINE_SCALE -> {
+        VectorTimeline vectorTimeline = (VectorTimeline) timeline;
+        for (int i = 0; i < n; i++) {
+          writeFloat(timeArray[i]);
+          writeFloat(vectorTimeline.xyArray()[i << 1]);
+          writeFloat(vectorTimeline.xyArray()[(i << 1) + 1]);
+          if ((i + 1) < n) {
+            writeCurve(vectorTimeline.curves(), i);
+          }
+        }
+      }
+      case SkelData.TIMELINE_FLIP_X, SkelData.TIMELINE_FLIP_Y -> {
+        FlipTimeline flipTimeline = (FlipTimeline) timeline;
+        for (int i = 0; i < n; i++) {
+          writeFloat(timeArray[i]);
+          writeBoolean(flipTimeline.flipArray()[i]);
+        }
+      }
+      default -> throw LocX.of("Skel!UnexpectedTimelineType")
+          .with("txt[Expect]", "{0,1,2,3,4,5,6}")
+          .with("txt[Actual]", type);
+    }
+  }
+
+  private void writeIkTimeline(IkTimeline timeline) throws IOException {
+    writeVarint(timeline.ikIndex());
+    float[] timeArray = timeline.timeArray();
+    int n = timeArray.length;
+    writeVarint(n);
+    for (int i = 0; i < n; i++) {
+      writeFloat(timeArray[i]);
+      writeFloat(timeline.mixArray()[i]);
+      writeByte(timeline.bendDirectionArray()[i]);
+      if ((i + 1) < n) {
+        writeCurve(timeline.curves(), i);
+      }
+    }
+  }
+
+  private void writeFfdTimeline(FfdTimeline timeline) throws IOException {
+    writeAsciiString(timeline.attachmentName());
+    float[] timeArray = timeline.timeArray();
+    int n = timeArray.length;
+    writeVarint(n);
+    for (int i = 0; i < n; i++) {
+      writeFloat(timeArray[i]);
+      float[] vertexArray = timeline.vertexArray2d()[i];
+      writeVarint(vertexArray.length);
+      if (vertexArray.length != 0) {
+        writeVarint(timeline.startArray()[i]);
+        writeFloats(vertexArray);
+      }
+      if ((i + 1) < n) {
+        writeCurve(timeline.curves(), i);
+      }
+    }
+  }
+
+  private void writeDrawOrderTimeline(DrawOrderTimeline timeline) throws IOException {
+    if (timeline == null) {
+      writeVarint(-1);
+      return;
+    }
+    float[] timeArray = timeline.timeArray();
+    writeVarint(timeArray.length);
+    for (int i = 0; i < timeArray.length; i++) {
+      int[] offsetArray = timeline.offsetArray2d()[i];
+      writeVarint(offsetArray.length >> 1);
+      for (int offset : offsetArray) {
+        writeVarint(offset);
+      }
+      writeFloat(timeArray[i]);
+    }
+  }
+
+  private void writeEventTimeline(EventTimeline timeline) throws IOException {
+    if (timeline == null) {
+      writeVarint(-1);
+      return;
+    }
+    float[] timeArray = timeline.timeArray();
+    writeVarint(timeArray.length);
+    for (int i = 0; i < timeArray.length; i++) {
+      writeFloat(timeArray[i]);
+      writeVarint(timeline.eventIndexArray()[i]);
+      writeVarint(timeline.intValueXArray()[i]);
+      writeFloat(timeline.floatValueArray()[i]);
+      boolean hasStringValue = timeline.hasStringValueArray()[i];
+      writeBoolean(hasStringValue);
+      if (hasStringValue) {
+        writeAsciiString(timeline.stringValueArray()[i]);
+      }
+    }
+  }
+
+  private void writeCurve(Curves curves, int i) throws IOException {
+    byte type = curves.typeArray()[i];
+    writeByte(type);
+    if (type == SkelData.CURVE_BEZIER) {
+      float[] bezierArray = curves.bezierArray();
+      writeFloat(bezierArray[i << 2]);
+      writeFloat(bezierArray[(i << 2) + 1]);
+      writeFloat(bezierArray[(i << 2) + 2]);
+      writeFloat(bezierArray[(i << 2) + 3]);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private <T> void writeList(List<T> list, Writer<T> writer) throws IOException {
+    writeVarint(list.size());
+    for (T value : list) {
+      writer.write(value);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  private _SkelDataWriter_(SkelData skel) throws IOException {
+    this.nonessential = skel.isNonessential();
+    // --- do write ---
+    writeAsciiString(skel.getHash());
+    writeAsciiString(skel.getVersion());
+    writeFloat(skel.getWidth());
+    writeFloat(skel.getHeight());
+    writeBoolean(nonessential);
+    if (nonessential) {
+      writeAsciiString(skel.getImagesPath());
+    }
+    ByteBuffer setupBytes = _SkelDataBytes_.get().getSetupBytes(skel);
+    if (setupBytes != null) {
+      // untouched since a lazy read
+      writeBytes(setupBytes.duplicate());
+      writeList(skel.getAnimationList(), this::writeAnimation);
+      return;
+    }
+    writeList(skel.getBoneList(), this::writeBone);
+    writeList(skel.getIkList(), (Ik ik) -> {
+      writeAsciiString(ik.name());
+      writeVarintArray(ik.boneIndexArray());
+      writeVarint(ik.targetBoneIndex());
+      writeFloat(ik.mix());
+      writeByte(ik.bendDirection());
+    });
+    writeList(skel.getSlotList(), (Slot slot) -> {
+      writeAsciiString(slot.name());
+      writeVarint(slot.boneIndex());
+      writeInt(slot.color());
+      writeAsciiString(slot.attachmentName());
+      writeVarint(slot.blendMode());
+    });
+    writeSkin(skel.getDefaultSkin(), false);
+    writeList(skel.getSkinList(), skin -> writeSkin(skin, true));
+    writeList(skel.getEventList(), (Event event) -> {
+      writeAsciiString(event.name());
+      writeVarint(event.intValueX());
+      writeFloat(event.floatValue());
+      writeAsciiString(event.stringValue());
+    });
+    writeList(skel.getAnimationList(), this::writeAnimation);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticClasses
+  // ---------------------------------------------------------------------------------------------
+
+  private interface Writer<T> {
+
+    void write(T value) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * [ *.skel ] input, big-endian primitives over the whole file loaded into a heap buffer, or over
+ * a part of it kept by a lazily read skel.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+abstract class _SkelInput_ implements AutoCloseable {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  final ByteBuffer bytes;
+
+  // ---------------------------------------------------------------------------------------------
+  // @Override PublicMethods, AutoCloseable
+  // ---------------------------------------------------------------------------------------------
+
+  @Override
+  public void close() {
+    // nothing to release, the file is closed once loaded
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageMethods
+  // ---------------------------------------------------------------------------------------------
+
+  final byte readByte() {
+    return bytes.get();
+  }
+
+  final boolean readBoolean() {
+    return bytes.get() != 0;
+  }
+
+  final short readShort() {
+    return bytes.getShort();
+  }
+
+  final int readInt() {
+    return bytes.getInt();
+  }
+
+  final float readFloat() {
+    return bytes.getFloat();
+  }
+
+  final int readVarint() {
+    ByteBuffer bytes = this.bytes;
+    int b = bytes.get();
+    int varint = b & 0x7F;
+    if ((b & 0x80) != 0) {
+      b = bytes.get();
+      varint |= (b & 0x7F) << 7;
+      if ((b & 0x80) != 0) {
+        b = bytes.get();
+        varint |= (b & 0x7F) << 14;
+        if ((b & 0x80) != 0) {
+          b = bytes.get();
+          varint |= (b & 0x7F) << 21;
+          if ((b & 0x80) != 0) {
+            b = bytes.get();
+            varint |= (b & 0x7F) << 28;
+          }
+        }
+      }
+    }
+    return varint;
+  }
+
+  final String readAsciiString() {
+    int n = readVarint();
+    if (n == 0) {
+      return null;
+    } else if (n == 1) {
+      return "";
+    }
+    n = n - 1;
+    int position = bytes.position();
+    bytes.position(position + n);
+    return new String(bytes.array(), bytes.arrayOffset() + position, n,
+        StandardCharsets.ISO_8859_1);
+  }
+
+  final short[] readShortArray() {
+    return readShortArray(readVarint());
+  }
+
+  final short[] readShortArray(int n) {
+    short[] array = new short[n];
+    bytes.asShortBuffer().get(array);
+    bytes.position(bytes.position() + (array.length << 1));
+    return array;
+  }
+
+  final int[] readVarintArray() {
+    int n = readVarint();
+    int[] array = new int[n];
+    for (int i = 0; i < n; i++) {
+      array[i] = readVarint();
+    }
+    return array;
+  }
+
+  final float[] readFloatArray() {
+    return readFloatArray(readVarint());
+  }
+
+  final float[] readFloatArray(int n) {
+    float[] array = new float[n];
+    bytes.asFloatBuffer().get(array);
+    bytes.position(bytes.position() + (n << 2));
+    return array;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  final void skip(int length) {
+    bytes.position(bytes.position() + length);
+  }
+
+  final void skipAsciiString() {
+    int n = readVarint();
+    if (n > 1) {
+      skip(n - 1);
+    }
+  }
+
+  final void skipShortArray() {
+    skip(readVarint() << 1);
+  }
+
+  final void skipVarintArray() {
+    for (int n = readVarint(); n > 0; n--) {
+      readVarint();
+    }
+  }
+
+  final void skipFloatArray() {
+    skip(readVarint() << 2);
+  }
+
+  // returns a view of [start, end) sharing the loaded bytes
+  final ByteBuffer slice(int start, int end) {
+    return bytes.slice(start, end - start);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  _SkelInput_(Path path) throws IOException {
+    this.bytes = load(path);
+  }
+
+  _SkelInput_(ByteBuffer bytes) {
+    this.bytes = bytes;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // the file is not mapped, a mapping would keep it locked (on windows) while it is replaced
+  private static ByteBuffer load(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+      while ((channel.read(buffer) >= 0) && buffer.hasRemaining()) {
+        // read until eof
+      }
+      return buffer.flip();
+    }
+  }
+
+}
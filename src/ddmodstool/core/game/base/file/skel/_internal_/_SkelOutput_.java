@@ -0,0 +1,168 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import ddmodstool.core.lang.util.IO;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * [ *.skel ] output, big-endian primitives encoded into a growable direct buffer.
+ *
+ * <p>The encoded bytes are written with a single channel write, see {@link IO#replace}.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+abstract class _SkelOutput_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private ByteBuffer bytes = take();
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageMethods
+  // ---------------------------------------------------------------------------------------------
+
+  final void writeTo(Path path) {
+    ByteBuffer bytes = this.bytes.flip();
+    try {
+      IO.replace(path, channel -> {
+        while (bytes.hasRemaining()) {
+          channel.write(bytes);
+        }
+      });
+    } finally {
+      release(bytes);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  final void writeByte(int value) {
+    reqRemaining(1).put((byte) value);
+  }
+
+  final void writeBoolean(boolean value) {
+    reqRemaining(1).put((byte) (value ? 1 : 0));
+  }
+
+  final void writeShort(int value) {
+    reqRemaining(2).putShort((short) value);
+  }
+
+  final void writeInt(int value) {
+    reqRemaining(4).putInt(value);
+  }
+
+  final void writeFloat(float value) {
+    reqRemaining(4).putFloat(value);
+  }
+
+  final void writeVarint(int value) {
+    ByteBuffer bytes = reqRemaining(5);
+    while ((value & ~0x7F) != 0) {
+      bytes.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    bytes.put((byte) value);
+  }
+
+  final void writeAsciiString(String value) {
+    if (value == null) {
+      writeVarint(0);
+    } else {
+      int n = value.length();
+      writeVarint(n + 1);
+      ByteBuffer bytes = reqRemaining(n);
+      for (int i = 0; i < n; i++) {
+        bytes.put((byte) value.charAt(i));
+      }
+    }
+  }
+
+  final void writeShortArray(short[] array) {
+    writeVarint(array.length);
+    ByteBuffer bytes = reqRemaining(array.length << 1);
+    bytes.asShortBuffer().put(array);
+    bytes.position(bytes.position() + (array.length << 1));
+  }
+
+  final void writeVarintArray(int[] array) {
+    writeVarint(array.length);
+    for (int value : array) {
+      writeVarint(value);
+    }
+  }
+
+  final void writeFloatArray(float[] array) {
+    writeVarint(array.length);
+    writeFloats(array);
+  }
+
+  // without the length prefix
+  final void writeFloats(float[] array) {
+    ByteBuffer bytes = reqRemaining(array.length << 2);
+    bytes.asFloatBuffer().put(array);
+    bytes.position(bytes.position() + (array.length << 2));
+  }
+
+  // already encoded, e.g. kept by a lazy read
+  final void writeBytes(ByteBuffer src) {
+    reqRemaining(src.remaining()).put(src);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void release(ByteBuffer bytes) {
+    if (bytes.capacity() <= MAX_RETAINED_CAPACITY) {
+      threadLocalBuffer.set(bytes);
+    }
+  }
+
+  private ByteBuffer reqRemaining(int length) {
+    ByteBuffer bytes = this.bytes;
+    if (bytes.remaining() < length) {
+      int capacity = Math.max(bytes.capacity() << 1, bytes.position() + length);
+      bytes = ByteBuffer.allocateDirect(capacity).put(bytes.flip());
+      this.bytes = bytes;
+    }
+    return bytes;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  // buffers larger than this are left to the gc instead of being kept by the thread
+  private static final int MAX_RETAINED_CAPACITY = 1 << 23;
+
+  // taken by an output and given back once written, so outputs alive at once never share it
+  private static final ThreadLocal<ByteBuffer> threadLocalBuffer =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(1 << 16));
+
+  private static ByteBuffer take() {
+    ByteBuffer bytes = threadLocalBuffer.get();
+    threadLocalBuffer.set(null);
+    // null if the one of the thread is taken, e.g. by a nested encode
+    return (bytes == null) ? ByteBuffer.allocateDirect(1 << 16) : bytes.clear();
+  }
+
+}
@@ -22,7 +22,6 @@ import ddmodstool.core.game.base.data.localization.LocX;
 import ddmodstool.core.game.base.file.skel.Skel;
 import ddmodstool.core.game.base.file.skel.Skel.Animation;
 import ddmodstool.core.lang.util.IO;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.regex.Matcher;
@@ -34,7 +33,7 @@ import java.util.regex.Pattern;
  * @author wautsns
  * @since 1.0.0
  */
-public final class _SkelReader_ extends DataInputStream {
+public final class _SkelReader_ extends _SkelInput_ {
 
   // ---------------------------------------------------------------------------------------------
   // PublicStaticMethods
@@ -346,73 +345,6 @@ public final class _SkelReader_ extends DataInputStream {
 
   // ---------------------------------------------------------------------------------------------
 
-  private int readVarint() throws IOException {
-    int b = readByte();
-    int varint = b & 0x7F;
-    if ((b & 0x80) != 0) {
-      b = readByte();
-      varint |= (b & 0x7F) << 7;
-      if ((b & 0x80) != 0) {
-        b = readByte();
-        varint |= (b & 0x7F) << 14;
-        if ((b & 0x80) != 0) {
-          b = readByte();
-          varint |= (b & 0x7F) << 21;
-          if ((b & 0x80) != 0) {
-            b = readByte();
-            varint |= (b & 0x7F) << 28;
-          }
-        }
-      }
-    }
-    return varint;
-  }
-
-  private String readAsciiString() throws IOException {
-    int n = readVarint();
-    if (n == 0) {
-      return null;
-    } else if (n == 1) {
-      return "";
-    }
-    n = n - 1;
-    StringBuilder bu = new StringBuilder(n);
-    for (int i = 0; i < n; i++) {
-      bu.append((char) (readByte() & 0xFF));
-    }
-    return bu.toString();
-  }
-
-  private short[] readShortArray() throws IOException {
-    int n = readVarint();
-    short[] array = new short[n];
-    for (int i = 0; i < n; i++) {
-      array[i] = readShort();
-    }
-    return array;
-  }
-
-  private int[] readVarintArray() throws IOException {
-    int n = readVarint();
-    int[] array = new int[n];
-    for (int i = 0; i < n; i++) {
-      array[i] = readVarint();
-    }
-    return array;
-  }
-
-  private float[] readFloatArray() throws IOException {
-    return readFloatArray(readVarint());
-  }
-
-  private float[] readFloatArray(int n) throws IOException {
-    float[] array = new float[n];
-    for (int i = 0; i < n; i++) {
-      array[i] = readFloat();
-    }
-    return array;
-  }
-
   private JSONArray readArray(Reader reader) throws IOException {
     int n = readVarint();
     JSONArray array = new JSONArray(n);
@@ -448,7 +380,7 @@ public final class _SkelReader_ extends DataInputStream {
   // ---------------------------------------------------------------------------------------------
 
   private _SkelReader_(Path path) throws IOException {
-    super(IO.input(path));
+    super(path);
     result.setPath(path);
     // --- do read ---
     String filename = IO.name(path);
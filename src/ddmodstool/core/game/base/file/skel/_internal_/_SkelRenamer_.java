@@ -0,0 +1,126 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.skel._internal_;
+
+import static java.lang.String.format;
+
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.lang.util.IO;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * [ *.skel ] animation renamer.
+ *
+ * <p>Nothing but the names of animations is decoded, bytes between them are copied from file to
+ * file by the channel.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class _SkelRenamer_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  // returns the number of renamed animations, the file is not touched if none is renamed
+  public static int rename(Path path, UnaryOperator<String> renamer) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      List<String> nameList = new ArrayList<>();
+      int[] spanArray = _SkelDataReader_.scanAnimationNames(absPath, nameList);
+      String[] newNameArray = new String[nameList.size()];
+      int renamedN = 0;
+      for (int i = 0; i < newNameArray.length; i++) {
+        String name = nameList.get(i);
+        String newName = renamer.apply(name);
+        if ((newName != null) && !Objects.equals(newName, name)) {
+          newNameArray[i] = newName;
+          renamedN++;
+        }
+      }
+      if (renamedN != 0) {
+        splice(absPath, spanArray, newNameArray);
+      }
+      return renamedN;
+    } catch (Exception e) {
+      throw LocX.of(e).with("Skel#path", absPath);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static void splice(Path path, int[] spanArray, String[] newNameArray) {
+    IO.replace(path, dst -> {
+      try (FileChannel src = FileChannel.open(path, StandardOpenOption.READ)) {
+        long position = 0;
+        for (int i = 0; i < newNameArray.length; i++) {
+          String newName = newNameArray[i];
+          if (newName != null) {
+            transfer(src, position, spanArray[i << 1], dst);
+            ByteBuffer bytes = encode(newName);
+            while (bytes.hasRemaining()) {
+              dst.write(bytes);
+            }
+            position = spanArray[(i << 1) + 1];
+          }
+        }
+        transfer(src, position, src.size(), dst);
+      }
+    });
+  }
+
+  // the skel may be truncated or replaced meanwhile, then nothing is transferred
+  private static void transfer(FileChannel src, long start, long end, FileChannel dst)
+      throws IOException {
+    while (start < end) {
+      long n = src.transferTo(start, end - start, dst);
+      if (n <= 0) {
+        throw new EOFException(format("%d bytes expected at %d", end - start, start));
+      }
+      start += n;
+    }
+  }
+
+  // same as _SkelOutput_#writeAsciiString
+  private static ByteBuffer encode(String name) {
+    int n = name.length();
+    ByteBuffer bytes = ByteBuffer.allocate(5 + n);
+    int value = n + 1;
+    while ((value & ~0x7F) != 0) {
+      bytes.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    bytes.put((byte) value);
+    for (int i = 0; i < n; i++) {
+      bytes.put((byte) name.charAt(i));
+    }
+    return bytes.flip();
+  }
+
+}
@@ -20,10 +20,7 @@ import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
 import ddmodstool.core.game.base.data.localization.LocX;
 import ddmodstool.core.game.base.file.skel.Skel;
-import ddmodstool.core.lang.util.IO;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Path;
 
 /**
@@ -32,7 +29,7 @@ import java.nio.file.Path;
  * @author wautsns
  * @since 1.0.0
  */
-public final class _SkelWriter_ extends DataOutputStream {
+public final class _SkelWriter_ extends _SkelOutput_ {
 
   // ---------------------------------------------------------------------------------------------
   // PublicStaticMethods
@@ -40,8 +37,8 @@ public final class _SkelWriter_ extends DataOutputStream {
 
   public static void write(Path path, Skel skel) {
     Path absPath = path.toAbsolutePath();
-    try (_SkelWriter_ ignored = new _SkelWriter_(IO.output(absPath), skel)) {
-      // write okay
+    try {
+      new _SkelWriter_(skel).writeTo(absPath);
     } catch (Exception e) {
       throw LocX.of(e).with("Skel#path", absPath);
     }
@@ -236,9 +233,7 @@ public final class _SkelWriter_ extends DataOutputStream {
       writeVarint(end);
       if (end != 0) {
         writeVarint(frame.getInteger("start"));
-        for (float vertex : frame.getObject("vertexArray", float[].class)) {
-          writeFloat(vertex);
-        }
+        writeFloats(frame.getObject("vertexArray", float[].class));
       }
       if ((i + 1) < n) {
         writeCurve(frame);
@@ -283,52 +278,16 @@ public final class _SkelWriter_ extends DataOutputStream {
 
   // ---------------------------------------------------------------------------------------------
 
-  private void writeVarint(int value) throws IOException {
-    while (true) {
-      byte b = (byte) (value & 0x7F);
-      value = value >>> 7;
-      if (value != 0) {
-        writeByte(b | 0x80);
-      } else {
-        writeByte(b);
-        break;
-      }
-    }
-  }
-
-  private void writeAsciiString(String value) throws IOException {
-    if (value == null) {
-      writeVarint(0);
-    } else {
-      writeVarint(value.length() + 1);
-      for (int i = 0, l = value.length(); i < l; i++) {
-        writeByte(value.charAt(i));
-      }
-    }
-  }
-
   private void writeShortArray(JSONObject object, String field) throws IOException {
-    short[] array = object.getObject(field, short[].class);
-    writeVarint(array.length);
-    for (short value : array) {
-      writeShort(value);
-    }
+    writeShortArray(object.getObject(field, short[].class));
   }
 
   private void writeVarintArray(JSONObject object, String field) throws IOException {
-    int[] array = object.getObject(field, int[].class);
-    writeVarint(array.length);
-    for (int value : array) {
-      writeVarint(value);
-    }
+    writeVarintArray(object.getObject(field, int[].class));
   }
 
   private void writeFloatArray(JSONObject object, String field) throws IOException {
-    float[] array = object.getObject(field, float[].class);
-    writeVarint(array.length);
-    for (float value : array) {
-      writeFloat(value);
-    }
+    writeFloatArray(object.getObject(field, float[].class));
   }
 
   private void writeArray(JSONArray array, Writer writer) throws IOException {
@@ -359,8 +318,7 @@ public final class _SkelWriter_ extends DataOutputStream {
   // PrivateConstructors
   // ---------------------------------------------------------------------------------------------
 
-  private _SkelWriter_(OutputStream output, Skel skel) throws IOException {
-    super(output);
+  private _SkelWriter_(Skel skel) throws IOException {
     this.nonessential = skel.getBoolean("nonessential");
     // --- do write ---
     writeAsciiString(skel.getString("hash"));
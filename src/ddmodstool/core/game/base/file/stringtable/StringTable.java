@@ -42,6 +42,19 @@ public final class StringTable {
     return _StringTableReader_.read(path, filter);
   }
 
+  public static void read(Path path, StringTableFilter filter, StringTableSink sink) {
+    _StringTableReader_.read(path, filter, sink);
+  }
+
+  /**
+   * Same as {@link #read(Path, StringTableFilter, StringTableSink)}, but failures are thrown as
+   * they are instead of as {@link LocX}, which needs Loc to be initialized.
+   */
+  public static void readRaw(Path path, StringTableFilter filter, StringTableSink sink)
+      throws Exception {
+    _StringTableReader_.readRaw(path, filter, sink);
+  }
+
   // ---------------------------------------------------------------------------------------------
   // ---------------------------------------------------------------------------------------------
 
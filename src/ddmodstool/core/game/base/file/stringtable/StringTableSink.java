@@ -0,0 +1,34 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.stringtable;
+
+/**
+ * [ *.string_table.xml ] entry sink, entries are delivered as they are read, without building a
+ * {@link StringTable}.
+ *
+ * <p>Entries of languages and ids rejected by the {@link StringTableFilter} are not delivered.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface StringTableSink {
+
+  // the cdata is chars [start, start + length) of the array, valid only during the call
+  void onEntry(String languageId, String entryId, char[] cdata, int start, int length);
+
+}
@@ -20,13 +20,12 @@ import ddmodstool.core.game.base.data.localization.LocX;
 import ddmodstool.core.game.base.file.stringtable.StringTable;
 import ddmodstool.core.game.base.file.stringtable.StringTable.EntryMap;
 import ddmodstool.core.game.base.file.stringtable.StringTableFilter;
+import ddmodstool.core.game.base.file.stringtable.StringTableSink;
 import ddmodstool.core.lang.util.IO;
-import ddmodstool.core.lang.util.Simple;
-import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.function.Predicate;
@@ -39,7 +38,7 @@ import org.xml.sax.helpers.DefaultHandler;
  * @author wautsns
  * @since 1.0.0
  */
-public final class _StringTableReader_ extends DefaultHandler implements Closeable {
+public final class _StringTableReader_ extends DefaultHandler {
 
   // ---------------------------------------------------------------------------------------------
   // PublicStaticMethods
@@ -47,29 +46,56 @@ public final class _StringTableReader_ extends DefaultHandler implements Closeab
 
   public static StringTable read(Path path, StringTableFilter filter) {
     Path absPath = path.toAbsolutePath();
-    try (_StringTableReader_ reader = new _StringTableReader_(absPath, filter)) {
-      return reader.result;
+    StringTable result = new StringTable();
+    result.setPath(absPath);
+    result.setEntryMapMap(new LinkedHashMap<>());
+    read(absPath, filter, (languageId, entryId, cdata, start, length) -> {
+      EntryMap entryMap = result.getEntryMap(languageId);
+      if (entryMap == null) {
+        entryMap = new EntryMap();
+        entryMap.setLanguageId(languageId);
+        entryMap.setCdataListMap(new LinkedHashMap<>());
+        result.reqEntryMapMap().put(languageId, entryMap);
+      }
+      put(entryMap, entryId, new String(cdata, start, length));
+    });
+    return result;
+  }
+
+  public static void read(Path path, StringTableFilter filter, StringTableSink sink) {
+    Path absPath = path.toAbsolutePath();
+    try {
+      readRaw(absPath, filter, sink);
     } catch (Exception e) {
       throw LocX.of(e).with("StringTable#path", absPath);
     }
   }
 
+  // failures are not localized
+  public static void readRaw(Path path, StringTableFilter filter, StringTableSink sink)
+      throws Exception {
+    Path absPath = path.toAbsolutePath();
+    _StringTableReader_ reader = new _StringTableReader_(filter, sink);
+    if (!reader.scan(absPath)) {
+      IO.scanXml(absPath, reader);
+    }
+  }
+
   // ---------------------------------------------------------------------------------------------
   // ---------------------------------------------------------------------------------------------
 
-  private final StringTable result = Simple.init(() -> {
-    StringTable stringTable = new StringTable();
-    stringTable.setEntryMapMap(new LinkedHashMap<>());
-    return stringTable;
-  });
-
-  private final InputStream input;
+  private final StringTableSink sink;
   private final Predicate<String> languageIdFilter;
   private final Predicate<String> entryIdFilter;
+  // null if all cdata are accepted, so that no string is created for testing
   private final Predicate<String> entryCdataFilter;
 
-  private EntryMap entryMap;
+  private String languageId;
   private String entryId;
+  // cdata of the entry, which may be reported in several chunks
+  private char[] cdata = new char[256];
+  private int cdataLength;
+  private boolean cdataFound;
 
   // ---------------------------------------------------------------------------------------------
   // @Override PublicMethods, DefaultHandler
@@ -77,21 +103,17 @@ public final class _StringTableReader_ extends DefaultHandler implements Closeab
 
   @Override
   public void startElement(String uri, String localName, String qName, Attributes attributes) {
-    if (qName.equals("entry") && (entryMap != null)) {
+    if (qName.equals("entry") && (languageId != null)) {
       String id = attributes.getValue("id");
       if ((id != null) && entryIdFilter.test(id)) {
         entryId = id;
+        cdataLength = 0;
+        cdataFound = false;
       }
     } else if (qName.equals("language")) {
       String id = attributes.getValue("id");
       if ((id != null) && languageIdFilter.test(id)) {
-        entryMap = result.getEntryMap(id);
-        if (entryMap == null) {
-          entryMap = new EntryMap();
-          entryMap.setLanguageId(id);
-          entryMap.setCdataListMap(new LinkedHashMap<>());
-          result.reqEntryMapMap().put(entryMap.getLanguageId(), entryMap);
-        }
+        languageId = id;
       }
     }
   }
@@ -99,9 +121,13 @@ public final class _StringTableReader_ extends DefaultHandler implements Closeab
   @Override
   public void endElement(String uri, String localName, String qName) {
     if (qName.equals("entry")) {
+      if ((entryId != null) && cdataFound && ((entryCdataFilter == null)
+          || entryCdataFilter.test(new String(cdata, 0, cdataLength)))) {
+        sink.onEntry(languageId, entryId, cdata, 0, cdataLength);
+      }
       entryId = null;
     } else if (qName.equals("language")) {
-      entryMap = null;
+      languageId = null;
     }
   }
 
@@ -110,51 +136,42 @@ public final class _StringTableReader_ extends DefaultHandler implements Closeab
     if (entryId == null) {
       return;
     }
-    String cdata = new String(ch, start, length);
-    if (!entryCdataFilter.test(cdata)) {
-      return;
-    }
-    List<String> cdataList = entryMap.getCdataList(entryId);
-    if (cdataList == null) {
-      cdataList = List.of(cdata);
-      entryMap.reqCdataListMap().put(entryId, cdataList);
-    } else {
-      if (cdataList.size() == 1) {
-        String prev = cdataList.get(0);
-        cdataList = new ArrayList<>(2);
-        cdataList.add(prev);
-        entryMap.reqCdataListMap().put(entryId, cdataList);
-      }
-      cdataList.add(cdata);
-      if (cdataList.size() >= 4) {
-        ((ArrayList<?>) cdataList).trimToSize();
-      }
+    if (cdataLength + length > cdata.length) {
+      cdata = Arrays.copyOf(cdata, Math.max(cdataLength + length, cdata.length << 1));
     }
+    System.arraycopy(ch, start, cdata, cdataLength, length);
+    cdataLength += length;
+    cdataFound = true;
   }
 
   // ---------------------------------------------------------------------------------------------
-  // @Override PublicMethods, Closeable
+  // PrivateMethods
   // ---------------------------------------------------------------------------------------------
 
-  @Override
-  public void close() throws IOException {
-    if (input != null) {
-      input.close();
+  // tries the fast path, see _StringTableScanner_
+  private boolean scan(Path path) throws IOException {
+    StringTableSink sink = this.sink;
+    if (entryCdataFilter != null) {
+      sink = (languageId, entryId, cdata, start, length) -> {
+        if (entryCdataFilter.test(new String(cdata, start, length))) {
+          this.sink.onEntry(languageId, entryId, cdata, start, length);
+        }
+      };
     }
+    return _StringTableScanner_.scan(path, languageIdFilter, entryIdFilter, sink);
   }
 
   // ---------------------------------------------------------------------------------------------
   // PrivateConstructors
   // ---------------------------------------------------------------------------------------------
 
-  private _StringTableReader_(Path path, StringTableFilter filter) {
-    result.setPath(path);
-    this.input = IO.input(path);
+  private _StringTableReader_(StringTableFilter filter, StringTableSink sink) {
+    this.sink = sink;
     Predicate<String> returnTrueDirectly = ignored -> true;
     if (filter == null) {
       this.languageIdFilter = returnTrueDirectly;
       this.entryIdFilter = returnTrueDirectly;
-      this.entryCdataFilter = returnTrueDirectly;
+      this.entryCdataFilter = null;
     } else {
       if (filter.getForLanguageId() == null) {
         this.languageIdFilter = returnTrueDirectly;
@@ -166,14 +183,31 @@ public final class _StringTableReader_ extends DefaultHandler implements Closeab
       } else {
         this.entryIdFilter = filter.getForEntryId();
       }
-      if (filter.getForEntryCdata() == null) {
-        this.entryCdataFilter = returnTrueDirectly;
-      } else {
-        this.entryCdataFilter = filter.getForEntryCdata();
+      this.entryCdataFilter = filter.getForEntryCdata();
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private static void put(EntryMap entryMap, String entryId, String cdata) {
+    List<String> cdataList = entryMap.getCdataList(entryId);
+    if (cdataList == null) {
+      cdataList = List.of(cdata);
+      entryMap.reqCdataListMap().put(entryId, cdataList);
+    } else {
+      if (cdataList.size() == 1) {
+        String prev = cdataList.get(0);
+        cdataList = new ArrayList<>(2);
+        cdataList.add(prev);
+        entryMap.reqCdataListMap().put(entryId, cdataList);
+      }
+      cdataList.add(cdata);
+      if (cdataList.size() >= 4) {
+        ((ArrayList<?>) cdataList).trimToSize();
       }
     }
-    // --- do read ---
-    IO.scanXml(path, this);
   }
 
 }
@@ -0,0 +1,532 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.core.game.base.file.stringtable._internal_;
+
+import ddmodstool.core.game.base.file.stringtable.StringTableSink;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * [ *.string_table.xml ] scanner, a fast path for the narrow grammar of string tables: utf-8,
+ * comments, elements with quoted plain attributes, and text or cdata sections in entries.
+ *
+ * <p>Anything else (doctypes, entity references, elements nested in entries, malformed markup,
+ * invalid utf-8...) makes the scan give up before anything is delivered, the file is then left
+ * to the sax parser. Entries of rejected languages are skipped without being decoded. Scanners
+ * and their buffers are reused by their threads.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+final class _StringTableScanner_ {
+
+  // ---------------------------------------------------------------------------------------------
+  // ---------------------------------------------------------------------------------------------
+
+  private Predicate<String> languageIdFilter;
+  private Predicate<String> entryIdFilter;
+  private StringTableSink sink;
+
+  private byte[] bytes = new byte[1 << 16];
+  private int byteN;
+  private int i;
+
+  // element stack, (start, end) of names
+  private int[] nameArray = new int[16];
+  private int depth;
+  private boolean rootFound;
+
+  // the accepted language being scanned, null if none
+  private String languageId;
+  private boolean languageOpen;
+  // the accepted entry being scanned, -1 if none
+  private int entry = -1;
+  private boolean entryOpen;
+
+  // accepted entries, decoded into one char array
+  private final List<String> languageIdList = new ArrayList<>();
+  private final List<String> entryIdList = new ArrayList<>();
+  private int entryN;
+  private int[] entryStartArray = new int[256];
+  private int[] entryLengthArray = new int[256];
+  private char[] chars = new char[1 << 12];
+  private int charN;
+
+  // ---------------------------------------------------------------------------------------------
+  // PackageStaticMethods
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Scans the file, returns false (nothing delivered) if the sax parser is needed.
+   */
+  static boolean scan(
+      Path path, Predicate<String> languageIdFilter, Predicate<String> entryIdFilter,
+      StringTableSink sink) throws IOException {
+    _StringTableScanner_ scanner = SCANNER.get();
+    if (scanner == null) {
+      // the one of the thread is scanning, e.g. a sink reads another file
+      scanner = new _StringTableScanner_();
+    }
+    SCANNER.set(null);
+    try {
+      scanner.languageIdFilter = languageIdFilter;
+      scanner.entryIdFilter = entryIdFilter;
+      scanner.sink = sink;
+      scanner.load(path);
+      return scanner.scan();
+    } finally {
+      scanner.reset();
+      SCANNER.set(scanner);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateMethods
+  // ---------------------------------------------------------------------------------------------
+
+  private void load(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      int size = Math.toIntExact(channel.size());
+      if (size > bytes.length) {
+        bytes = new byte[Math.max(size, bytes.length << 1)];
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+      while ((channel.read(buffer) >= 0) && buffer.hasRemaining()) {
+        // read until eof
+      }
+      byteN = buffer.position();
+    }
+  }
+
+  private boolean scan() {
+    if (!scanAll()) {
+      return false;
+    }
+    for (int e = 0; e < entryN; e++) {
+      if (entryLengthArray[e] > 0) {
+        sink.onEntry(languageIdList.get(e), entryIdList.get(e),
+            chars, entryStartArray[e], entryLengthArray[e]);
+      }
+    }
+    return true;
+  }
+
+  private void reset() {
+    languageIdFilter = null;
+    entryIdFilter = null;
+    sink = null;
+    i = 0;
+    depth = 0;
+    rootFound = false;
+    languageId = null;
+    languageOpen = false;
+    entry = -1;
+    entryOpen = false;
+    languageIdList.clear();
+    entryIdList.clear();
+    entryN = 0;
+    charN = 0;
+    // buffers of huge files are not kept
+    if (bytes.length > BUFFER_CAPACITY_KEPT) {
+      bytes = new byte[1 << 16];
+    }
+    if (chars.length > BUFFER_CAPACITY_KEPT) {
+      chars = new char[1 << 12];
+    }
+  }
+
+  private boolean scanAll() {
+    byte[] bytes = this.bytes;
+    int n = byteN;
+    if ((n >= 3) && (bytes[0] == (byte) 0xEF) && (bytes[1] == (byte) 0xBB)
+        && (bytes[2] == (byte) 0xBF)) {
+      i = 3;
+    }
+    if (startsWith("<?xml") && !scanDeclaration()) {
+      return false;
+    }
+    while (i < n) {
+      boolean scanned;
+      if (bytes[i] != '<') {
+        scanned = scanText();
+      } else if (startsWith("<!--")) {
+        scanned = skipPast("-->");
+      } else if (startsWith("<![CDATA[")) {
+        scanned = scanCdata();
+      } else if (startsWith("<!") || startsWith("<?")) {
+        // doctypes may declare entities, processing instructions are left to sax too
+        scanned = false;
+      } else if (startsWith("</")) {
+        scanned = scanEndTag();
+      } else {
+        scanned = scanStartTag();
+      }
+      if (!scanned) {
+        return false;
+      }
+    }
+    return rootFound && (depth == 0);
+  }
+
+  private boolean scanDeclaration() {
+    int start = i;
+    if (!skipPast("?>")) {
+      return false;
+    }
+    String declaration = new String(bytes, start, i - start, StandardCharsets.ISO_8859_1);
+    int encoding = declaration.indexOf("encoding");
+    if (encoding < 0) {
+      return true;
+    }
+    String rest = declaration.substring(encoding + "encoding".length()).trim();
+    if (!rest.startsWith("=")) {
+      return false;
+    }
+    rest = rest.substring(1).trim();
+    if (rest.isEmpty() || ((rest.charAt(0) != '"') && (rest.charAt(0) != '\''))) {
+      return false;
+    }
+    int end = rest.indexOf(rest.charAt(0), 1);
+    return (end > 0) && rest.substring(1, end).equalsIgnoreCase("UTF-8");
+  }
+
+  private boolean scanText() {
+    byte[] bytes = this.bytes;
+    int start = i;
+    int end = start;
+    while ((end < byteN) && (bytes[end] != '<')) {
+      if (bytes[end] == '&') {
+        return false;
+      }
+      end++;
+    }
+    i = end;
+    if (depth == 0) {
+      // only whitespace is allowed out of the root
+      for (int j = start; j < end; j++) {
+        if (!isWhitespace(bytes[j])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return (entry < 0) || decode(start, end);
+  }
+
+  private boolean scanCdata() {
+    int start = i + "<![CDATA[".length();
+    if ((depth == 0) || !skipPast("]]>")) {
+      return false;
+    }
+    return (entry < 0) || decode(start, i - "]]>".length());
+  }
+
+  private boolean scanEndTag() {
+    i += 2;
+    int nameStart = i;
+    skipName();
+    int nameEnd = i;
+    skipWhitespace();
+    if ((depth == 0) || (i >= byteN) || (bytes[i] != '>')) {
+      return false;
+    }
+    i++;
+    depth--;
+    int topStart = nameArray[depth << 1];
+    int topEnd = nameArray[(depth << 1) + 1];
+    if (!Arrays.equals(bytes, nameStart, nameEnd, bytes, topStart, topEnd)) {
+      return false;
+    }
+    if (entryOpen && nameEquals(nameStart, nameEnd, "entry")) {
+      entryOpen = false;
+      if (entry >= 0) {
+        entryLengthArray[entry] = charN - entryStartArray[entry];
+        entry = -1;
+      }
+    } else if (languageOpen && nameEquals(nameStart, nameEnd, "language")) {
+      languageOpen = false;
+      languageId = null;
+    }
+    return true;
+  }
+
+  private boolean scanStartTag() {
+    i++;
+    int nameStart = i;
+    skipName();
+    int nameEnd = i;
+    if ((nameStart == nameEnd) || entryOpen || ((depth == 0) && rootFound)) {
+      return false;
+    }
+    boolean isEntry = nameEquals(nameStart, nameEnd, "entry");
+    boolean isLanguage = !isEntry && nameEquals(nameStart, nameEnd, "language");
+    if (isLanguage && languageOpen) {
+      return false;
+    }
+    String id = null;
+    boolean empty;
+    byte[] bytes = this.bytes;
+    while (true) {
+      int whitespaceStart = i;
+      skipWhitespace();
+      if (i >= byteN) {
+        return false;
+      } else if (bytes[i] == '>') {
+        i++;
+        empty = false;
+        break;
+      } else if ((bytes[i] == '/') && (i + 1 < byteN) && (bytes[i + 1] == '>')) {
+        i += 2;
+        empty = true;
+        break;
+      } else if (i == whitespaceStart) {
+        return false;
+      }
+      int attributeStart = i;
+      skipName();
+      int attributeEnd = i;
+      skipWhitespace();
+      if ((attributeStart == attributeEnd) || (i >= byteN) || (bytes[i] != '=')) {
+        return false;
+      }
+      i++;
+      skipWhitespace();
+      if ((i >= byteN) || ((bytes[i] != '"') && (bytes[i] != '\''))) {
+        return false;
+      }
+      byte quote = bytes[i++];
+      int valueStart = i;
+      while ((i < byteN) && (bytes[i] != quote)) {
+        byte b = bytes[i];
+        // references and whitespace to normalize are left to sax
+        if ((b == '&') || (b == '<') || (b == '\t') || (b == '\n') || (b == '\r')) {
+          return false;
+        }
+        i++;
+      }
+      if (i >= byteN) {
+        return false;
+      }
+      int valueEnd = i++;
+      // ids of entries of rejected languages are not needed
+      if ((isLanguage || (isEntry && (languageId != null)))
+          && nameEquals(attributeStart, attributeEnd, "id")) {
+        id = string(valueStart, valueEnd);
+        if (id == null) {
+          return false;
+        }
+      }
+    }
+    rootFound = true;
+    if (isLanguage) {
+      if ((id != null) && languageIdFilter.test(id)) {
+        languageId = id;
+      }
+      languageOpen = !empty;
+      if (empty) {
+        languageId = null;
+      }
+    } else if (isEntry && !empty) {
+      entryOpen = true;
+      if ((languageId != null) && (id != null) && entryIdFilter.test(id)) {
+        entry = addEntry(id);
+      }
+    }
+    if (!empty) {
+      if ((depth << 1) == nameArray.length) {
+        nameArray = Arrays.copyOf(nameArray, nameArray.length << 1);
+      }
+      nameArray[depth << 1] = nameStart;
+      nameArray[(depth << 1) + 1] = nameEnd;
+      depth++;
+    }
+    return true;
+  }
+
+  private int addEntry(String id) {
+    if (entryN == entryStartArray.length) {
+      entryStartArray = Arrays.copyOf(entryStartArray, entryN << 1);
+      entryLengthArray = Arrays.copyOf(entryLengthArray, entryN << 1);
+    }
+    languageIdList.add(languageId);
+    entryIdList.add(id);
+    entryStartArray[entryN] = charN;
+    entryLengthArray[entryN] = 0;
+    return entryN++;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  // decodes utf-8 bytes [start, end) into chars with line ends normalized, false if invalid
+  private boolean decode(int start, int end) {
+    byte[] bytes = this.bytes;
+    if (charN + (end - start) > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(charN + (end - start), chars.length << 1));
+    }
+    char[] chars = this.chars;
+    int charN = this.charN;
+    for (int j = start; j < end; ) {
+      int b = bytes[j++];
+      if (b >= 0) {
+        if (b < 0x20) {
+          if (b == '\r') {
+            b = '\n';
+            if ((j < end) && (bytes[j] == '\n')) {
+              j++;
+            }
+          } else if ((b != '\t') && (b != '\n')) {
+            return false;
+          }
+        }
+        chars[charN++] = (char) b;
+        continue;
+      }
+      int codePoint;
+      int continuationN;
+      int min;
+      if ((b & 0xE0) == 0xC0) {
+        codePoint = b & 0x1F;
+        continuationN = 1;
+        min = 0x80;
+      } else if ((b & 0xF0) == 0xE0) {
+        codePoint = b & 0x0F;
+        continuationN = 2;
+        min = 0x800;
+      } else if ((b & 0xF8) == 0xF0) {
+        codePoint = b & 0x07;
+        continuationN = 3;
+        min = 0x10000;
+      } else {
+        return false;
+      }
+      if (j + continuationN > end) {
+        return false;
+      }
+      for (int k = 0; k < continuationN; k++) {
+        int c = bytes[j++];
+        if ((c & 0xC0) != 0x80) {
+          return false;
+        }
+        codePoint = (codePoint << 6) | (c & 0x3F);
+      }
+      if ((codePoint < min) || (codePoint > 0x10FFFF)
+          || ((codePoint >= 0xD800) && (codePoint <= 0xDFFF))) {
+        return false;
+      }
+      if (codePoint < 0x10000) {
+        chars[charN++] = (char) codePoint;
+      } else {
+        chars[charN++] = Character.highSurrogate(codePoint);
+        chars[charN++] = Character.lowSurrogate(codePoint);
+      }
+    }
+    this.charN = charN;
+    return true;
+  }
+
+  // decodes utf-8 bytes [start, end) into a string, null if invalid
+  private String string(int start, int end) {
+    int charN = this.charN;
+    if (!decode(start, end)) {
+      return null;
+    }
+    String string = new String(chars, charN, this.charN - charN);
+    this.charN = charN;
+    return string;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+
+  private boolean startsWith(String prefix) {
+    int n = prefix.length();
+    if (i + n > byteN) {
+      return false;
+    }
+    for (int j = 0; j < n; j++) {
+      if (bytes[i + j] != prefix.charAt(j)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // moves past the first occurrence of the terminator, false if none
+  private boolean skipPast(String terminator) {
+    byte first = (byte) terminator.charAt(0);
+    for (int j = i, last = byteN - terminator.length(); j <= last; j++) {
+      if (bytes[j] == first) {
+        i = j;
+        if (startsWith(terminator)) {
+          i = j + terminator.length();
+          return true;
+        }
+      }
+    }
+    i = byteN;
+    return false;
+  }
+
+  private void skipName() {
+    while ((i < byteN) && !isWhitespace(bytes[i]) && (bytes[i] != '>')
+        && (bytes[i] != '/') && (bytes[i] != '=') && (bytes[i] != '<')
+        && (bytes[i] != '"') && (bytes[i] != '\'')) {
+      i++;
+    }
+  }
+
+  private void skipWhitespace() {
+    while ((i < byteN) && isWhitespace(bytes[i])) {
+      i++;
+    }
+  }
+
+  private boolean nameEquals(int start, int end, String name) {
+    int n = name.length();
+    if (end - start != n) {
+      return false;
+    }
+    for (int j = 0; j < n; j++) {
+      if (bytes[start + j] != name.charAt(j)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final int BUFFER_CAPACITY_KEPT = 1 << 23;
+  private static final ThreadLocal<_StringTableScanner_> SCANNER =
+      ThreadLocal.withInitial(_StringTableScanner_::new);
+
+  // ---------------------------------------------------------------------------------------------
+
+  private static boolean isWhitespace(byte b) {
+    return (b == ' ') || (b == '\t') || (b == '\n') || (b == '\r');
+  }
+
+}
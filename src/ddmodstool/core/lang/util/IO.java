@@ -18,14 +18,23 @@ package ddmodstool.core.lang.util;
 
 import ddmodstool.core.lang.function.ConsumerT;
 import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -129,6 +138,37 @@ public final class IO {
     }
   }
 
+  /**
+   * Writes the file to a temporary sibling, which is forced and then moved over the file with its
+   * permissions and owner, so the file is never left half written.
+   */
+  public static void replace(Path path, ConsumerT<FileChannel> writer) {
+    try {
+      Path tempPath = Files.createTempFile(path.getParent(), name(path), ".tmp");
+      try {
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+          writer.acceptT(channel);
+          channel.force(false);
+        }
+        if (Files.exists(path)) {
+          copyAttributes(path, tempPath);
+        }
+        try {
+          Files.move(tempPath, path,
+              StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tempPath);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   // ---------------------------------------------------------------------------------------------
 
   public static String readString(Path path) {
@@ -150,10 +190,19 @@ public final class IO {
   // ---------------------------------------------------------------------------------------------
 
   public static void scanXml(Path path, DefaultHandler sax) {
+    SAXParser parser = SAX_PARSER.get();
+    if (parser == null) {
+      // the one of the thread is scanning, e.g. a handler scans another file
+      parser = newSAXParser();
+    }
+    SAX_PARSER.set(null);
     try (InputStream input = IO.input(path)) {
-      SAXParserFactory.newInstance().newSAXParser().parse(input, sax);
-    } catch (IOException | ParserConfigurationException | SAXException e) {
+      parser.parse(input, sax);
+    } catch (IOException | SAXException e) {
       throw new RuntimeException(e);
+    } finally {
+      parser.reset();
+      SAX_PARSER.set(parser);
     }
   }
 
@@ -167,4 +216,65 @@ public final class IO {
     }
   }
 
+  // written as png
+  public static void writeImage(Path path, RenderedImage image) {
+    try (OutputStream output = output(path)) {
+      ImageIO.write(image, "png", output);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // PrivateStaticMethods ( & Fields )
+  // ---------------------------------------------------------------------------------------------
+
+  private static final SAXParserFactory SAX_PARSER_FACTORY = SAXParserFactory.newInstance();
+  // parsers are reset and reused by their threads
+  private static final ThreadLocal<SAXParser> SAX_PARSER =
+      ThreadLocal.withInitial(IO::newSAXParser);
+
+  // ---------------------------------------------------------------------------------------------
+
+  // temporary files are private to the user (0600 on posix), the replaced file keeps its own
+  private static void copyAttributes(Path source, Path target) throws IOException {
+    PosixFileAttributeView posixView =
+        Files.getFileAttributeView(source, PosixFileAttributeView.class);
+    if (posixView != null) {
+      PosixFileAttributes attributes = posixView.readAttributes();
+      PosixFileAttributeView targetView =
+          Files.getFileAttributeView(target, PosixFileAttributeView.class);
+      targetView.setPermissions(attributes.permissions());
+      try {
+        targetView.setGroup(attributes.group());
+        targetView.setOwner(attributes.owner());
+      } catch (IOException ignored) {
+        // only privileged users can give files away, the user then owns the file as before
+      }
+      return;
+    }
+    AclFileAttributeView aclView = Files.getFileAttributeView(source, AclFileAttributeView.class);
+    if (aclView != null) {
+      AclFileAttributeView targetView =
+          Files.getFileAttributeView(target, AclFileAttributeView.class);
+      targetView.setAcl(aclView.getAcl());
+      try {
+        targetView.setOwner(aclView.getOwner());
+      } catch (IOException ignored) {
+        // same as above
+      }
+    }
+  }
+
+  private static SAXParser newSAXParser() {
+    // factories are not guaranteed to be thread-safe
+    synchronized (SAX_PARSER_FACTORY) {
+      try {
+        return SAX_PARSER_FACTORY.newSAXParser();
+      } catch (ParserConfigurationException | SAXException e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
 }
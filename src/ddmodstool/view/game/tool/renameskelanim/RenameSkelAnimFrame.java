@@ -4,7 +4,10 @@ import static java.lang.String.format;
 
 import ddmodstool.core.conf.Conf;
 import ddmodstool.core.game.base.data.localization.Loc;
-import ddmodstool.core.game.base.file.skel.Skel;
+import ddmodstool.core.game.base.data.localization.LocX;
+import ddmodstool.core.game.base.file.skel.SkelBatch;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelRenderer;
 import ddmodstool.core.lang.awt.JBasicFrame;
 import ddmodstool.core.lang.awt.JLoading;
 import ddmodstool.core.lang.awt.JMessage;
@@ -17,7 +20,6 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,7 +43,7 @@ import javax.swing.JScrollPane;
 public final class RenameSkelAnimFrame extends JBasicFrame {
 
   private final ObV<Path> animPath = new ObV<>(null);
-  private final ObV<Skel> selectedSkel = new ObV<>(null);
+  private final ObV<SkelData> selectedSkel = new ObV<>(null);
 
   // ---------------------------------------------------------------------------------------------
   // PublicConstructors
@@ -87,8 +89,8 @@ public final class RenameSkelAnimFrame extends JBasicFrame {
     JToolTipText.set(lblAnimationList);
     add(lblAnimationList);
     y += (16 + 10)/* + 8*/;
-    JList<Skel.Animation> lstAnimationList = new JList<>(JModel.list());
-    lstAnimationList.setCellRenderer(JRenderer.listCell(Skel.Animation::reqName));
+    JList<SkelData.Animation> lstAnimationList = new JList<>(JModel.list());
+    lstAnimationList.setCellRenderer(JRenderer.listCell(SkelData.Animation::reqName));
     JScrollPane sclAnimationList = new JScrollPane(lstAnimationList);
     sclAnimationList.setBounds(8, y, w - 8 - 8, (16 + 4) * 10 + 10);
     add(sclAnimationList);
@@ -111,7 +113,7 @@ public final class RenameSkelAnimFrame extends JBasicFrame {
 
     // >>>> menus
     Runnable renameAction = () -> {
-      Skel.Animation skelAnim = lstAnimationList.getSelectedValue();
+      SkelData.Animation skelAnim = lstAnimationList.getSelectedValue();
       String newSkelAnimName = JOptionPane.showInputDialog(this,
           Loc.G.text("RenameSkelAnimFrame#scene1#dlgRename#message"),
           skelAnim.reqName());
@@ -120,14 +122,48 @@ public final class RenameSkelAnimFrame extends JBasicFrame {
         lstAnimationList.repaint();
       }
     };
+    Runnable renameAllAction = () -> {
+      SkelData.Animation skelAnim = lstAnimationList.getSelectedValue();
+      Path dir = animPath.get();
+      if ((skelAnim == null) || (dir == null)) {
+        return;
+      }
+      String newSkelAnimName = JOptionPane.showInputDialog(this,
+          Loc.G.text("RenameSkelAnimFrame#scene1#dlgRename#message"),
+          skelAnim.reqName());
+      if ((newSkelAnimName != null) && !newSkelAnimName.isBlank()) {
+        String skelAnimName = skelAnim.reqName();
+        SkelBatch.Transform transform =
+            SkelBatch.Transform.renameAnimation(skelAnimName, newSkelAnimName);
+        JLoading.of(this, () -> SkelBatch.run(dir, transform)).ifPresent(report -> {
+          // the selected skel is renamed on disk too, keep the one in memory the same
+          selectedSkel.opt().ifPresent(skel -> skel.reqAnimationList().stream()
+              .filter(anim -> skelAnimName.equals(anim.getName()))
+              .forEach(anim -> anim.setName(newSkelAnimName)));
+          lstAnimationList.repaint();
+          if (report.failureList().isEmpty()) {
+            JMessage.info(this, Loc.G.text("txt[ProcessingIsSuccessful]"));
+          } else {
+            JMessage.error(this, report.failureList().stream()
+                .map(LocX::getLocalizedMessage)
+                .collect(Collectors.joining(System.lineSeparator())));
+          }
+        });
+      }
+    };
     JPopupMenu pmnAnimationList = new JPopupMenu();
     lstAnimationList.setComponentPopupMenu(pmnAnimationList);
-    JModel.popupMenuItem.copy(lstAnimationList, Skel.Animation::clone);
+    JModel.popupMenuItem.copy(lstAnimationList, SkelData.Animation::copy);
     JMenuItem mniRename = new JMenuItem();
     mniRename.setText(Loc.G.text("RenameSkelAnimFrame#scene1#mniRename#text"));
     JToolTipText.set(mniRename);
     mniRename.addActionListener(event -> renameAction.run());
     pmnAnimationList.add(mniRename);
+    JMenuItem mniRenameAll = new JMenuItem();
+    mniRenameAll.setText(Loc.G.text("RenameSkelAnimFrame#scene1#mniRenameAll#text"));
+    JToolTipText.set(mniRenameAll);
+    mniRenameAll.addActionListener(event -> renameAllAction.run());
+    pmnAnimationList.add(mniRenameAll);
     pmnAnimationList.addSeparator();
     JModel.popupMenuItem.common(lstAnimationList);
 
@@ -166,7 +202,7 @@ public final class RenameSkelAnimFrame extends JBasicFrame {
         if (skelPath == null) {
           selectedSkel.set(null);
         } else {
-          JLoading.of(RenameSkelAnimFrame.this, () -> Skel.read(skelPath))
+          JLoading.of(RenameSkelAnimFrame.this, () -> SkelData.read(skelPath, true))
               .ifPresent(selectedSkel::set);
         }
       }
@@ -191,17 +227,22 @@ public final class RenameSkelAnimFrame extends JBasicFrame {
     });
     btnPreview.addActionListener(event -> {
       selectedSkel.opt().ifPresent(selectedSkel -> {
-        try {
-          Runtime.getRuntime().exec(new String[]{
-              "java", "-jar", "DDSkelViewer.jar", selectedSkel.getPath().toString()});
-        } catch (IOException e) {
-          JMessage.error(this, e);
+        SkelData.Animation skelAnim = lstAnimationList.getSelectedValue();
+        if ((skelAnim == null) && !selectedSkel.reqAnimationList().isEmpty()) {
+          skelAnim = selectedSkel.reqAnimationList().get(0);
         }
+        SkelData.Animation previewAnim = skelAnim;
+        // pages are loaded and the frame sized to fit the animation before showing
+        JLoading.of(this, () -> {
+          SkelRenderer renderer = SkelRenderer.of(selectedSkel, 480, 480);
+          renderer.fit(previewAnim);
+          return renderer;
+        }).ifPresent(renderer -> new SkelPreviewFrame(renderer, previewAnim));
       });
     });
     btnSave.addActionListener(event -> {
       selectedSkel.opt().ifPresent(selectedSkel -> {
-        if (JLoading.of(this, () -> Skel.write(selectedSkel.getPath(), selectedSkel))) {
+        if (JLoading.of(this, () -> SkelData.write(selectedSkel.getPath(), selectedSkel))) {
           JMessage.info(this, Loc.G.text("txt[ProcessingIsSuccessful]"));
         }
       });
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (C) 2023 the original author or authors
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ddmodstool.view.game.tool.renameskelanim;
+
+import static java.lang.String.format;
+
+import ddmodstool.core.game.base.data.localization.Loc;
+import ddmodstool.core.game.base.file.skel.SkelData;
+import ddmodstool.core.game.base.file.skel.SkelRenderer;
+import ddmodstool.core.game.base.file.skel.SkelSampler;
+import ddmodstool.core.lang.awt.JBasicFrame;
+import ddmodstool.core.lang.awt.JImage;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import javax.swing.JFrame;
+import javax.swing.Timer;
+
+/**
+ * Skel preview frame, plays an animation rendered in process.
+ *
+ * @author wautsns
+ * @since 1.0.0
+ */
+public final class SkelPreviewFrame extends JBasicFrame {
+
+  private static final int FPS = 30;
+
+  // ---------------------------------------------------------------------------------------------
+  // PublicConstructors
+  // ---------------------------------------------------------------------------------------------
+
+  /**
+   * Creates a frame playing the animation (the setup pose if null) with the renderer.
+   */
+  public SkelPreviewFrame(SkelRenderer renderer, SkelData.Animation animation) {
+    setLayout(null);
+    setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+    int w = renderer.getImage().getWidth(), h = renderer.getImage().getHeight();
+
+    setTitle(format(Loc.G.text("SkelPreviewFrame#title"),
+        (animation == null) ? Loc.G.text("SkelPreviewFrame#setupPose") : animation.getName()));
+
+    JImage imgPreview = new JImage();
+    imgPreview.setBounds(8, 8, w, h);
+    imgPreview.setImage(renderer.render(animation, 0));
+    add(imgPreview);
+
+    setSize(w + 16 + 16, h + 16 + 31 + 8);
+    setResizable(false);
+    setLocationRelativeTo(null);
+
+    // >>>> actions
+    float duration = (animation == null) ? 0 : SkelSampler.duration(animation);
+    long start = System.nanoTime();
+    Timer timer = new Timer(1000 / FPS, event -> {
+      float time = (duration == 0) ? 0 : (((System.nanoTime() - start) / 1e9f) % duration);
+      renderer.render(animation, time);
+      imgPreview.repaint();
+    });
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosed(WindowEvent event) {
+        timer.stop();
+      }
+    });
+    timer.start();
+
+    setVisible(true);
+  }
+
+}